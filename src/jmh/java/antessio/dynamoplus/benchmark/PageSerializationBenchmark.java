@@ -0,0 +1,86 @@
+package antessio.dynamoplus.benchmark;
+
+import antessio.dynamoplus.domain.Book;
+import antessio.dynamoplus.domain.Category;
+import antessio.dynamoplus.protocol.Wire;
+import antessio.dynamoplus.sdk.PaginatedResult;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * JSON encoding and decoding of the SDK's {@code PaginatedResult<Book>} for pages of different sizes, in the wire
+ * format ({@code data}, {@code has_more}, {@code last_key}).
+ * <p>
+ * Pages are read as {@code PaginatedResult<Book>}, the type {@code SDKV2.getAll(..., Book.class)} returns. The SDK
+ * keeps its {@code ObjectMapper} private, so they go through {@link Wire#MAPPER}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageSerializationBenchmark {
+
+    @Param({"1", "20", "100", "1000"})
+    public int pageSize;
+
+    private final ObjectMapper mapper = Wire.MAPPER;
+    private final JavaType bookPage = mapper.getTypeFactory().constructParametricType(PaginatedResult.class, Book.class);
+    private PaginatedResult<Book> page;
+    private byte[] json;
+    private Book book;
+    private byte[] bookJson;
+
+    @Setup
+    public void setup() throws IOException {
+        Random random = new Random(42);
+        List<Book> books = IntStream.range(0, pageSize)
+                .mapToObj(i -> Book.builder()
+                        .isbn(String.format("%013d", Math.abs(random.nextLong()) % 10_000_000_000_000L))
+                        .title("title-" + i)
+                        .author("author-" + random.nextInt(100))
+                        .category(Category.builder().id("category-" + (i % 10)).name("Category " + (i % 10)).build())
+                        .rating(String.format("%02d", random.nextInt(11)))
+                        .build())
+                .collect(Collectors.toList());
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put(Wire.DATA, books);
+        response.put(Wire.HAS_MORE, true);
+        response.put(Wire.LAST_KEY, books.get(books.size() - 1).getIsbn());
+        json = mapper.writeValueAsBytes(response);
+        page = mapper.readValue(json, bookPage);
+        book = books.get(0);
+        bookJson = mapper.writeValueAsBytes(book);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws IOException {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public PaginatedResult<Book> deserializePage() throws IOException {
+        return mapper.readValue(json, bookPage);
+    }
+
+    @Benchmark
+    public byte[] serializeBook() throws IOException {
+        return mapper.writeValueAsBytes(book);
+    }
+
+    @Benchmark
+    public Book deserializeBook() throws IOException {
+        return mapper.readValue(bookJson, Book.class);
+    }
+}
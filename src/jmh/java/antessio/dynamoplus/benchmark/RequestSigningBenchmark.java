@@ -0,0 +1,104 @@
+package antessio.dynamoplus.benchmark;
+
+import antessio.dynamoplus.Clients;
+import antessio.dynamoplus.authentication.provider.apikey.ApiKeyCredentialsProviderBuilder;
+import antessio.dynamoplus.authentication.provider.basic.BasicAuthCredentialsProvider;
+import antessio.dynamoplus.authentication.provider.httpsignature.HttpSignatureCredentialsProviderBuilder;
+import antessio.dynamoplus.domain.Book;
+import antessio.dynamoplus.http.okhttp.OkHttpSdkHttpClient;
+import antessio.dynamoplus.protocol.Wire;
+import antessio.dynamoplus.sdk.PaginatedResult;
+import antessio.dynamoplus.sdk.SDKV2;
+import antessio.dynamoplus.sdk.SdkBuilder;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side cost of authenticating one request with each scheme, through the SDK: every benchmark issues a
+ * {@code getAll} with an {@link SDKV2} built on the SDK credentials provider of the scheme, so the date header, signing
+ * string, RSA signature and header encoding are those of the SDK.
+ * <p>
+ * The requests go to a loopback server that answers an empty page without checking the credentials, so that the
+ * difference between the schemes is the work of the client. {@code basic} is the reference: the round trip plus the
+ * cheapest header.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestSigningBenchmark {
+
+    private static final String COLLECTION = "book__benchmark";
+    private static final byte[] EMPTY_PAGE = ("{\"" + Wire.DATA + "\":[],\"" + Wire.HAS_MORE + "\":false}").getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private SDKV2 basic;
+    private SDKV2 apiKey;
+    private SDKV2 httpSignature;
+
+    @Setup
+    public void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            try (InputStream body = exchange.getRequestBody()) {
+                while (body.read() != -1) {
+                    // drained, so that the connection can be reused
+                }
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, EMPTY_PAGE.length);
+            try (OutputStream response = exchange.getResponseBody()) {
+                response.write(EMPTY_PAGE);
+            }
+        });
+        executor = Executors.newFixedThreadPool(4);
+        server.setExecutor(executor);
+        server.start();
+        String baseUrl = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+
+        basic = new SdkBuilder(baseUrl, new OkHttpSdkHttpClient(Clients.HTTP_CONFIGURATION,
+                new BasicAuthCredentialsProvider("root", "12345"))).buildV2();
+        apiKey = new SdkBuilder(baseUrl, new OkHttpSdkHttpClient(Clients.HTTP_CONFIGURATION, new ApiKeyCredentialsProviderBuilder()
+                .withClientId("client-id-benchmark")
+                .withApiKey("api-key-benchmark")
+                .build())).buildV2();
+        httpSignature = new SdkBuilder(baseUrl, new OkHttpSdkHttpClient(Clients.HTTP_CONFIGURATION, new HttpSignatureCredentialsProviderBuilder()
+                .withKeyId("client-id-benchmark")
+                .withPrivateKey(Clients.PRIVATE_KEY)
+                .build())).buildV2();
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public PaginatedResult<Book> basic() {
+        return basic.getAll(COLLECTION, 20, null, Book.class);
+    }
+
+    @Benchmark
+    public PaginatedResult<Book> apiKey() {
+        return apiKey.getAll(COLLECTION, 20, null, Book.class);
+    }
+
+    @Benchmark
+    public PaginatedResult<Book> httpSignature() {
+        return httpSignature.getAll(COLLECTION, 20, null, Book.class);
+    }
+}
@@ -25,10 +25,23 @@ import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 public class AdminTest {
 
-    public static final String CATEGORY_COLLECTION_NAME = String.format("category_%s", AdminTest.class.getName());
-    public static final String BOOK_COLLECTION_NAME = String.format("book_%s", AdminTest.class.getName());
+    private static String suffix;
+    private static String categoryCollectionName;
+    private static String bookCollectionName;
+    private static SDKV2 sdk;
+
+    @BeforeAll
+    public static void init() {
+        suffix = DynamoPlusService.uniqueSuffix("__admin_test");
+        categoryCollectionName = String.format("category_%s", suffix);
+        bookCollectionName = String.format("book_%s", suffix);
+        sdk = Clients.getIntance().createAdminClient();
+    }
 
-    private SDKV2 sdk = Clients.getIntance().getAdminClient();
+    @AfterAll
+    public static void clean() {
+        DynamoPlusService.getInstance().cleanup(suffix);
+    }
 
 
     @DisplayName("Test create collections")
@@ -36,8 +49,8 @@ public class AdminTest {
     @Order(1)
     void testCreateCollections() {
 
-        Collection categoryCollection = getCollection("name", CATEGORY_COLLECTION_NAME);
-        Collection bookCollection = getCollectionBuilder("isbn", BOOK_COLLECTION_NAME)
+        Collection categoryCollection = getCollection("name", categoryCollectionName);
+        Collection bookCollection = getCollectionBuilder("isbn", bookCollectionName)
                 .fields(Arrays.asList(
                         buildAttributeNotNull("author", CollectionAttributeType.STRING).build(),
                         buildAttributeNotNull("title", CollectionAttributeType.STRING).build(),
@@ -50,10 +63,10 @@ public class AdminTest {
                 .createCollection();
 
         Collection collectionResult = sdk.createCollection(categoryCollection);
-        assertCollectionMatches(collectionResult, CATEGORY_COLLECTION_NAME, "name");
+        assertCollectionMatches(collectionResult, categoryCollectionName, "name");
 
         Collection bookResult = sdk.createCollection(bookCollection);
-        assertCollectionMatches(bookResult, BOOK_COLLECTION_NAME, "isbn");
+        assertCollectionMatches(bookResult, bookCollectionName, "isbn");
 
     }
 
@@ -70,10 +83,10 @@ public class AdminTest {
     @Test
     @Order(2)
     void testCreateIndexes() {
-        testIndex(CATEGORY_COLLECTION_NAME, "category__name", Collections.singletonList("name"), getCollection("name", CATEGORY_COLLECTION_NAME));
-        testIndex(BOOK_COLLECTION_NAME, "book__author", Collections.singletonList("author"), getCollection("isbn", BOOK_COLLECTION_NAME));
-        testIndex(BOOK_COLLECTION_NAME, "book__title", Collections.singletonList("title"), getCollection("isbn", BOOK_COLLECTION_NAME));
-        testIndex(BOOK_COLLECTION_NAME, "book__category.name", Collections.singletonList("category.name"), getCollection("isbn", BOOK_COLLECTION_NAME));
+        testIndex(categoryCollectionName, "category__name", Collections.singletonList("name"), getCollection("name", categoryCollectionName));
+        testIndex(bookCollectionName, "book__author", Collections.singletonList("author"), getCollection("isbn", bookCollectionName));
+        testIndex(bookCollectionName, "book__title", Collections.singletonList("title"), getCollection("isbn", bookCollectionName));
+        testIndex(bookCollectionName, "book__category.name", Collections.singletonList("category.name"), getCollection("isbn", bookCollectionName));
     }
 
 
@@ -81,8 +94,8 @@ public class AdminTest {
     @Test
     @Order(3)
     void createClientAuthorizationApiKeyReadOnly() {
-        List<ClientScope> scopes = ClientScope.READ.stream().map(clientScopeType -> new ClientScope(CATEGORY_COLLECTION_NAME, clientScopeType)).collect(Collectors.toList());
-        String clientIdApiKeyReadOnly = Clients.getIntance().getClientIdApiKeyReadOnly();
+        List<ClientScope> scopes = ClientScope.READ.stream().map(clientScopeType -> new ClientScope(categoryCollectionName, clientScopeType)).collect(Collectors.toList());
+        String clientIdApiKeyReadOnly = Clients.getIntance().getClientIdApiKeyReadOnly() + suffix;
         String keyId = Clients.getIntance().getKeyId();
         ClientAuthorizationApiKey clientAuthorization = new ClientAuthorizationApiKey(clientIdApiKeyReadOnly, scopes, keyId, Collections.emptyList());
         testClientAuthorizationApiKey(clientAuthorization);
@@ -93,10 +106,10 @@ public class AdminTest {
     @Order(4)
     void createClientAuthorizationApiKey() {
         List<ClientScope> scopes = Stream.concat(
-                ClientScope.READ_WRITE.stream().map(clientScopeType -> new ClientScope(CATEGORY_COLLECTION_NAME, clientScopeType)),
-                ClientScope.READ.stream().map(clientScopeType -> new ClientScope(BOOK_COLLECTION_NAME, clientScopeType))
+                ClientScope.READ_WRITE.stream().map(clientScopeType -> new ClientScope(categoryCollectionName, clientScopeType)),
+                ClientScope.READ.stream().map(clientScopeType -> new ClientScope(bookCollectionName, clientScopeType))
         ).collect(Collectors.toList());
-        String clientIdApiKey = Clients.getIntance().getClientIdApiKey();
+        String clientIdApiKey = Clients.getIntance().getClientIdApiKey() + suffix;
         String keyId = Clients.getIntance().getKeyId();
         ClientAuthorizationApiKey clientAuthorization = new ClientAuthorizationApiKey(clientIdApiKey, scopes, keyId, Collections.emptyList());
         testClientAuthorizationApiKey(clientAuthorization);
@@ -107,8 +120,8 @@ public class AdminTest {
     @Test
     @Order(5)
     void createClientAuthorizationHttpSignatureReadOnly() {
-        List<ClientScope> scopes = ClientScope.READ.stream().map(clientScopeType -> new ClientScope(BOOK_COLLECTION_NAME, clientScopeType)).collect(Collectors.toList());
-        String clientIdHttpSignatureReadOnly = Clients.getIntance().getClientIdHttpSignatureReadOnly();
+        List<ClientScope> scopes = ClientScope.READ.stream().map(clientScopeType -> new ClientScope(bookCollectionName, clientScopeType)).collect(Collectors.toList());
+        String clientIdHttpSignatureReadOnly = Clients.getIntance().getClientIdHttpSignatureReadOnly() + suffix;
         String publicKey = Clients.getIntance().getPublicKey();
         ClientAuthorizationHttpSignature clientAuthorization = new ClientAuthorizationHttpSignature(clientIdHttpSignatureReadOnly, scopes, publicKey);
         testClientAuthorizationHttpSignature(clientAuthorization);
@@ -119,10 +132,10 @@ public class AdminTest {
     @Order(6)
     void createClientAuthorizationHttpSignature() {
         List<ClientScope> scopes = Stream.concat(
-                ClientScope.READ_WRITE.stream().map(clientScopeType -> new ClientScope(BOOK_COLLECTION_NAME, clientScopeType)),
-                ClientScope.READ.stream().map(clientScopeType -> new ClientScope(CATEGORY_COLLECTION_NAME, clientScopeType))
+                ClientScope.READ_WRITE.stream().map(clientScopeType -> new ClientScope(bookCollectionName, clientScopeType)),
+                ClientScope.READ.stream().map(clientScopeType -> new ClientScope(categoryCollectionName, clientScopeType))
         ).collect(Collectors.toList());
-        String clientIdHttpSignature = Clients.getIntance().getClientIdHttpSignature();
+        String clientIdHttpSignature = Clients.getIntance().getClientIdHttpSignature() + suffix;
         String publicKey = Clients.getIntance().getPublicKey();
         ClientAuthorizationHttpSignature clientAuthorization = new ClientAuthorizationHttpSignature(clientIdHttpSignature, scopes, publicKey);
         testClientAuthorizationHttpSignature(clientAuthorization);
@@ -132,7 +145,7 @@ public class AdminTest {
     @Test
     @Order(7)
     void getClientApiKey() {
-        String clientIdApiKey = Clients.getIntance().getClientIdApiKey();
+        String clientIdApiKey = Clients.getIntance().getClientIdApiKey() + suffix;
         ClientAuthorizationApiKey result = sdk.getClientAuthorizationApiKey(clientIdApiKey);
         assertThat(result)
                 .matches(c -> c.getType().equals(ClientAuthorization.ClientAuthorizationType.api_key));
@@ -22,9 +22,9 @@ import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 public class ApiKeyClientTest {
 
-    public static final String SUFFIX = "__api_key_test";
-    public static final String CATEGORY_COLLECTION_NAME = String.format("category_%s", SUFFIX);
-    public static final String BOOK_COLLECTION_NAME = String.format("book_%s", SUFFIX);
+    private static String suffix;
+    private static String categoryCollectionName;
+    private static String bookCollectionName;
     private static SDKV2 clientReadWrite;
     private static SDKV2 clientReadOnly;
     public static final Category PULP = Category.builder().id(UUID.randomUUID().toString()).name("Pulp").build();
@@ -32,27 +32,29 @@ public class ApiKeyClientTest {
 
     @BeforeAll
     public static void init() {
-        long now = System.currentTimeMillis();
+        suffix = DynamoPlusService.uniqueSuffix("__api_key_test");
+        categoryCollectionName = String.format("category_%s", suffix);
+        bookCollectionName = String.format("book_%s", suffix);
         List<ClientScope> scopes = ClientScope.READ_WRITE.stream()
-                .map(clientScopeType -> new ClientScope(CATEGORY_COLLECTION_NAME, clientScopeType))
+                .map(clientScopeType -> new ClientScope(categoryCollectionName, clientScopeType))
                 .collect(Collectors.toList());
         clientReadWrite = Clients.getIntance().createClientApiKey(
-                "client-id-categories-rw-" + now,
-                "api-key-" + now,
+                "client-id-categories-rw-" + suffix,
+                "api-key-" + suffix,
                 scopes);
         clientReadOnly = Clients.getIntance().createClientApiKey(
-                "client-id-categories-readonly-" + now,
-                "api-key-readonly-" + now,
+                "client-id-categories-readonly-" + suffix,
+                "api-key-readonly-" + suffix,
                 ClientScope.READ.stream()
-                        .map(clientScopeType -> new ClientScope(CATEGORY_COLLECTION_NAME, clientScopeType))
+                        .map(clientScopeType -> new ClientScope(categoryCollectionName, clientScopeType))
                         .collect(Collectors.toList()));
-        DynamoPlusService.getInstance().setup(SUFFIX);
+        DynamoPlusService.getInstance().setup(suffix);
 
     }
 
     @AfterAll
     public static void clean() {
-        DynamoPlusService.getInstance().cleanup(SUFFIX);
+        DynamoPlusService.getInstance().cleanup(suffix);
     }
 
     @DisplayName("Test create documents")
@@ -68,7 +70,7 @@ public class ApiKeyClientTest {
     @Order(2)
     void queryAllCategories() {
         PaginatedResult<Category> result = clientReadWrite.getAll(
-                CATEGORY_COLLECTION_NAME,
+                categoryCollectionName,
                 null,
                 null,
                 Category.class);
@@ -83,7 +85,7 @@ public class ApiKeyClientTest {
     @Order(2)
     void queryCategoriesByName() {
         PaginatedResult<Category> result = clientReadWrite.query(
-                CATEGORY_COLLECTION_NAME,
+                categoryCollectionName,
                 new Query(new PredicateBuilder()
                         .withEq("name", "Pulp")),
                 Category.class,
@@ -102,7 +104,7 @@ public class ApiKeyClientTest {
     void createForbidden() {
 
         assertThatExceptionOfType(SdkException.class)
-                .isThrownBy(() -> clientReadOnly.createDocument(CATEGORY_COLLECTION_NAME,
+                .isThrownBy(() -> clientReadOnly.createDocument(categoryCollectionName,
                         PULP,
                         Category.class)
                 )
@@ -116,14 +118,14 @@ public class ApiKeyClientTest {
     @Order(4)
     void queryForbidden() {
         assertThatExceptionOfType(SdkException.class)
-                .isThrownBy(() -> clientReadWrite.getAll(BOOK_COLLECTION_NAME, null, null, Book.class)
+                .isThrownBy(() -> clientReadWrite.getAll(bookCollectionName, null, null, Book.class)
                 )
                 .isInstanceOf(SdkHttpException.class)
                 .matches(e -> ((SdkHttpException) e).getHttpCode() == 403);
     }
 
     private void testCreateCategory(Category category) {
-        Category documentResult1 = clientReadWrite.createDocument(CATEGORY_COLLECTION_NAME,
+        Category documentResult1 = clientReadWrite.createDocument(categoryCollectionName,
                 category,
                 Category.class);
         assertThat(documentResult1)
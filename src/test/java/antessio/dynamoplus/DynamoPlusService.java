@@ -1,23 +1,38 @@
 package antessio.dynamoplus;
 
-import antessio.dynamoplus.domain.Category;
+import antessio.dynamoplus.bulk.BulkDeleter;
+import antessio.dynamoplus.bulk.BulkResult;
+import antessio.dynamoplus.cache.CacheStats;
+import antessio.dynamoplus.cache.TtlCache;
+import antessio.dynamoplus.client.AsyncSdk;
 import antessio.dynamoplus.sdk.*;
 import antessio.dynamoplus.sdk.domain.system.collection.Collection;
 import antessio.dynamoplus.sdk.domain.system.collection.CollectionBuilder;
 import antessio.dynamoplus.sdk.domain.system.index.Index;
 import antessio.dynamoplus.sdk.domain.system.index.IndexBuilder;
 
+import java.time.Duration;
 import java.util.*;
-import java.util.function.Supplier;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class DynamoPlusService {
 
+    public static final Duration METADATA_TTL = Duration.ofMinutes(5);
+    public static final int METADATA_MAX_SIZE = 10_000;
+
     private SDKV2 sdk;
+    private final TtlCache<String, Collection> collections = new TtlCache<>(METADATA_TTL, METADATA_MAX_SIZE);
+    private final TtlCache<IndexDefinition, Index> indexes = new TtlCache<>(METADATA_TTL, METADATA_MAX_SIZE);
+    /**
+     * The last listing of the collections, completed with the time it started.
+     */
+    private CompletableFuture<Long> listing;
 
 
     private static DynamoPlusService instance;
 
-    public static DynamoPlusService getInstance() {
+    public static synchronized DynamoPlusService getInstance() {
         if (instance == null) {
             instance = new DynamoPlusService(Clients.getIntance().getAdminClient());
         }
@@ -28,11 +43,19 @@ public class DynamoPlusService {
         this.sdk = sdk;
     }
 
-    private void cleanupCollection(String collectionName, Class collectionCls, Supplier<String> idSupplier) {
-        PaginatedResult<?> result = sdk.getAll(collectionName, 20, null, collectionCls);
-        result
-                .getData()
-                .forEach(b -> sdk.deleteDocument(idSupplier.get(), collectionName));
+    /**
+     * Returns a suffix unique to the current run, so that each test class (or each repetition of it)
+     * works on its own collections and can run in parallel with the others.
+     */
+    public static String uniqueSuffix(String prefix) {
+        return String.format("%s_%s", prefix, UUID.randomUUID().toString().replace("-", "").substring(0, 12));
+    }
+
+    private void cleanupCollection(String collectionName, String idKey) {
+        findCollectionByName(collectionName).ifPresent(collection -> {
+            BulkResult result = new BulkDeleter(sdk).deleteAll(collectionName, Optional.ofNullable(collection.getIdKey()).orElse(idKey));
+            System.out.println("cleanup " + collectionName + ": " + result);
+        });
     }
 
     private Collection getCollection(String idKey, String collectionName) {
@@ -43,50 +66,154 @@ public class DynamoPlusService {
                 .createCollection();
     }
 
+    /**
+     * Creates the collection unless it is known. When the creation fails, it may have been created since the last
+     * listing (by another run or another test class): the collections are listed again and the failure is rethrown
+     * only if it still isn't there.
+     */
     public Collection getOrCreateCollection(String idKey, String collectionName) {
 
         return findCollectionByName(collectionName)
-                .orElseGet(() -> sdk.createCollection(getCollection(idKey, collectionName)));
+                .orElseGet(() -> {
+                    try {
+                        Collection created = sdk.createCollection(getCollection(idKey, collectionName));
+                        collections.put(collectionName, created);
+                        return created;
+                    } catch (RuntimeException e) {
+                        listCollections(true);
+                        return collections.get(collectionName).orElseThrow(() -> e);
+                    }
+                });
 
     }
 
+    /**
+     * Looks the collection up in the metadata cache. On a miss the collections are listed, unless they were listed
+     * within {@link #METADATA_TTL}: a listing is authoritative for that long, so that setting up new collections
+     * costs one listing per {@link #METADATA_TTL} instead of one per collection.
+     */
     private Optional<Collection> findCollectionByName(String collectionName) {
-        return sdk.getAllCollections().getData()
-                .stream()
-                .filter(c -> c.getName().equals(collectionName))
-                .findFirst();
+        Optional<Collection> cached = collections.get(collectionName);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        listCollections(false);
+        return collections.get(collectionName);
+    }
+
+    /**
+     * Lists all the collections into the cache, unless a listing is fresh ({@code force} aside). Concurrent callers
+     * share the listing in flight.
+     */
+    private void listCollections(boolean force) {
+        CompletableFuture<Long> current;
+        boolean owner = false;
+        synchronized (this) {
+            if (listing == null
+                    || listing.isCompletedExceptionally()
+                    || (listing.isDone() && (force || System.nanoTime() - listing.join() >= METADATA_TTL.toNanos()))) {
+                listing = new CompletableFuture<>();
+                owner = true;
+            }
+            current = listing;
+        }
+        if (!owner) {
+            try {
+                current.join();
+                return;
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        long startNanos = System.nanoTime();
+        try {
+            sdk.getAllCollections().getData()
+                    .forEach(c -> collections.put(c.getName(), c));
+            current.complete(startNanos);
+        } catch (RuntimeException e) {
+            current.completeExceptionally(e);
+            throw e;
+        }
     }
 
 
     public Index createIndex(List<String> conditions, Collection collection, String orderingKey) {
-        return sdk.createIndex(new IndexBuilder()
+        Index index = sdk.createIndex(new IndexBuilder()
                 .uid(UUID.randomUUID())
                 .collection(collection)
                 .orderingKey(orderingKey)
                 .conditions(conditions)
                 .createIndex()
         );
+        indexes.put(new IndexDefinition(collection.getName(), conditions, orderingKey), index);
+        return index;
 
     }
 
+    /**
+     * Creates the index unless this service already created the same one within {@link #METADATA_TTL}.
+     * The SDK can't list indexes, so indexes created elsewhere are not known.
+     */
+    public Index getOrCreateIndex(List<String> conditions, Collection collection, String orderingKey) {
+        return indexes.get(new IndexDefinition(collection.getName(), conditions, orderingKey))
+                .orElseGet(() -> createIndex(conditions, collection, orderingKey));
+    }
 
-    public void setup(String suffix) {
-        String CATEGORY_COLLECTION_NAME = String.format("%s_%s", "category", suffix);
-        String BOOK_COLLECTION_NAME = String.format("%s_%s", "book", suffix);
+    public CacheStats getCollectionCacheStats() {
+        return collections.stats();
+    }
 
-        Collection category = this.getOrCreateCollection("name", CATEGORY_COLLECTION_NAME);
-        Collection book = this.getOrCreateCollection("isbn", BOOK_COLLECTION_NAME);
-        this.createIndex(Collections.singletonList("name"), category, null);
-        this.createIndex(Collections.singletonList("author"), book, null);
-        this.createIndex(Collections.singletonList("title"), book, null);
-        this.createIndex(Arrays.asList("category.name", "rating"), book, "rating");
-        this.createIndex(Collections.singletonList("category.name"), book, null);
+    public CacheStats getIndexCacheStats() {
+        return indexes.stats();
+    }
+
+
+    public static String categoryCollectionName(String suffix) {
+        return String.format("%s_%s", "category", suffix);
+    }
+
+    public static String bookCollectionName(String suffix) {
+        return String.format("%s_%s", "book", suffix);
+    }
+
+    /**
+     * The indexes {@link #setup(String)} creates on the collections of a suffix.
+     */
+    public static List<IndexDefinition> indexDefinitions(String suffix) {
+        String categoryCollectionName = categoryCollectionName(suffix);
+        String bookCollectionName = bookCollectionName(suffix);
+        return Arrays.asList(
+                new IndexDefinition(categoryCollectionName, Collections.singletonList("name"), null),
+                new IndexDefinition(bookCollectionName, Collections.singletonList("author"), null),
+                new IndexDefinition(bookCollectionName, Collections.singletonList("title"), null),
+                new IndexDefinition(bookCollectionName, Arrays.asList("category.name", "rating"), "rating"),
+                new IndexDefinition(bookCollectionName, Collections.singletonList("category.name"), null));
+    }
+
+    public void setup(String suffix) {
+        String CATEGORY_COLLECTION_NAME = categoryCollectionName(suffix);
+        String BOOK_COLLECTION_NAME = bookCollectionName(suffix);
+
+        try (AsyncSdk async = new AsyncSdk(sdk, 5)) {
+            List<Collection> collections = AsyncSdk.joinAll(Arrays.asList(
+                    async.submit(() -> this.getOrCreateCollection("name", CATEGORY_COLLECTION_NAME)),
+                    async.submit(() -> this.getOrCreateCollection("isbn", BOOK_COLLECTION_NAME))
+            ));
+            Map<String, Collection> byName = new HashMap<>();
+            collections.forEach(c -> byName.put(c.getName(), c));
+            List<CompletableFuture<Index>> indexes = new ArrayList<>();
+            for (IndexDefinition index : indexDefinitions(suffix)) {
+                Collection collection = byName.get(index.getCollectionName());
+                indexes.add(async.submit(() -> this.getOrCreateIndex(index.getConditions(), collection, index.getOrderingKey())));
+            }
+            AsyncSdk.joinAll(indexes);
+        }
     }
 
     public void cleanup(String suffix) {
-        String CATEGORY_COLLECTION_NAME = String.format("%s_%s", "category", suffix);
-        String BOOK_COLLECTION_NAME = String.format("%s_%s", "book", suffix);
-        cleanupCollection(CATEGORY_COLLECTION_NAME, Category.class, () -> "name");
-        cleanupCollection(BOOK_COLLECTION_NAME, Category.class, () -> "isbn");
+        String CATEGORY_COLLECTION_NAME = categoryCollectionName(suffix);
+        String BOOK_COLLECTION_NAME = bookCollectionName(suffix);
+        cleanupCollection(CATEGORY_COLLECTION_NAME, "name");
+        cleanupCollection(BOOK_COLLECTION_NAME, "isbn");
     }
 }
@@ -30,9 +30,9 @@ import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 public class HttpSignatureClientTest {
 
-    public static final String SUFFIX = "__http_signature_test";
-    public static final String CATEGORY_COLLECTION_NAME = String.format("category_%s", SUFFIX);
-    public static final String BOOK_COLLECTION_NAME = String.format("book_%s", SUFFIX);
+    private static String suffix;
+    private static String categoryCollectionName;
+    private static String bookCollectionName;
 
     private final static String NUMBERS = "0123456789";
     public static final String CHUCK_PALHANIUK = "Chuck Palhaniuk";
@@ -45,35 +45,37 @@ public class HttpSignatureClientTest {
 
     @BeforeAll
     public static void init() {
-        long now = System.currentTimeMillis();
-        SDKV2 adminClient = Clients.getIntance().getAdminClient();
+        suffix = DynamoPlusService.uniqueSuffix("__http_signature_test");
+        categoryCollectionName = String.format("category_%s", suffix);
+        bookCollectionName = String.format("book_%s", suffix);
+        SDKV2 adminClient = Clients.getIntance().createAdminClient();
         List<ClientScope> scopes = ClientScope.READ_WRITE.stream()
-                .map(clientScopeType -> new ClientScope(BOOK_COLLECTION_NAME, clientScopeType))
+                .map(clientScopeType -> new ClientScope(bookCollectionName, clientScopeType))
                 .collect(toList());
         clientReadWrite = Clients.getIntance().createHttpSignature(
-                "client-id-books-rw-" + now,
+                "client-id-books-rw-" + suffix,
                 scopes);
         clientReadOnly = Clients.getIntance().createHttpSignature(
-                "client-id-books-readonly-" + now,
+                "client-id-books-readonly-" + suffix,
                 ClientScope.READ.stream()
-                        .map(clientScopeType -> new ClientScope(BOOK_COLLECTION_NAME, clientScopeType))
+                        .map(clientScopeType -> new ClientScope(bookCollectionName, clientScopeType))
                         .collect(toList()));
 
-        DynamoPlusService.getInstance().setup(SUFFIX);
-        List<Category> categories = adminClient.getAll(CATEGORY_COLLECTION_NAME, null, null, Category.class).getData();
+        DynamoPlusService.getInstance().setup(suffix);
+        List<Category> categories = adminClient.getAll(categoryCollectionName, null, null, Category.class).getData();
         PULP = categories
                 .stream()
                 .filter(c -> c.getName().equalsIgnoreCase("Pulp"))
                 .findFirst()
-                .orElseGet(() -> createCategory(adminClient, CATEGORY_COLLECTION_NAME, "Pulp"));
+                .orElseGet(() -> createCategory(adminClient, categoryCollectionName, "Pulp"));
         THRILLER = categories
                 .stream()
                 .filter(c -> c.getName().equalsIgnoreCase("Thriller"))
                 .findFirst()
-                .orElseGet(() -> createCategory(adminClient, CATEGORY_COLLECTION_NAME, "Thriller"));
-        adminClient.getAll(BOOK_COLLECTION_NAME, 20, null, Book.class)
+                .orElseGet(() -> createCategory(adminClient, categoryCollectionName, "Thriller"));
+        adminClient.getAll(bookCollectionName, 20, null, Book.class)
                 .getData()
-                .forEach(b -> adminClient.deleteDocument(b.getIsbn(), BOOK_COLLECTION_NAME));
+                .forEach(b -> adminClient.deleteDocument(b.getIsbn(), bookCollectionName));
     }
 
     private static Category createCategory(SDKV2 adminClient, String collectionName, String thriller) {
@@ -83,7 +85,7 @@ public class HttpSignatureClientTest {
 
     @AfterAll
     public static void clean() {
-        DynamoPlusService.getInstance().cleanup(SUFFIX);
+        DynamoPlusService.getInstance().cleanup(suffix);
     }
 
     @DisplayName("Test create documents")
@@ -102,7 +104,7 @@ public class HttpSignatureClientTest {
     @Order(2)
     void getAllBooks() {
         PaginatedResult<Book> result = clientReadWrite.getAll(
-                BOOK_COLLECTION_NAME,
+                bookCollectionName,
                 null,
                 null,
                 Book.class);
@@ -126,7 +128,7 @@ public class HttpSignatureClientTest {
     @Order(3)
     void queryBooksByCategory() {
         PaginatedResult<Book> result = clientReadWrite.query(
-                BOOK_COLLECTION_NAME,
+                bookCollectionName,
                 new Query(new PredicateBuilder().withEq("category.name", THRILLER.getName())),
                 Book.class,
                 null,
@@ -146,7 +148,7 @@ public class HttpSignatureClientTest {
     @Order(4)
     void queryBooksByAuthor() {
         PaginatedResult<Book> result = clientReadWrite.query(
-                BOOK_COLLECTION_NAME,
+                bookCollectionName,
                 new Query(new PredicateBuilder().withEq("author", CHUCK_PALHANIUK)),
                 Book.class, null, null);
         assertThat(result)
@@ -165,7 +167,7 @@ public class HttpSignatureClientTest {
     @Order(5)
     void createForbidden() {
         assertThatExceptionOfType(SdkException.class)
-                .isThrownBy(() -> clientReadOnly.createDocument(BOOK_COLLECTION_NAME,
+                .isThrownBy(() -> clientReadOnly.createDocument(bookCollectionName,
                         Book.builder()
                                 .isbn(getRandomIsbn())
                                 .title("Survivor")
@@ -184,7 +186,7 @@ public class HttpSignatureClientTest {
     @Order(6)
     void queryForbidden() {
         assertThatExceptionOfType(SdkException.class)
-                .isThrownBy(() -> clientReadWrite.getAll(CATEGORY_COLLECTION_NAME, null, null, Category.class)
+                .isThrownBy(() -> clientReadWrite.getAll(categoryCollectionName, null, null, Category.class)
                 )
                 .isInstanceOf(SdkHttpException.class)
                 .matches(e -> ((SdkHttpException) e).getHttpCode() == 403);
@@ -195,7 +197,7 @@ public class HttpSignatureClientTest {
     @Order(7)
     void queryBooksByCategoryAndRating() {
         PaginatedResult<Book> result = clientReadWrite.query(
-                BOOK_COLLECTION_NAME,
+                bookCollectionName,
                 new Query(new PredicateBuilder()
                         .withAnd(Arrays.asList(
                                 new Eq("category.name", PULP.getName()),
@@ -216,7 +218,7 @@ public class HttpSignatureClientTest {
     }
 
     private void testCreateBook(Category category, String title, String author, int rating) {
-        Book documentResult2 = clientReadWrite.createDocument(BOOK_COLLECTION_NAME,
+        Book documentResult2 = clientReadWrite.createDocument(bookCollectionName,
                 Book.builder()
                         .isbn(getRandomIsbn())
                         .title(title)
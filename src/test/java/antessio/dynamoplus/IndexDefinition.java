@@ -0,0 +1,16 @@
+package antessio.dynamoplus;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * What identifies an index of a collection: its conditions and its ordering key.
+ */
+@Value
+public class IndexDefinition {
+
+    String collectionName;
+    List<String> conditions;
+    String orderingKey;
+}
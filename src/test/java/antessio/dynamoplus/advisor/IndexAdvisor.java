@@ -0,0 +1,165 @@
+package antessio.dynamoplus.advisor;
+
+import antessio.dynamoplus.IndexDefinition;
+import antessio.dynamoplus.client.Exchange;
+import antessio.dynamoplus.client.GatewayListener;
+import antessio.dynamoplus.perf.LatencySummary;
+import antessio.dynamoplus.perf.Reports;
+import antessio.dynamoplus.perf.Settings;
+import antessio.dynamoplus.protocol.Endpoint;
+import antessio.dynamoplus.protocol.Operation;
+import antessio.dynamoplus.protocol.QueryShape;
+import antessio.dynamoplus.protocol.Wire;
+import antessio.dynamoplus.replay.TrafficLog;
+import antessio.dynamoplus.replay.TrafficRecord;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Value;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves the queries a workload issues against the indexes of their collections. Indexes are learnt from the
+ * {@code createIndex} requests seen, or {@link #declare(IndexDefinition) declared} when they were created before.
+ * <p>
+ * Runs live as a {@link GatewayListener} (see {@code Clients.INDEX_ADVISOR}), or offline on a traffic log:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=antessio.dynamoplus.advisor.IndexAdvisor \
+ *     -Dadvisor.log=target/perf/traffic.log
+ * </pre>
+ */
+public class IndexAdvisor implements GatewayListener {
+
+    private final List<IndexDefinition> indexes = new CopyOnWriteArrayList<>();
+    private final Map<Key, Usage> usages = new ConcurrentHashMap<>();
+
+    public static void main(String[] args) throws IOException {
+        Path log = Paths.get(Settings.string("advisor.log", Settings.outputDirectory().resolve("traffic.log").toString()));
+        IndexAdvisor advisor = new IndexAdvisor();
+        try (TrafficLog.Reader records = TrafficLog.read(log)) {
+            while (records.hasNext()) {
+                TrafficRecord r = records.next();
+                advisor.record(r.getMethod(), r.getPath(), r.getBody(), r.getStatus(), r.getDurationNanos());
+            }
+        }
+        IndexReport report = advisor.report();
+        System.out.print(report);
+        Reports.writeJson("index-advice.json", report);
+    }
+
+    public IndexAdvisor declare(IndexDefinition index) {
+        if (!indexes.contains(index)) {
+            indexes.add(index);
+        }
+        return this;
+    }
+
+    @Override
+    public void onExchange(Exchange exchange) {
+        record(exchange.getMethod(), exchange.getPath(), exchange.getRequestBody(), exchange.getStatus(), exchange.getDurationNanos());
+    }
+
+    public void record(String method, String path, byte[] body, int status, long durationNanos) {
+        Endpoint endpoint = Endpoint.resolve(method, path);
+        if (endpoint.getOperation() == Operation.CREATE_INDEX && status < 300) {
+            indexOf(json(body)).ifPresent(this::declare);
+        } else if (endpoint.getOperation() == Operation.QUERY || endpoint.getOperation() == Operation.GET_ALL) {
+            String collectionName = endpoint.getCollection().orElse("");
+            QueryShape shape = endpoint.getOperation() == Operation.GET_ALL ? QueryShape.of(null) : QueryShape.of(json(body));
+            usages.computeIfAbsent(new Key(collectionName, shape), k -> new Usage()).record(status, durationNanos);
+        }
+    }
+
+    public IndexReport report() {
+        List<QueryUsage> queries = new ArrayList<>();
+        Set<IndexDefinition> used = new HashSet<>();
+        Map<IndexDefinition, List<QueryUsage>> missing = new LinkedHashMap<>();
+        usages.forEach((key, usage) -> {
+            IndexDefinition index = key.shape.isScan() ? null : servingIndex(key.collectionName, key.shape).orElse(null);
+            QueryUsage query = usage.snapshot(key, index);
+            queries.add(query);
+            if (index != null) {
+                used.add(index);
+            } else if (query.isMissingIndex()) {
+                missing.computeIfAbsent(indexFor(key.collectionName, key.shape), i -> new ArrayList<>()).add(query);
+            }
+        });
+        queries.sort(Comparator.comparing(QueryUsage::getCollectionName).thenComparing(QueryUsage::getCount, Comparator.reverseOrder()));
+        List<IndexDefinition> unused = indexes.stream().filter(i -> !used.contains(i)).collect(Collectors.toList());
+        List<IndexSuggestion> suggestions = new ArrayList<>();
+        missing.forEach((index, served) -> suggestions.add(new IndexSuggestion(IndexSuggestion.Action.CREATE, index,
+                String.format("would serve %d queries (%s), p95 %.2f ms",
+                        served.stream().mapToLong(QueryUsage::getCount).sum(),
+                        served.stream().map(QueryUsage::getShape).collect(Collectors.joining("; ")),
+                        served.stream().mapToDouble(q -> q.getLatency().getP95()).max().orElse(0)))));
+        unused.forEach(index -> suggestions.add(new IndexSuggestion(IndexSuggestion.Action.DROP, index, "no query used it")));
+        return new IndexReport(queries, unused, suggestions);
+    }
+
+    /**
+     * The index that would serve the shape: its equality fields as conditions, followed by the range field, which is
+     * also the ordering key.
+     */
+    static IndexDefinition indexFor(String collectionName, QueryShape shape) {
+        return new IndexDefinition(collectionName, shape.requiredConditions(), shape.getRangeField().orElse(null));
+    }
+
+    private Optional<IndexDefinition> servingIndex(String collectionName, QueryShape shape) {
+        return indexes.stream()
+                .filter(i -> i.getCollectionName().equals(collectionName))
+                .filter(i -> shape.isServedBy(i.getConditions(), i.getOrderingKey()))
+                .findFirst();
+    }
+
+    private static Optional<IndexDefinition> indexOf(JsonNode index) {
+        Optional<String> collectionName = Wire.field(index, "collection").flatMap(c -> Wire.text(c, "name"));
+        Optional<JsonNode> conditions = Wire.field(index, "conditions");
+        if (!collectionName.isPresent() || !conditions.isPresent()) {
+            return Optional.empty();
+        }
+        List<String> fields = new ArrayList<>();
+        conditions.get().forEach(c -> fields.add(c.asText()));
+        return Optional.of(new IndexDefinition(collectionName.get(), fields, Wire.text(index, "orderingKey").orElse(null)));
+    }
+
+    private static JsonNode json(byte[] body) {
+        if (body == null || body.length == 0) {
+            return null;
+        }
+        try {
+            return Wire.MAPPER.readTree(body);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @Value
+    private static class Key {
+        String collectionName;
+        QueryShape shape;
+    }
+
+    private static class Usage {
+        private final Histogram latency = LatencySummary.newHistogram();
+        private long failures;
+
+        synchronized void record(int status, long durationNanos) {
+            latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(durationNanos), latency.getHighestTrackableValue()));
+            if (status >= 400) {
+                failures++;
+            }
+        }
+
+        synchronized QueryUsage snapshot(Key key, IndexDefinition servedBy) {
+            return new QueryUsage(key.collectionName, key.shape.toString(), key.shape.isScan(), latency.getTotalCount(),
+                    failures, LatencySummary.of(latency), servedBy);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package antessio.dynamoplus.advisor;
+
+import antessio.dynamoplus.IndexDefinition;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IndexAdvisorTest {
+
+    private static final IndexDefinition BY_CATEGORY_AND_RATING = new IndexDefinition("book", Arrays.asList("category.name", "rating"), "rating");
+    private static final IndexDefinition BY_AUTHOR = new IndexDefinition("book", Collections.singletonList("author"), null);
+    private static final IndexDefinition BY_TITLE = new IndexDefinition("book", Collections.singletonList("title"), null);
+
+    private final IndexAdvisor advisor = new IndexAdvisor()
+            .declare(BY_CATEGORY_AND_RATING)
+            .declare(BY_AUTHOR)
+            .declare(BY_TITLE);
+
+    private void query(String body, int status, long millis) {
+        advisor.record("POST", "/dynamoplus/book/query", body.getBytes(StandardCharsets.UTF_8), status, millis * 1_000_000);
+    }
+
+    @DisplayName("Queries are resolved to the index serving them, unused indexes are reported")
+    @Test
+    void resolvesQueries() {
+        query("{\"matches\":{\"and\":[{\"eq\":{\"field_name\":\"category.name\",\"value\":\"pulp\"}},"
+                + "{\"range\":{\"field_name\":\"rating\",\"from\":\"07\",\"to\":\"09\"}}]}}", 200, 5);
+        query("{\"matches\":{\"eq\":{\"field_name\":\"author\",\"value\":\"Chuck\"}}}", 200, 3);
+        query("{\"matches\":{\"eq\":{\"field_name\":\"author\",\"value\":\"Irvine\"}}}", 200, 4);
+
+        IndexReport report = advisor.report();
+
+        assertThat(report.getQueries()).extracting(QueryUsage::getServedBy).containsExactly(BY_AUTHOR, BY_CATEGORY_AND_RATING);
+        assertThat(report.getQueries().get(0).getCount()).isEqualTo(2);
+        assertThat(report.getUnusedIndexes()).containsExactly(BY_TITLE);
+        assertThat(report.getSuggestions()).extracting(IndexSuggestion::getAction).containsExactly(IndexSuggestion.Action.DROP);
+    }
+
+    @DisplayName("Queries no index serves get an index suggested, scans don't")
+    @Test
+    void suggestsMissingIndexes() {
+        query("{\"matches\":{\"and\":[{\"eq\":{\"field_name\":\"author\",\"value\":\"Chuck\"}},"
+                + "{\"range\":{\"field_name\":\"rating\",\"from\":\"07\",\"to\":\"09\"}}]}}", 400, 50);
+        advisor.record("GET", "/dynamoplus/book", new byte[0], 200, 10_000_000);
+
+        IndexReport report = advisor.report();
+
+        assertThat(report.getQueries()).filteredOn(QueryUsage::isMissingIndex)
+                .extracting(QueryUsage::getFailures).containsExactly(1L);
+        assertThat(report.getSuggestions()).filteredOn(s -> s.getAction() == IndexSuggestion.Action.CREATE)
+                .extracting(IndexSuggestion::getIndex)
+                .containsExactly(new IndexDefinition("book", Arrays.asList("author", "rating"), "rating"));
+    }
+
+    @DisplayName("Indexes are learnt from the createIndex requests seen")
+    @Test
+    void learnsIndexes() {
+        advisor.record("POST", "/dynamoplus/index",
+                "{\"collection\":{\"name\":\"book\"},\"conditions\":[\"isbn\"],\"ordering_key\":null}".getBytes(StandardCharsets.UTF_8), 200, 1);
+        query("{\"matches\":{\"eq\":{\"field_name\":\"isbn\",\"value\":\"1\"}}}", 200, 2);
+
+        assertThat(advisor.report().getQueries().get(0).getServedBy())
+                .isEqualTo(new IndexDefinition("book", Collections.singletonList("isbn"), null));
+    }
+}
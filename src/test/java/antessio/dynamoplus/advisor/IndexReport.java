@@ -0,0 +1,30 @@
+package antessio.dynamoplus.advisor;
+
+import antessio.dynamoplus.IndexDefinition;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * What the {@link IndexAdvisor} observed: the queries by shape, the indexes no query used, and its suggestions.
+ */
+@Value
+public class IndexReport {
+
+    List<QueryUsage> queries;
+    List<IndexDefinition> unusedIndexes;
+    List<IndexSuggestion> suggestions;
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder(String.format("%-24s %-48s %8s %8s %9s %9s  %s%n",
+                "collection", "shape", "count", "failed", "p50 ms", "p95 ms", "index"));
+        for (QueryUsage q : queries) {
+            String index = q.isScan() ? "-" : q.getServedBy() == null ? "MISSING" : q.getServedBy().getConditions() + " by " + q.getServedBy().getOrderingKey();
+            out.append(String.format("%-24s %-48s %8d %8d %9.2f %9.2f  %s%n", q.getCollectionName(), q.getShape(),
+                    q.getCount(), q.getFailures(), q.getLatency().getP50(), q.getLatency().getP95(), index));
+        }
+        suggestions.forEach(s -> out.append(s).append(System.lineSeparator()));
+        return out.toString();
+    }
+}
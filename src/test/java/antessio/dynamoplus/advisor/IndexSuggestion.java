@@ -0,0 +1,25 @@
+package antessio.dynamoplus.advisor;
+
+import antessio.dynamoplus.IndexDefinition;
+import lombok.Value;
+
+/**
+ * An index the {@link IndexAdvisor} suggests to create or to drop, with the reason why.
+ */
+@Value
+public class IndexSuggestion {
+
+    public enum Action {
+        CREATE, DROP
+    }
+
+    Action action;
+    IndexDefinition index;
+    String reason;
+
+    @Override
+    public String toString() {
+        return String.format("%s index on %s conditions=%s orderingKey=%s: %s",
+                action, index.getCollectionName(), index.getConditions(), index.getOrderingKey(), reason);
+    }
+}
@@ -0,0 +1,25 @@
+package antessio.dynamoplus.advisor;
+
+import antessio.dynamoplus.IndexDefinition;
+import antessio.dynamoplus.perf.LatencySummary;
+import lombok.Value;
+
+/**
+ * The queries of one shape observed on a collection, and the index serving them ({@code null} for scans and for
+ * shapes no known index serves).
+ */
+@Value
+public class QueryUsage {
+
+    String collectionName;
+    String shape;
+    boolean scan;
+    long count;
+    long failures;
+    LatencySummary latency;
+    IndexDefinition servedBy;
+
+    public boolean isMissingIndex() {
+        return !scan && servedBy == null;
+    }
+}
@@ -0,0 +1,81 @@
+package antessio.dynamoplus.bulk;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Streams documents to a writer in batches through a {@link BoundedPipeline}: at most
+ * {@code workers * 2} batches are in memory at any time, however long the source is.
+ * Documents failing to be written are counted and skipped.
+ */
+public class BatchIngestor<T> {
+
+    private static final Duration PROGRESS_INTERVAL = Duration.ofSeconds(10);
+
+    private final String name;
+    private final int batchSize;
+    private final int workers;
+    private final Consumer<T> writer;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicReference<Throwable> lastError = new AtomicReference<>();
+
+    public BatchIngestor(String name, int batchSize, int workers, Consumer<T> writer) {
+        this.name = name;
+        this.batchSize = batchSize;
+        this.workers = workers;
+        this.writer = writer;
+    }
+
+    /**
+     * Writes the documents; when reading them fails, the batches already submitted are waited for before the failure
+     * is rethrown.
+     */
+    public BulkResult ingest(Iterator<T> documents) {
+        BoundedPipeline<List<T>> pipeline = new BoundedPipeline<>(name, workers, workers * 2, this::write);
+        Duration elapsed;
+        try {
+            long lastProgress = System.nanoTime();
+            List<T> batch = new ArrayList<>(batchSize);
+            while (documents.hasNext()) {
+                batch.add(documents.next());
+                if (batch.size() == batchSize) {
+                    pipeline.submit(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+                if (System.nanoTime() - lastProgress > PROGRESS_INTERVAL.toNanos()) {
+                    lastProgress = System.nanoTime();
+                    System.out.println(name + ": " + result(pipeline.getElapsed()));
+                }
+            }
+            if (!batch.isEmpty()) {
+                pipeline.submit(batch);
+            }
+        } finally {
+            elapsed = pipeline.await().getElapsed();
+        }
+        return result(elapsed);
+    }
+
+    private void write(List<T> batch) {
+        for (T document : batch) {
+            try {
+                writer.accept(document);
+                written.incrementAndGet();
+            } catch (RuntimeException e) {
+                failed.incrementAndGet();
+                lastError.set(e);
+            }
+        }
+    }
+
+    private BulkResult result(Duration elapsed) {
+        return new BulkResult(written.get(), failed.get(), elapsed, Optional.ofNullable(lastError.get()));
+    }
+}
@@ -0,0 +1,79 @@
+package antessio.dynamoplus.bulk;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BatchIngestorTest {
+
+    private final Queue<Integer> written = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The numbers from 0, failing when asked for {@code failAt}.
+     */
+    private static Iterator<Integer> numbers(int total, int failAt) {
+        Iterator<Integer> numbers = IntStream.range(0, total).iterator();
+        return new Iterator<Integer>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return numbers.hasNext();
+            }
+
+            @Override
+            public Integer next() {
+                if (next++ == failAt) {
+                    throw new IllegalStateException("unreadable");
+                }
+                return numbers.next();
+            }
+        };
+    }
+
+    @DisplayName("Documents are written in batches, failed writes are counted")
+    @Test
+    void writesAndCountsFailures() {
+        BatchIngestor<Integer> ingestor = new BatchIngestor<>("numbers", 3, 2, n -> {
+            if (n == 4) {
+                throw new IllegalStateException("conflict");
+            }
+            written.add(n);
+        });
+
+        BulkResult result = ingestor.ingest(numbers(8, -1));
+
+        assertThat(written).containsExactlyInAnyOrder(0, 1, 2, 3, 5, 6, 7);
+        assertThat(result.getProcessed()).isEqualTo(7);
+        assertThat(result.getFailed()).isEqualTo(1);
+    }
+
+    @DisplayName("When reading fails, the batches already submitted are written before the failure is rethrown")
+    @Test
+    void awaitsBatchesWhenReadingFails() {
+        BatchIngestor<Integer> ingestor = new BatchIngestor<>("numbers", 2, 2, n -> {
+            sleep();
+            written.add(n);
+        });
+
+        assertThatThrownBy(() -> ingestor.ingest(numbers(10, 5)))
+                .isInstanceOf(IllegalStateException.class).hasMessage("unreadable");
+
+        assertThat(written).containsExactlyInAnyOrder(0, 1, 2, 3);
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package antessio.dynamoplus.bulk;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Hands items to a fixed pool of workers through a bounded buffer: {@link #submit(Object)} blocks while
+ * {@code capacity} items are waiting or in flight, so producers can never run ahead of the server.
+ * A failing item is counted and does not stop the pipeline.
+ */
+public class BoundedPipeline<T> implements AutoCloseable {
+
+    private final Consumer<T> consumer;
+    private final ExecutorService workers;
+    private final Semaphore permits;
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicReference<Throwable> lastError = new AtomicReference<>();
+    private final long startNanos = System.nanoTime();
+
+    public BoundedPipeline(String name, int workerCount, int capacity, Consumer<T> consumer) {
+        this.consumer = consumer;
+        this.permits = new Semaphore(capacity);
+        this.workers = Executors.newFixedThreadPool(workerCount, r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public void submit(T item) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for the pipeline", e);
+        }
+        try {
+            workers.execute(() -> {
+                try {
+                    consumer.accept(item);
+                    processed.incrementAndGet();
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                    lastError.set(e);
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public long getProcessed() {
+        return processed.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public Duration getElapsed() {
+        return Duration.ofNanos(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Waits for the submitted items to be processed.
+     */
+    public BulkResult await() {
+        workers.shutdown();
+        try {
+            while (!workers.awaitTermination(1, TimeUnit.SECONDS)) {
+                // keep waiting: items are still in flight
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        return new BulkResult(processed.get(), failed.get(), getElapsed(), Optional.ofNullable(lastError.get()));
+    }
+
+    @Override
+    public void close() {
+        await();
+    }
+}
@@ -0,0 +1,74 @@
+package antessio.dynamoplus.bulk;
+
+import antessio.dynamoplus.client.DocumentCursor;
+import antessio.dynamoplus.client.DocumentStreams;
+import antessio.dynamoplus.client.PageFetcher;
+import antessio.dynamoplus.sdk.SDKV2;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Deletes every document of a collection: pages are read ahead by a {@link DocumentCursor}, while the ids found are
+ * deleted by a bounded pool of workers.
+ */
+public class BulkDeleter {
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int DEFAULT_WORKERS = 8;
+    @SuppressWarnings("unchecked")
+    private static final Class<Map<String, Object>> DOCUMENT = (Class<Map<String, Object>>) (Class<?>) Map.class;
+
+    private final SDKV2 sdk;
+    private final int pageSize;
+    private final int workers;
+
+    public BulkDeleter(SDKV2 sdk) {
+        this(sdk, DEFAULT_PAGE_SIZE, DEFAULT_WORKERS);
+    }
+
+    public BulkDeleter(SDKV2 sdk, int pageSize, int workers) {
+        this.sdk = sdk;
+        this.pageSize = pageSize;
+        this.workers = workers;
+    }
+
+    /**
+     * @param idKey the {@code idKey} of the collection, possibly a dotted path
+     */
+    public BulkResult deleteAll(String collectionName, String idKey) {
+        return deleteAll(collectionName, idKey,
+                (cursor, limit) -> sdk.getAll(collectionName, limit, cursor, DOCUMENT),
+                id -> sdk.deleteDocument(id, collectionName));
+    }
+
+    /**
+     * Deletes the documents of the pages; when reading them fails, the deletes already submitted are waited for
+     * before the failure is rethrown.
+     */
+    BulkResult deleteAll(String collectionName, String idKey, PageFetcher<Map<String, Object>> pages, Consumer<String> delete) {
+        BoundedPipeline<String> pipeline = new BoundedPipeline<>("bulk-delete-" + collectionName, workers, workers * 2, delete);
+        BulkResult result;
+        try (DocumentCursor<Map<String, Object>> documents = DocumentStreams.cursor(pages, pageSize, DocumentStreams.DEFAULT_PREFETCH_DEPTH)) {
+            while (documents.hasNext()) {
+                idOf(documents.next(), idKey).ifPresent(pipeline::submit);
+            }
+        } finally {
+            result = pipeline.await();
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    static Optional<String> idOf(Map<String, Object> document, String idKey) {
+        Object current = document;
+        for (String part : idKey.split("\\.")) {
+            if (!(current instanceof Map)) {
+                return Optional.empty();
+            }
+            current = ((Map<String, Object>) current).get(part);
+        }
+        return Optional.ofNullable(current).map(String::valueOf);
+    }
+}
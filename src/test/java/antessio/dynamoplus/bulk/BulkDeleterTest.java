@@ -0,0 +1,117 @@
+package antessio.dynamoplus.bulk;
+
+import antessio.dynamoplus.client.PageFetcher;
+import antessio.dynamoplus.sdk.PaginatedResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BulkDeleterTest {
+
+    private final BulkDeleter deleter = new BulkDeleter(null, 2, 2);
+    private final Queue<String> deleted = new ConcurrentLinkedQueue<>();
+
+    private static PaginatedResult<Map<String, Object>> page(List<Map<String, Object>> data, String lastKey) {
+        return new PaginatedResult<Map<String, Object>>() {
+            @Override
+            public List<Map<String, Object>> getData() {
+                return data;
+            }
+
+            @Override
+            public Boolean getHasMore() {
+                return lastKey != null;
+            }
+
+            @Override
+            public String getLastKey() {
+                return lastKey;
+            }
+        };
+    }
+
+    private static Map<String, Object> book(String id) {
+        Map<String, Object> meta = new HashMap<>();
+        meta.put("id", id);
+        Map<String, Object> book = new HashMap<>();
+        book.put("meta", meta);
+        return book;
+    }
+
+    /**
+     * Pages of {@code total} books keyed by {@code meta.id}, failing on the page starting at {@code failAt}.
+     */
+    private static PageFetcher<Map<String, Object>> books(int total, int failAt) {
+        return (cursor, pageSize) -> {
+            int from = cursor == null ? 0 : Integer.parseInt(cursor) + 1;
+            if (from == failAt) {
+                throw new IllegalStateException("unavailable");
+            }
+            int to = Math.min(from + pageSize, total);
+            List<Map<String, Object>> data = IntStream.range(from, to).mapToObj(i -> book(String.valueOf(i))).collect(Collectors.toList());
+            return page(data, to < total ? String.valueOf(to - 1) : null);
+        };
+    }
+
+    @DisplayName("Every document is deleted by the id found at its dotted idKey")
+    @Test
+    void deletesEveryDocument() {
+        BulkResult result = deleter.deleteAll("book", "meta.id", books(5, -1), deleted::add);
+
+        assertThat(deleted).containsExactlyInAnyOrder("0", "1", "2", "3", "4");
+        assertThat(result.getProcessed()).isEqualTo(5);
+        assertThat(result.getFailed()).isZero();
+    }
+
+    @DisplayName("Documents without an id are skipped, failed deletes are counted")
+    @Test
+    void skipsAndCountsFailures() {
+        PageFetcher<Map<String, Object>> pages = (cursor, pageSize) ->
+                page(Arrays.asList(book("1"), Collections.<String, Object>singletonMap("meta", "no id"), book("2")), null);
+
+        BulkResult result = deleter.deleteAll("book", "meta.id", pages, id -> {
+            if (id.equals("2")) {
+                throw new IllegalStateException("conflict");
+            }
+            deleted.add(id);
+        });
+
+        assertThat(deleted).containsExactly("1");
+        assertThat(result.getProcessed()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(1);
+    }
+
+    @DisplayName("When reading fails, the deletes already submitted complete before the failure is rethrown")
+    @Test
+    void awaitsDeletesWhenReadingFails() {
+        assertThatThrownBy(() -> deleter.deleteAll("book", "meta.id", books(10, 4), id -> {
+            sleep();
+            deleted.add(id);
+        })).isInstanceOf(IllegalStateException.class).hasMessage("unavailable");
+
+        assertThat(deleted).containsExactlyInAnyOrder("0", "1", "2", "3");
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @DisplayName("Ids are read from nested documents")
+    @Test
+    void readsDottedIds() {
+        assertThat(BulkDeleter.idOf(book("7"), "meta.id")).contains("7");
+        assertThat(BulkDeleter.idOf(book("7"), "meta.id.value")).isEmpty();
+        assertThat(BulkDeleter.idOf(book("7"), "isbn")).isEmpty();
+    }
+}
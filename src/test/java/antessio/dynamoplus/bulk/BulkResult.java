@@ -0,0 +1,29 @@
+package antessio.dynamoplus.bulk;
+
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Outcome of a bulk operation.
+ */
+@Value
+public class BulkResult {
+
+    long processed;
+    long failed;
+    Duration elapsed;
+    Optional<Throwable> lastError;
+
+    public double getDocumentsPerSecond() {
+        double seconds = elapsed.toNanos() / 1e9;
+        return seconds == 0 ? 0 : processed / seconds;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d documents (%d failed) in %d ms, %.1f documents/s",
+                processed, failed, elapsed.toMillis(), getDocumentsPerSecond());
+    }
+}
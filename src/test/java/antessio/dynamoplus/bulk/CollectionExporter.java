@@ -0,0 +1,182 @@
+package antessio.dynamoplus.bulk;
+
+import antessio.dynamoplus.Clients;
+import antessio.dynamoplus.client.AsyncSdk;
+import antessio.dynamoplus.client.DocumentCursor;
+import antessio.dynamoplus.client.DocumentStreams;
+import antessio.dynamoplus.perf.Settings;
+import antessio.dynamoplus.protocol.Wire;
+import antessio.dynamoplus.sdk.SDKV2;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports a collection to gzip-compressed NDJSON, one file per {@link ExportSegment}:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=antessio.dynamoplus.bulk.CollectionExporter \
+ *     -Dexport.collection=book__books_1m -Dexport.segmentField=category.name -Dexport.segmentValues=thriller,pulp,romance
+ * </pre>
+ * Each segment is read page by page through a {@link DocumentCursor} and encoded document by document, so memory
+ * does not depend on the size of the collection. Segments are exported in parallel, which also spreads the
+ * compression over several cores.
+ */
+public class CollectionExporter {
+
+    public static final String EXTENSION = ".ndjson.gz";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final ObjectWriter WRITER = Wire.MAPPER.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    private final SDKV2 sdk;
+    private final int pageSize;
+    private final int prefetchDepth;
+    private final int parallelism;
+
+    public CollectionExporter(SDKV2 sdk, int pageSize, int prefetchDepth, int parallelism) {
+        this.sdk = sdk;
+        this.pageSize = pageSize;
+        this.prefetchDepth = prefetchDepth;
+        this.parallelism = parallelism;
+    }
+
+    public static void main(String[] args) {
+        String collection = Settings.string("export.collection", null);
+        if (collection == null) {
+            throw new IllegalArgumentException("-Dexport.collection is required");
+        }
+        String segmentField = Settings.string("export.segmentField", null);
+        List<ExportSegment> segments = segmentField == null
+                ? Collections.singletonList(ExportSegment.all())
+                : Arrays.stream(Settings.string("export.segmentValues", "").split(","))
+                .map(String::trim)
+                .filter(v -> !v.isEmpty())
+                .map(v -> ExportSegment.eq(segmentField, v))
+                .collect(Collectors.toList());
+        CollectionExporter exporter = new CollectionExporter(
+                Clients.getIntance().getAdminClient(),
+                Settings.integer("export.pageSize", DocumentStreams.DEFAULT_PAGE_SIZE),
+                Settings.integer("export.prefetchDepth", DocumentStreams.DEFAULT_PREFETCH_DEPTH),
+                Settings.integer("export.parallelism", 4));
+        Path directory = Settings.outputDirectory().resolve(Settings.string("export.output", "export"));
+        long start = System.nanoTime();
+        List<ExportResult> results = exporter.export(collection, segments, directory);
+        results.forEach(System.out::println);
+        System.out.println(ExportResult.total(results, Duration.ofNanos(System.nanoTime() - start)));
+    }
+
+    public List<ExportResult> export(String collectionName, List<ExportSegment> segments, Path directory) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try (AsyncSdk async = new AsyncSdk(sdk, parallelism)) {
+            List<CompletableFuture<ExportResult>> futures = segments.stream()
+                    .map(s -> async.submit(() -> export(collectionName, s, fileFor(directory, collectionName, s, segments.size()))))
+                    .collect(Collectors.toList());
+            return AsyncSdk.joinAll(futures);
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    private ExportResult export(String collectionName, ExportSegment segment, Path file) {
+        try (DocumentCursor<Map> documents = segment.getQuery() == null
+                ? DocumentStreams.getAllCursor(sdk, collectionName, Map.class, pageSize, prefetchDepth)
+                : DocumentStreams.queryCursor(sdk, collectionName, segment.getQuery(), Map.class, pageSize, prefetchDepth)) {
+            return write(segment.getName(), documents, file);
+        }
+    }
+
+    private static Path fileFor(Path directory, String collectionName, ExportSegment segment, int segmentCount) {
+        return directory.resolve(segment.getQuery() == null && segmentCount == 1
+                ? collectionName + EXTENSION
+                : collectionName + "-" + segment.getFileName() + EXTENSION);
+    }
+
+    /**
+     * Writes the documents to {@code file} as gzip-compressed NDJSON.
+     */
+    public static ExportResult write(String name, Iterator<?> documents, Path file) {
+        long start = System.nanoTime();
+        long count = 0;
+        CountingOutputStream compressed;
+        CountingOutputStream json;
+        try (OutputStream out = Files.newOutputStream(file)) {
+            compressed = new CountingOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+            json = new CountingOutputStream(new GZIPOutputStream(compressed, BUFFER_SIZE));
+            try (JsonGenerator generator = Wire.MAPPER.getFactory().createGenerator(json)) {
+                generator.setRootValueSeparator(null);
+                while (documents.hasNext()) {
+                    WRITER.writeValue(generator, documents.next());
+                    generator.writeRaw('\n');
+                    count++;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("unable to export to " + file, e);
+        }
+        return new ExportResult(name, file, count, json.count, compressed.count, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /**
+     * Streams back the documents of an exported file, e.g. to load them into another collection with a
+     * {@link BatchIngestor}. Closing the stream closes the file.
+     */
+    @SuppressWarnings("unchecked")
+    public static Stream<Map<String, Object>> read(Path file) {
+        try {
+            InputStream in = new GZIPInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE), BUFFER_SIZE);
+            MappingIterator<Map<String, Object>> documents = Wire.MAPPER.readerFor(Map.class).readValues(in);
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(documents, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                    .onClose(() -> {
+                        try {
+                            documents.close();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (IOException e) {
+            throw new UncheckedIOException("unable to read " + file, e);
+        }
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
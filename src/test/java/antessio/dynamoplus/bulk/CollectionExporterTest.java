@@ -0,0 +1,70 @@
+package antessio.dynamoplus.bulk;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CollectionExporterTest {
+
+    @TempDir
+    Path directory;
+
+    @DisplayName("Documents are written one per line and read back unchanged")
+    @Test
+    void roundTrips() throws IOException {
+        List<Map<String, Object>> documents = IntStream.range(0, 1000).mapToObj(CollectionExporterTest::document).collect(Collectors.toList());
+        Path file = directory.resolve("book" + CollectionExporter.EXTENSION);
+
+        ExportResult result = CollectionExporter.write("all", documents.iterator(), file);
+
+        assertThat(result.getDocuments()).isEqualTo(1000);
+        assertThat(result.getCompressedBytes()).isEqualTo(Files.size(file)).isLessThan(result.getBytes());
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            List<String> all = lines.lines().collect(Collectors.toList());
+            assertThat(all).hasSize(1000);
+            assertThat(all.get(0)).isEqualTo("{\"isbn\":\"isbn-0\",\"category\":{\"name\":\"category-0\"}}");
+        }
+        try (Stream<Map<String, Object>> read = CollectionExporter.read(file)) {
+            assertThat(read.collect(Collectors.toList())).isEqualTo(documents);
+        }
+    }
+
+    @DisplayName("An empty segment produces a valid empty file")
+    @Test
+    void exportsEmptySegment() {
+        Path file = directory.resolve("empty" + CollectionExporter.EXTENSION);
+
+        ExportResult result = CollectionExporter.write("empty", Collections.emptyIterator(), file);
+
+        assertThat(result.getDocuments()).isZero();
+        try (Stream<Map<String, Object>> read = CollectionExporter.read(file)) {
+            assertThat(read.count()).isZero();
+        }
+    }
+
+    private static Map<String, Object> document(int i) {
+        Map<String, Object> category = new LinkedHashMap<>();
+        category.put("name", "category-" + i % 7);
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("isbn", "isbn-" + i);
+        document.put("category", category);
+        return document;
+    }
+}
@@ -0,0 +1,49 @@
+package antessio.dynamoplus.bulk;
+
+import lombok.Value;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Outcome of the export of one {@link ExportSegment}: {@code bytes} is the size of the NDJSON,
+ * {@code compressedBytes} the size of the file written.
+ */
+@Value
+public class ExportResult {
+
+    String segment;
+    Path file;
+    long documents;
+    long bytes;
+    long compressedBytes;
+    Duration elapsed;
+
+    public double getMegabytesPerSecond() {
+        double seconds = elapsed.toNanos() / 1e9;
+        return seconds == 0 ? 0 : bytes / 1e6 / seconds;
+    }
+
+    public double getCompressionRatio() {
+        return compressedBytes == 0 ? 0 : (double) bytes / compressedBytes;
+    }
+
+    /**
+     * The segments taken together, over the wall-clock time of the whole export.
+     */
+    public static ExportResult total(List<ExportResult> segments, Duration elapsed) {
+        return new ExportResult("total", null,
+                segments.stream().mapToLong(ExportResult::getDocuments).sum(),
+                segments.stream().mapToLong(ExportResult::getBytes).sum(),
+                segments.stream().mapToLong(ExportResult::getCompressedBytes).sum(),
+                elapsed);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d documents, %.1f MB (%.1f MB compressed, x%.1f) in %d ms, %.1f MB/s",
+                segment, documents, bytes / 1e6, compressedBytes / 1e6, getCompressionRatio(), elapsed.toMillis(),
+                getMegabytesPerSecond());
+    }
+}
@@ -0,0 +1,34 @@
+package antessio.dynamoplus.bulk;
+
+import antessio.dynamoplus.sdk.domain.conditions.PredicateBuilder;
+import antessio.dynamoplus.sdk.domain.document.query.Query;
+import lombok.Value;
+
+/**
+ * A part of a collection exported by {@link CollectionExporter}: the documents matching {@code query},
+ * or the whole collection when there is no query.
+ */
+@Value
+public class ExportSegment {
+    String name;
+    Query query;
+
+    public static ExportSegment all() {
+        return new ExportSegment("all", null);
+    }
+
+    public static ExportSegment eq(String fieldName, String value) {
+        return new ExportSegment(fieldName + "=" + value, new Query(new PredicateBuilder().withEq(fieldName, value)));
+    }
+
+    public static ExportSegment of(String name, Query query) {
+        return new ExportSegment(name, query);
+    }
+
+    /**
+     * A name usable in a file name.
+     */
+    public String getFileName() {
+        return name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+}
@@ -0,0 +1,270 @@
+package antessio.dynamoplus.bulk;
+
+import antessio.dynamoplus.Clients;
+import antessio.dynamoplus.domain.Book;
+import antessio.dynamoplus.domain.Category;
+import antessio.dynamoplus.perf.Settings;
+import antessio.dynamoplus.sdk.SDKV2;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Streams an NDJSON or CSV file (see {@link RecordFormat}) into a collection:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=antessio.dynamoplus.bulk.FileImporter \
+ *     -Dimport.file=books.ndjson -Dimport.collection=book__books_1m -Dimport.type=book
+ * </pre>
+ * Lines are read sequentially, grouped in batches of {@code batchSize} and parsed and written by {@code workers}
+ * threads through a {@link BoundedPipeline}, so memory stays bounded whatever the size of the file.
+ * <p>
+ * Every few seconds the offset up to which all batches are done is saved next to the file
+ * (see {@link ImportCheckpoint}); a resumed import into the same collection starts from there, a checkpoint written for
+ * another collection is ignored. Batches that were in flight when the import
+ * was interrupted are sent again, so a collection rejecting duplicate ids counts them as failed on resume.
+ * Documents that cannot be parsed or written are counted and skipped.
+ */
+public class FileImporter<T> {
+
+    private static final Duration PROGRESS_INTERVAL = Duration.ofSeconds(10);
+    private static final Duration CHECKPOINT_INTERVAL = Duration.ofSeconds(5);
+
+    private final Path file;
+    private final String target;
+    private final RecordFormat format;
+    private final Class<T> type;
+    private final int batchSize;
+    private final int workers;
+    private final Consumer<T> writer;
+    private final Path checkpointFile;
+
+    public FileImporter(Path file, String target, RecordFormat format, Class<T> type, int batchSize, int workers, Consumer<T> writer) {
+        this.file = file;
+        this.target = target;
+        this.format = format;
+        this.type = type;
+        this.batchSize = batchSize;
+        this.workers = workers;
+        this.writer = writer;
+        this.checkpointFile = ImportCheckpoint.pathFor(file);
+    }
+
+    public static void main(String[] args) {
+        Path file = Paths.get(required("import.file"));
+        String collection = required("import.collection");
+        RecordFormat format = RecordFormat.valueOf(Settings.string("import.format", RecordFormat.of(file).name()).toUpperCase());
+        SDKV2 sdk = Clients.getIntance().getAdminClient();
+        FileImporter<?> importer = create(file, format, Settings.string("import.type", "map"),
+                Settings.integer("import.batchSize", 100), Settings.integer("import.workers", 16), sdk, collection);
+        System.out.println("importing " + file + " (" + format + ") into " + collection);
+        System.out.println("imported: " + importer.run(Settings.bool("import.resume", true)));
+    }
+
+    private static String required(String name) {
+        String value = Settings.string(name, null);
+        if (value == null) {
+            throw new IllegalArgumentException("-D" + name + " is required");
+        }
+        return value;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static FileImporter<?> create(Path file, RecordFormat format, String type, int batchSize, int workers,
+                                          SDKV2 sdk, String collection) {
+        switch (type) {
+            case "book":
+                return new FileImporter<>(file, collection, format, Book.class, batchSize, workers,
+                        b -> sdk.createDocument(collection, b, Book.class));
+            case "category":
+                return new FileImporter<>(file, collection, format, Category.class, batchSize, workers,
+                        c -> sdk.createDocument(collection, c, Category.class));
+            case "map":
+                return new FileImporter<Map>(file, collection, format, Map.class, batchSize, workers,
+                        m -> sdk.createDocument(collection, m, Map.class));
+            default:
+                throw new IllegalArgumentException("unknown import.type " + type + ", expected book, category or map");
+        }
+    }
+
+    public Path getCheckpointFile() {
+        return checkpointFile;
+    }
+
+    /**
+     * Imports the file, starting from the saved checkpoint when {@code resume} is set and one exists for the same
+     * collection.
+     * The returned result counts the documents of this run, the checkpoint those of the whole file.
+     */
+    public BulkResult run(boolean resume) {
+        Function<String, T> parser;
+        long dataOffset = 0;
+        if (!format.hasHeader()) {
+            parser = format.parser(type, null);
+        } else {
+            try (LineReader header = new LineReader(file, 0, 64 * 1024)) {
+                if (!header.hasNext()) {
+                    return new BulkResult(0, 0, Duration.ZERO, Optional.empty());
+                }
+                LineReader.Line line = header.next();
+                parser = format.parser(type, line.getText());
+                dataOffset = line.getNextOffset();
+            }
+        }
+        ImportCheckpoint start = resume ? ImportCheckpoint.read(checkpointFile).filter(this::isOfTarget).orElse(null) : null;
+        long from = start == null ? dataOffset : Math.max(dataOffset, start.getOffset());
+        try (LineReader reader = new LineReader(file, from)) {
+            if (start != null) {
+                if (start.getSourceSize() > reader.size()) {
+                    throw new IllegalStateException(file + " is smaller than when " + checkpointFile
+                            + " was written, delete the checkpoint or set import.resume=false");
+                }
+                System.out.println("resuming " + file + " at byte " + from + " of " + reader.size());
+            }
+            Progress progress = new Progress(from, reader.size(), start);
+            return read(reader, parser, progress);
+        }
+    }
+
+    private boolean isOfTarget(ImportCheckpoint checkpoint) {
+        if (target.equals(checkpoint.getTarget())) {
+            return true;
+        }
+        System.out.println("ignoring " + checkpointFile + ", written for " + checkpoint.getTarget() + " instead of " + target);
+        return false;
+    }
+
+    /**
+     * Sends the lines to the pipeline; when reading them fails, the batches already submitted are waited for and
+     * checkpointed before the failure is rethrown.
+     */
+    private BulkResult read(LineReader reader, Function<String, T> parser, Progress progress) {
+        BoundedPipeline<Batch> pipeline = new BoundedPipeline<>("import-" + file.getFileName(), workers, workers * 2,
+                batch -> write(batch, parser, progress));
+        Duration elapsed;
+        try {
+            long lastProgress = System.nanoTime();
+            long sequence = 0;
+            List<String> lines = new ArrayList<>(batchSize);
+            long endOffset = progress.startOffset;
+            long submittedOffset = endOffset;
+            while (reader.hasNext()) {
+                LineReader.Line line = reader.next();
+                endOffset = line.getNextOffset();
+                if (!line.getText().trim().isEmpty()) {
+                    lines.add(line.getText());
+                }
+                if (lines.size() == batchSize) {
+                    pipeline.submit(new Batch(sequence++, endOffset, lines));
+                    submittedOffset = endOffset;
+                    lines = new ArrayList<>(batchSize);
+                }
+                if (System.nanoTime() - lastProgress > PROGRESS_INTERVAL.toNanos()) {
+                    lastProgress = System.nanoTime();
+                    System.out.println(pipeline.getElapsed().getSeconds() + "s: " + progress);
+                }
+            }
+            if (endOffset > submittedOffset) {
+                pipeline.submit(new Batch(sequence, endOffset, lines));
+            }
+        } finally {
+            elapsed = pipeline.await().getElapsed();
+            progress.save();
+        }
+        return progress.result(elapsed);
+    }
+
+    private void write(Batch batch, Function<String, T> parser, Progress progress) {
+        long imported = 0;
+        long failed = 0;
+        Throwable error = null;
+        for (String line : batch.lines) {
+            try {
+                writer.accept(parser.apply(line));
+                imported++;
+            } catch (RuntimeException e) {
+                failed++;
+                error = e;
+            }
+        }
+        progress.done(batch, imported, failed, error);
+    }
+
+    private static class Batch {
+        private final long sequence;
+        private final long endOffset;
+        private final List<String> lines;
+
+        private Batch(long sequence, long endOffset, List<String> lines) {
+            this.sequence = sequence;
+            this.endOffset = endOffset;
+            this.lines = lines;
+        }
+    }
+
+    /**
+     * Batches complete out of order: the checkpoint only moves past a batch once all the previous ones are done.
+     */
+    private class Progress {
+        private final long size;
+        private final TreeMap<Long, long[]> completed = new TreeMap<>();
+        private final long startOffset;
+        private final long startImported;
+        private final long startFailed;
+        private long nextSequence;
+        private long offset;
+        private long imported;
+        private long failed;
+        private Throwable lastError;
+        private long lastSave = System.nanoTime();
+
+        private Progress(long offset, long size, ImportCheckpoint start) {
+            this.startOffset = offset;
+            this.offset = offset;
+            this.size = size;
+            this.imported = start == null ? 0 : start.getImported();
+            this.failed = start == null ? 0 : start.getFailed();
+            this.startImported = imported;
+            this.startFailed = failed;
+        }
+
+        private synchronized void done(Batch batch, long batchImported, long batchFailed, Throwable error) {
+            if (error != null) {
+                lastError = error;
+            }
+            completed.put(batch.sequence, new long[]{batch.endOffset, batchImported, batchFailed});
+            while (!completed.isEmpty() && completed.firstKey() == nextSequence) {
+                long[] done = completed.pollFirstEntry().getValue();
+                offset = done[0];
+                imported += done[1];
+                failed += done[2];
+                nextSequence++;
+            }
+            if (System.nanoTime() - lastSave > CHECKPOINT_INTERVAL.toNanos()) {
+                save();
+            }
+        }
+
+        private synchronized void save() {
+            lastSave = System.nanoTime();
+            new ImportCheckpoint(file.toString(), target, size, offset, imported, failed).write(checkpointFile);
+        }
+
+        private synchronized BulkResult result(Duration elapsed) {
+            return new BulkResult(imported - startImported, failed - startFailed, elapsed, Optional.ofNullable(lastError));
+        }
+
+        @Override
+        public synchronized String toString() {
+            return String.format("%d documents (%d failed), %.1f%% of the file, %.1f MB read",
+                    imported, failed, size == 0 ? 100 : offset * 100.0 / size, (offset - startOffset) / 1e6);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package antessio.dynamoplus.bulk;
+
+import antessio.dynamoplus.domain.Book;
+import antessio.dynamoplus.domain.Category;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class FileImporterTest {
+
+    @TempDir
+    Path directory;
+
+    @DisplayName("Lines keep their byte offsets across buffer refills, CRLF and multi-byte characters")
+    @Test
+    void readsLinesWithOffsets() throws IOException {
+        Path file = write("lines.txt", "first\r\nsécond line\n\nlast");
+        List<LineReader.Line> lines = new ArrayList<>();
+
+        try (LineReader reader = new LineReader(file, 0, 4)) {
+            reader.forEachRemaining(lines::add);
+        }
+
+        assertThat(lines).extracting(LineReader.Line::getText).containsExactly("first", "sécond line", "", "last");
+        assertThat(lines).extracting(LineReader.Line::getOffset).containsExactly(0L, 7L, 20L, 21L);
+        assertThat(lines.get(3).getNextOffset()).isEqualTo(Files.size(file));
+        try (LineReader reader = new LineReader(file, 7, 4)) {
+            assertThat(reader.next().getText()).isEqualTo("sécond line");
+        }
+    }
+
+    @DisplayName("Every NDJSON line is written once and the checkpoint ends at the end of the file")
+    @Test
+    void importsNdjson() throws IOException {
+        Path file = write("books.ndjson", books(0, 250));
+        List<Book> written = Collections.synchronizedList(new ArrayList<>());
+
+        BulkResult result = new FileImporter<>(file, "book", RecordFormat.NDJSON, Book.class, 20, 4, written::add).run(false);
+
+        assertThat(result.getProcessed()).isEqualTo(250);
+        assertThat(result.getFailed()).isZero();
+        assertThat(written).extracting(Book::getIsbn).containsExactlyInAnyOrderElementsOf(isbns(0, 250));
+        ImportCheckpoint checkpoint = ImportCheckpoint.read(ImportCheckpoint.pathFor(file)).get();
+        assertThat(checkpoint.getOffset()).isEqualTo(Files.size(file));
+        assertThat(checkpoint.getImported()).isEqualTo(250);
+    }
+
+    @DisplayName("CSV rows become nested documents, quoted cells may contain commas")
+    @Test
+    void importsCsv() throws IOException {
+        Path file = write("books.csv", "isbn,title,category.id,category.name,rating\n"
+                + "1,\"Dune, the novel\",c1,sci-fi,9\n"
+                + "2,\"The \"\"Hobbit\"\"\",c2,fantasy,\n");
+        List<Book> written = Collections.synchronizedList(new ArrayList<>());
+
+        BulkResult result = new FileImporter<>(file, "book", RecordFormat.of(file), Book.class, 10, 2, written::add).run(false);
+
+        assertThat(result.getProcessed()).isEqualTo(2);
+        written.sort(Comparator.comparing(Book::getIsbn));
+        assertThat(written.get(0)).isEqualTo(new Book("1", "Dune, the novel", null, new Category("c1", "sci-fi"), "9"));
+        assertThat(written.get(1)).isEqualTo(new Book("2", "The \"Hobbit\"", null, new Category("c2", "fantasy"), null));
+    }
+
+    @DisplayName("CSV cells are strings unless their column declares a type")
+    @Test
+    void convertsTypedCsvColumns() {
+        List<RecordFormat.Column> columns = RecordFormat.splitCsv("isbn,meta.pages:int,meta.price:number,meta.available:boolean")
+                .stream().map(RecordFormat.Column::parse).collect(Collectors.toList());
+
+        Map<String, Object> document = RecordFormat.toDocument(columns, Arrays.asList("0042", "310", "12.50", "TRUE"));
+
+        Map<String, Object> meta = new LinkedHashMap<>();
+        meta.put("pages", 310L);
+        meta.put("price", new BigDecimal("12.50"));
+        meta.put("available", true);
+        assertThat(document).containsEntry("isbn", "0042").containsEntry("meta", meta);
+        assertThatThrownBy(() -> RecordFormat.toDocument(columns, Arrays.asList("1", "many")))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("meta.pages");
+        assertThatThrownBy(() -> RecordFormat.Column.parse("isbn:date")).hasMessageContaining("unknown type date");
+    }
+
+    @DisplayName("Lines that cannot be parsed or written are counted and skipped")
+    @Test
+    void countsFailures() throws IOException {
+        Path file = write("books.ndjson", books(0, 5) + "{not json\n" + books(5, 10));
+        List<Book> written = Collections.synchronizedList(new ArrayList<>());
+
+        BulkResult result = new FileImporter<Book>(file, "book", RecordFormat.NDJSON, Book.class, 3, 2, b -> {
+            if (b.getIsbn().equals("isbn-7")) {
+                throw new IllegalStateException("rejected");
+            }
+            written.add(b);
+        }).run(false);
+
+        assertThat(result.getProcessed()).isEqualTo(9);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getLastError()).isPresent();
+    }
+
+    @DisplayName("A resumed import starts at the checkpoint and keeps counting from it")
+    @Test
+    void resumesFromCheckpoint() throws IOException {
+        String firstLines = books(0, 40);
+        Path file = write("books.ndjson", firstLines + books(40, 100));
+        long offset = firstLines.getBytes(StandardCharsets.UTF_8).length;
+        new ImportCheckpoint(file.toString(), "book", Files.size(file), offset, 40, 0).write(ImportCheckpoint.pathFor(file));
+        List<Book> written = Collections.synchronizedList(new ArrayList<>());
+
+        BulkResult result = new FileImporter<>(file, "book", RecordFormat.NDJSON, Book.class, 7, 3, written::add).run(true);
+
+        assertThat(result.getProcessed()).isEqualTo(60);
+        assertThat(written).extracting(Book::getIsbn).containsExactlyInAnyOrderElementsOf(isbns(40, 100));
+        assertThat(ImportCheckpoint.read(ImportCheckpoint.pathFor(file)).get().getImported()).isEqualTo(100);
+    }
+
+    @DisplayName("A checkpoint written for another collection is ignored")
+    @Test
+    void ignoresCheckpointsOfOtherCollections() throws IOException {
+        Path file = write("books.ndjson", books(0, 100));
+        new ImportCheckpoint(file.toString(), "book_other", Files.size(file), Files.size(file), 100, 0).write(ImportCheckpoint.pathFor(file));
+        List<Book> written = Collections.synchronizedList(new ArrayList<>());
+
+        BulkResult result = new FileImporter<>(file, "book", RecordFormat.NDJSON, Book.class, 7, 3, written::add).run(true);
+
+        assertThat(result.getProcessed()).isEqualTo(100);
+        assertThat(written).extracting(Book::getIsbn).containsExactlyInAnyOrderElementsOf(isbns(0, 100));
+        ImportCheckpoint checkpoint = ImportCheckpoint.read(ImportCheckpoint.pathFor(file)).get();
+        assertThat(checkpoint.getTarget()).isEqualTo("book");
+        assertThat(checkpoint.getImported()).isEqualTo(100);
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.write(directory.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String books(int from, int to) {
+        return IntStream.range(from, to)
+                .mapToObj(i -> "{\"isbn\":\"isbn-" + i + "\",\"title\":\"title " + i + "\",\"category\":{\"id\":\"c\",\"name\":\"n\"}}\n")
+                .collect(Collectors.joining());
+    }
+
+    private static List<String> isbns(int from, int to) {
+        return IntStream.range(from, to).mapToObj(i -> "isbn-" + i).collect(Collectors.toList());
+    }
+}
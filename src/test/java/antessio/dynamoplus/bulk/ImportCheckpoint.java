@@ -0,0 +1,60 @@
+package antessio.dynamoplus.bulk;
+
+import antessio.dynamoplus.protocol.Wire;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * Progress of a {@link FileImporter}: every line before {@code offset} has been sent to the {@code target} collection,
+ * {@code imported} and {@code failed} count the documents of those lines.
+ */
+@NoArgsConstructor
+@Data
+@Builder
+@AllArgsConstructor
+public class ImportCheckpoint {
+    private String source;
+    private String target;
+    private long sourceSize;
+    private long offset;
+    private long imported;
+    private long failed;
+
+    public static Path pathFor(Path source) {
+        return Paths.get(source.toString() + ".checkpoint");
+    }
+
+    public static Optional<ImportCheckpoint> read(Path file) {
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Wire.MAPPER.readValue(file.toFile(), ImportCheckpoint.class));
+        } catch (IOException e) {
+            throw new UncheckedIOException("unable to read the checkpoint " + file, e);
+        }
+    }
+
+    /**
+     * Replaces the checkpoint atomically, so that an import killed while writing it still finds the previous one.
+     */
+    public void write(Path file) {
+        Path temporary = Paths.get(file.toString() + ".tmp");
+        try {
+            Wire.MAPPER.writeValue(temporary.toFile(), this);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("unable to write the checkpoint " + file, e);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package antessio.dynamoplus.bulk;
+
+import lombok.Value;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the UTF-8 lines of a file through a {@link FileChannel} and a fixed read buffer, keeping track of the byte
+ * offset of every line so that a reader can be reopened exactly where a previous one stopped.
+ * Both {@code \n} and {@code \r\n} terminate a line; a last line without terminator is returned as well.
+ */
+public class LineReader implements Iterator<LineReader.Line>, Closeable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    @Value
+    public static class Line {
+        long offset;
+        /**
+         * Offset of the byte following the line terminator, i.e. where the next line starts.
+         */
+        long nextOffset;
+        String text;
+    }
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private byte[] pending = new byte[256];
+    private int pendingLength;
+    private long position;
+    private boolean endOfFile;
+    private Line next;
+
+    public LineReader(Path file, long startOffset, int bufferSize) {
+        try {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            this.channel.position(startOffset);
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot open " + file, e);
+        }
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.buffer.flip();
+        this.position = startOffset;
+    }
+
+    public LineReader(Path file, long startOffset) {
+        this(file, startOffset, DEFAULT_BUFFER_SIZE);
+    }
+
+    public long size() {
+        try {
+            return channel.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = readLine();
+        }
+        return next != null;
+    }
+
+    @Override
+    public Line next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Line line = next;
+        next = null;
+        return line;
+    }
+
+    private Line readLine() {
+        long lineOffset = position;
+        pendingLength = 0;
+        while (true) {
+            if (!buffer.hasRemaining() && !fill()) {
+                return pendingLength == 0 ? null : line(lineOffset);
+            }
+            byte b = buffer.get();
+            position++;
+            if (b == '\n') {
+                return line(lineOffset);
+            }
+            append(b);
+        }
+    }
+
+    private Line line(long lineOffset) {
+        int length = pendingLength > 0 && pending[pendingLength - 1] == '\r' ? pendingLength - 1 : pendingLength;
+        return new Line(lineOffset, position, new String(pending, 0, length, StandardCharsets.UTF_8));
+    }
+
+    private void append(byte b) {
+        if (pendingLength == pending.length) {
+            pending = Arrays.copyOf(pending, pending.length * 2);
+        }
+        pending[pendingLength++] = b;
+    }
+
+    private boolean fill() {
+        if (endOfFile) {
+            return false;
+        }
+        buffer.clear();
+        try {
+            int read;
+            do {
+                read = channel.read(buffer);
+            } while (read == 0);
+            buffer.flip();
+            endOfFile = read < 0;
+            return !endOfFile;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package antessio.dynamoplus.bulk;
+
+import antessio.dynamoplus.protocol.Wire;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Line-oriented formats understood by {@link FileImporter}.
+ * <ul>
+ * <li>{@link #NDJSON}: one JSON document per line.</li>
+ * <li>{@link #CSV}: a header row followed by one document per row; dotted column names ({@code category.name})
+ * build nested objects, empty cells are left out. Quoted cells may contain commas and doubled quotes, not line breaks.
+ * Cells are strings unless the column declares a type, as in {@code rating:int}: {@code int}, {@code number} or
+ * {@code boolean} (see {@link CellType}). Types are never guessed, since a string of digits such as an ISBN must
+ * stay a string.</li>
+ * </ul>
+ */
+public enum RecordFormat {
+    NDJSON {
+        @Override
+        public <T> Function<String, T> parser(Class<T> type, String header) {
+            return line -> {
+                try {
+                    return Wire.MAPPER.readValue(line, type);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("invalid JSON line: " + abbreviate(line), e);
+                }
+            };
+        }
+    },
+    CSV {
+        @Override
+        public boolean hasHeader() {
+            return true;
+        }
+
+        @Override
+        public <T> Function<String, T> parser(Class<T> type, String header) {
+            List<Column> columns = splitCsv(header).stream().map(Column::parse).collect(Collectors.toList());
+            return line -> Wire.MAPPER.convertValue(toDocument(columns, splitCsv(line)), type);
+        }
+    };
+
+    public boolean hasHeader() {
+        return false;
+    }
+
+    /**
+     * Returns a parser of the data lines; {@code header} is the first line of the file for formats having one.
+     */
+    public abstract <T> Function<String, T> parser(Class<T> type, String header);
+
+    public static RecordFormat of(Path file) {
+        return file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv") ? CSV : NDJSON;
+    }
+
+    static List<String> splitCsv(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quote: " + abbreviate(line));
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> toDocument(List<Column> columns, List<String> cells) {
+        if (cells.size() > columns.size()) {
+            throw new IllegalArgumentException("expected " + columns.size() + " cells, found " + cells.size());
+        }
+        Map<String, Object> document = new LinkedHashMap<>();
+        for (int i = 0; i < cells.size(); i++) {
+            if (cells.get(i).isEmpty()) {
+                continue;
+            }
+            Column column = columns.get(i);
+            Map<String, Object> parent = document;
+            for (int j = 0; j < column.path.length - 1; j++) {
+                parent = (Map<String, Object>) parent.computeIfAbsent(column.path[j], k -> new LinkedHashMap<String, Object>());
+            }
+            parent.put(column.path[column.path.length - 1], column.type.parse(column.name, cells.get(i)));
+        }
+        return document;
+    }
+
+    /**
+     * Type of the cells of a CSV column, declared in the header after a colon.
+     */
+    enum CellType {
+        STRING {
+            @Override
+            Object convert(String cell) {
+                return cell;
+            }
+        },
+        /**
+         * A whole number, as a {@code long}.
+         */
+        INT {
+            @Override
+            Object convert(String cell) {
+                return Long.valueOf(cell.trim());
+            }
+        },
+        /**
+         * A decimal number, kept exact.
+         */
+        NUMBER {
+            @Override
+            Object convert(String cell) {
+                return new BigDecimal(cell.trim());
+            }
+        },
+        /**
+         * {@code true} or {@code false}, in any case.
+         */
+        BOOLEAN {
+            @Override
+            Object convert(String cell) {
+                String value = cell.trim().toLowerCase(Locale.ROOT);
+                if (!value.equals("true") && !value.equals("false")) {
+                    throw new IllegalArgumentException();
+                }
+                return Boolean.valueOf(value);
+            }
+        };
+
+        abstract Object convert(String cell);
+
+        Object parse(String column, String cell) {
+            try {
+                return convert(cell);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(String.format("%s: '%s' is not a valid %s", column, abbreviate(cell), name().toLowerCase(Locale.ROOT)));
+            }
+        }
+    }
+
+    /**
+     * A CSV header cell: a dotted name, optionally followed by {@code :type}.
+     */
+    static final class Column {
+        final String name;
+        final String[] path;
+        final CellType type;
+
+        private Column(String name, CellType type) {
+            this.name = name;
+            this.path = name.split("\\.");
+            this.type = type;
+        }
+
+        static Column parse(String header) {
+            int colon = header.lastIndexOf(':');
+            if (colon < 0) {
+                return new Column(header, CellType.STRING);
+            }
+            String type = header.substring(colon + 1).trim();
+            try {
+                return new Column(header.substring(0, colon), CellType.valueOf(type.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("unknown type " + type + " of column " + header.substring(0, colon));
+            }
+        }
+    }
+
+    private static String abbreviate(String line) {
+        return line.length() > 80 ? line.substring(0, 80) + "..." : line;
+    }
+}
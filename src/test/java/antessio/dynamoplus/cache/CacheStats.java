@@ -0,0 +1,24 @@
+package antessio.dynamoplus.cache;
+
+import lombok.Value;
+
+/**
+ * Counters of a {@link TtlCache}; evictions include both expired and size-evicted entries.
+ */
+@Value
+public class CacheStats {
+
+    long hits;
+    long misses;
+    long evictions;
+
+    public double getHitRatio() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : hits / (double) requests;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%d misses=%d evictions=%d hitRatio=%.2f", hits, misses, evictions, getHitRatio());
+    }
+}
@@ -0,0 +1,56 @@
+package antessio.dynamoplus.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TtlCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final TtlCache<String, String> cache = new TtlCache<>(Duration.ofSeconds(10), 2, now::get);
+
+    @DisplayName("Entries expire after the ttl")
+    @Test
+    void expiresEntries() {
+        cache.put("a", "1");
+        assertThat(cache.get("a")).contains("1");
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        assertThat(cache.get("a")).isEmpty();
+        assertThat(cache.stats())
+                .matches(s -> s.getHits() == 1, "one hit")
+                .matches(s -> s.getMisses() == 1, "one miss")
+                .matches(s -> s.getEvictions() == 1, "one eviction");
+    }
+
+    @DisplayName("The least recently used entry is evicted when full")
+    @Test
+    void evictsLeastRecentlyUsed() {
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+        cache.put("c", "3");
+
+        assertThat(cache.get("b")).isEmpty();
+        assertThat(cache.get("a")).contains("1");
+        assertThat(cache.get("c")).contains("3");
+    }
+
+    @DisplayName("Values are loaded once and then served from the cache")
+    @Test
+    void loadsOnMiss() {
+        AtomicLong loads = new AtomicLong();
+
+        cache.getOrLoad("a", k -> k + loads.incrementAndGet());
+        String value = cache.getOrLoad("a", k -> k + loads.incrementAndGet());
+
+        assertThat(value).isEqualTo("a1");
+        assertThat(loads).hasValue(1);
+    }
+}
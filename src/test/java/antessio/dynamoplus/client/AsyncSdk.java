@@ -0,0 +1,159 @@
+package antessio.dynamoplus.client;
+
+import antessio.dynamoplus.sdk.PaginatedResult;
+import antessio.dynamoplus.sdk.SDKV2;
+import antessio.dynamoplus.sdk.domain.document.query.Query;
+import antessio.dynamoplus.sdk.domain.system.clientauthorization.ClientAuthorizationApiKey;
+import antessio.dynamoplus.sdk.domain.system.clientauthorization.ClientAuthorizationHttpSignature;
+import antessio.dynamoplus.sdk.domain.system.collection.Collection;
+import antessio.dynamoplus.sdk.domain.system.index.Index;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Non-blocking facade over {@link SDKV2}: every call returns a {@link CompletableFuture} completed on the executor.
+ * <p>
+ * At most {@code maxInFlight} calls run at the same time; submitting more blocks the caller until a call completes,
+ * so a producer can't queue an unbounded amount of work.
+ */
+public class AsyncSdk implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_IN_FLIGHT = 16;
+
+    private final SDKV2 sdk;
+    private final Semaphore permits;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+
+    public AsyncSdk(SDKV2 sdk) {
+        this(sdk, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * Runs the calls on a fixed pool of {@code maxInFlight} daemon threads.
+     */
+    public AsyncSdk(SDKV2 sdk, int maxInFlight) {
+        this(sdk, maxInFlight, newExecutor(maxInFlight), true);
+    }
+
+    /**
+     * Runs the calls on the given executor, which is not shut down by {@link #close()}.
+     */
+    public AsyncSdk(SDKV2 sdk, int maxInFlight, ExecutorService executor) {
+        this(sdk, maxInFlight, executor, false);
+    }
+
+    private AsyncSdk(SDKV2 sdk, int maxInFlight, ExecutorService executor, boolean ownsExecutor) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1");
+        }
+        this.sdk = sdk;
+        this.permits = new Semaphore(maxInFlight);
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    private static ExecutorService newExecutor(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "dynamoplus-async-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public CompletableFuture<Collection> createCollection(Collection collection) {
+        return submit(() -> sdk.createCollection(collection));
+    }
+
+    public CompletableFuture<PaginatedResult<Collection>> getAllCollections() {
+        return submit(sdk::getAllCollections);
+    }
+
+    public CompletableFuture<Index> createIndex(Index index) {
+        return submit(() -> sdk.createIndex(index));
+    }
+
+    public CompletableFuture<ClientAuthorizationApiKey> createClientAuthorizationApiKey(ClientAuthorizationApiKey clientAuthorization) {
+        return submit(() -> sdk.createClientAuthorizationApiKey(clientAuthorization));
+    }
+
+    public CompletableFuture<ClientAuthorizationHttpSignature> createClientAuthorizationHttpSignature(ClientAuthorizationHttpSignature clientAuthorization) {
+        return submit(() -> sdk.createClientAuthorizationHttpSignature(clientAuthorization));
+    }
+
+    public CompletableFuture<ClientAuthorizationApiKey> getClientAuthorizationApiKey(String clientId) {
+        return submit(() -> sdk.getClientAuthorizationApiKey(clientId));
+    }
+
+    public <T> CompletableFuture<T> createDocument(String collectionName, T document, Class<T> cls) {
+        return submit(() -> sdk.createDocument(collectionName, document, cls));
+    }
+
+    public CompletableFuture<Void> deleteDocument(String id, String collectionName) {
+        return submit(() -> {
+            sdk.deleteDocument(id, collectionName);
+            return null;
+        });
+    }
+
+    public <T> CompletableFuture<PaginatedResult<T>> getAll(String collectionName, Integer limit, String startFrom, Class<T> cls) {
+        return submit(() -> sdk.getAll(collectionName, limit, startFrom, cls));
+    }
+
+    public <T> CompletableFuture<PaginatedResult<T>> query(String collectionName, Query query, Class<T> cls, Integer limit, String startFrom) {
+        return submit(() -> sdk.query(collectionName, query, cls, limit, startFrom));
+    }
+
+    /**
+     * Runs any blocking call under the concurrency limit, e.g. a sequence of calls that depend on each other.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> call) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            CompletableFuture<T> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        try {
+            return CompletableFuture.supplyAsync(call, executor)
+                    .whenComplete((r, e) -> permits.release());
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * Waits for all the futures and returns their results in order, rethrowing the first failure as it was thrown
+     * by the SDK.
+     */
+    public static <T> List<T> joinAll(List<CompletableFuture<T>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+    }
+
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+}
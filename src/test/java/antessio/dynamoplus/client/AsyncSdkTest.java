@@ -0,0 +1,61 @@
+package antessio.dynamoplus.client;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AsyncSdkTest {
+
+    @DisplayName("No more than maxInFlight calls run at the same time")
+    @Test
+    void limitsConcurrency() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        try (AsyncSdk async = new AsyncSdk(null, 3)) {
+            List<CompletableFuture<Integer>> futures = IntStream.range(0, 30)
+                    .mapToObj(i -> async.submit(() -> {
+                        peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        sleep(5);
+                        running.decrementAndGet();
+                        return i;
+                    }))
+                    .collect(Collectors.toList());
+
+            assertThat(AsyncSdk.joinAll(futures)).containsExactlyElementsOf(
+                    IntStream.range(0, 30).boxed().collect(Collectors.toList()));
+            assertThat(peak.get()).isLessThanOrEqualTo(3);
+            assertThat(async.getAvailablePermits()).isEqualTo(3);
+        }
+    }
+
+    @DisplayName("joinAll rethrows the failure raised by the call")
+    @Test
+    void unwrapsFailures() {
+        try (AsyncSdk async = new AsyncSdk(null, 2)) {
+            CompletableFuture<Object> failing = async.submit(() -> {
+                throw new IllegalArgumentException("bad request");
+            });
+
+            assertThatThrownBy(() -> AsyncSdk.joinAll(Collections.singletonList(failing)))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("bad request");
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package antessio.dynamoplus.client;
+
+import antessio.dynamoplus.protocol.Operation;
+
+import java.time.Duration;
+
+/**
+ * Thrown by {@link ResilientSdk} when a call doesn't complete within its budget; the cause is the failure of the last
+ * attempt, if any.
+ */
+public class BudgetExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public BudgetExceededException(Operation operation, Duration budget, Throwable lastFailure) {
+        super(String.format("%s didn't complete within %d ms", operation.getMetricName(), budget.toMillis()), lastFailure);
+    }
+}
@@ -0,0 +1,186 @@
+package antessio.dynamoplus.client;
+
+import antessio.dynamoplus.cache.CacheStats;
+import antessio.dynamoplus.cache.TtlCache;
+import antessio.dynamoplus.sdk.PaginatedResult;
+import antessio.dynamoplus.sdk.SDKV2;
+import antessio.dynamoplus.sdk.domain.document.query.Query;
+import antessio.dynamoplus.sdk.domain.system.clientauthorization.ClientAuthorizationApiKey;
+import antessio.dynamoplus.sdk.domain.system.clientauthorization.ClientAuthorizationHttpSignature;
+import antessio.dynamoplus.sdk.domain.system.collection.Collection;
+import antessio.dynamoplus.sdk.domain.system.index.Index;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * {@link SDKV2} whose {@code getAll} and {@code query} pages are cached in a {@link TtlCache}, keyed by collection,
+ * predicate, page size and cursor. A {@code createDocument} or {@code deleteDocument} going through this client drops
+ * every cached page of its collection, so the client always reads its own writes; writes of other clients are only
+ * seen once the pages expire.
+ * <p>
+ * A page loaded while a write to its collection was in progress is returned but not cached. Cached pages are shared
+ * between callers and must not be modified.
+ * <p>
+ * Queries are only cached when built from a {@link KeyedPredicate}: an SDK {@link Query} can't be read back, so
+ * queries passed as such always go to the server and are counted as {@link #getUncacheable() uncacheable}.
+ */
+public class CachingSdk {
+
+    public static final Duration DEFAULT_TTL = Duration.ofSeconds(30);
+    public static final int DEFAULT_MAX_SIZE = 10_000;
+
+    @Value
+    public static class PageKey {
+        String collectionName;
+        /**
+         * The query predicate as JSON (see {@link KeyedPredicate#getKey()}), {@code null} for {@code getAll}.
+         */
+        String predicate;
+        Integer limit;
+        String startFrom;
+        Class<?> documentClass;
+    }
+
+    private final SDKV2 sdk;
+    private final TtlCache<PageKey, PaginatedResult<?>> pages;
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder uncacheable = new LongAdder();
+
+    public CachingSdk(SDKV2 sdk) {
+        this(sdk, DEFAULT_TTL, DEFAULT_MAX_SIZE);
+    }
+
+    public CachingSdk(SDKV2 sdk, Duration ttl, int maxSize) {
+        this.sdk = sdk;
+        this.pages = new TtlCache<>(ttl, maxSize);
+    }
+
+    public Collection createCollection(Collection collection) {
+        return sdk.createCollection(collection);
+    }
+
+    public PaginatedResult<Collection> getAllCollections() {
+        return sdk.getAllCollections();
+    }
+
+    public Index createIndex(Index index) {
+        return sdk.createIndex(index);
+    }
+
+    public ClientAuthorizationApiKey createClientAuthorizationApiKey(ClientAuthorizationApiKey clientAuthorization) {
+        return sdk.createClientAuthorizationApiKey(clientAuthorization);
+    }
+
+    public ClientAuthorizationHttpSignature createClientAuthorizationHttpSignature(ClientAuthorizationHttpSignature clientAuthorization) {
+        return sdk.createClientAuthorizationHttpSignature(clientAuthorization);
+    }
+
+    public ClientAuthorizationApiKey getClientAuthorizationApiKey(String clientId) {
+        return sdk.getClientAuthorizationApiKey(clientId);
+    }
+
+    public <T> T createDocument(String collectionName, T document, Class<T> cls) {
+        return write(collectionName, () -> sdk.createDocument(collectionName, document, cls));
+    }
+
+    public void deleteDocument(String id, String collectionName) {
+        write(collectionName, () -> {
+            sdk.deleteDocument(id, collectionName);
+            return null;
+        });
+    }
+
+    public <T> PaginatedResult<T> getAll(String collectionName, Integer limit, String startFrom, Class<T> cls) {
+        return read(new PageKey(collectionName, null, limit, startFrom, cls), () -> sdk.getAll(collectionName, limit, startFrom, cls));
+    }
+
+    public <T> PaginatedResult<T> query(String collectionName, KeyedPredicate predicate, Class<T> cls, Integer limit, String startFrom) {
+        return read(new PageKey(collectionName, predicate.getKey(), limit, startFrom, cls),
+                () -> sdk.query(collectionName, predicate.toQuery(), cls, limit, startFrom));
+    }
+
+    /**
+     * Sends the query to the server uncached, since its predicate can't be turned into a key.
+     */
+    public <T> PaginatedResult<T> query(String collectionName, Query query, Class<T> cls, Integer limit, String startFrom) {
+        uncacheable.increment();
+        return sdk.query(collectionName, query, cls, limit, startFrom);
+    }
+
+    /**
+     * Returns the cached page or loads it, caching it unless its collection was written meanwhile.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> PaginatedResult<T> read(PageKey key, Supplier<PaginatedResult<T>> load) {
+        Optional<PaginatedResult<?>> cached = pages.get(key);
+        if (cached.isPresent()) {
+            return (PaginatedResult<T>) cached.get();
+        }
+        AtomicLong generation = generation(key.getCollectionName());
+        long before = generation.get();
+        PaginatedResult<T> page = load.get();
+        synchronized (generation) {
+            if (page != null && generation.get() == before) {
+                pages.put(key, page);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Runs a write to the collection, then drops its cached pages, also when the write fails: it may have been applied.
+     */
+    public <T> T write(String collectionName, Supplier<T> write) {
+        AtomicLong generation = generation(collectionName);
+        generation.incrementAndGet();
+        try {
+            return write.get();
+        } finally {
+            synchronized (generation) {
+                generation.incrementAndGet();
+                invalidate(collectionName);
+            }
+        }
+    }
+
+    public void invalidate(String collectionName) {
+        invalidations.increment();
+        pages.invalidateIf(k -> k.getCollectionName().equals(collectionName));
+    }
+
+    public CacheStats stats() {
+        return pages.stats();
+    }
+
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    /**
+     * Queries sent to the server uncached because they were not built from a {@link KeyedPredicate}.
+     */
+    public long getUncacheable() {
+        return uncacheable.sum();
+    }
+
+    public int size() {
+        return pages.size();
+    }
+
+    private AtomicLong generation(String collectionName) {
+        return generations.computeIfAbsent(collectionName, c -> new AtomicLong());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s invalidations=%d uncacheable=%d size=%d", stats(), getInvalidations(), getUncacheable(), size());
+    }
+}
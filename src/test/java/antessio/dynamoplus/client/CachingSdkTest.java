@@ -0,0 +1,150 @@
+package antessio.dynamoplus.client;
+
+import antessio.dynamoplus.sdk.PaginatedResult;
+import antessio.dynamoplus.sdk.SDKV2;
+import antessio.dynamoplus.sdk.domain.conditions.PredicateBuilder;
+import antessio.dynamoplus.sdk.domain.document.query.Query;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CachingSdkTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final SDKV2 server = new SDKV2() {
+        @Override
+        public <T> PaginatedResult<T> query(String collectionName, Query query, Class<T> cls, Integer limit, String startFrom) {
+            loads.incrementAndGet();
+            return page(Collections.emptyList());
+        }
+    };
+    private final CachingSdk sdk = new CachingSdk(server, Duration.ofMinutes(1), 100);
+
+    private static CachingSdk.PageKey key(String collection, String startFrom) {
+        return new CachingSdk.PageKey(collection, "{\"eq\":{\"field_name\":\"author\"}}", 10, startFrom, String.class);
+    }
+
+    private PaginatedResult<String> load() {
+        loads.incrementAndGet();
+        return page(Collections.singletonList("page-" + loads.get()));
+    }
+
+    private static <T> PaginatedResult<T> page(List<T> data) {
+        return new PaginatedResult<T>() {
+            @Override
+            public List<T> getData() {
+                return data;
+            }
+
+            @Override
+            public Boolean getHasMore() {
+                return false;
+            }
+
+            @Override
+            public String getLastKey() {
+                return null;
+            }
+        };
+    }
+
+    @DisplayName("Repeated reads of the same page are served from the cache")
+    @Test
+    void cachesPages() {
+        PaginatedResult<String> first = sdk.read(key("book", null), this::load);
+        PaginatedResult<String> second = sdk.read(key("book", null), this::load);
+        sdk.read(key("book", "cursor"), this::load);
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(sdk.stats()).matches(s -> s.getHits() == 1 && s.getMisses() == 2);
+    }
+
+    @DisplayName("A write drops the cached pages of its collection only")
+    @Test
+    void invalidatesOnWrite() {
+        sdk.read(key("book", null), this::load);
+        sdk.read(key("category", null), this::load);
+
+        sdk.write("book", () -> "created");
+        sdk.read(key("book", null), this::load);
+        sdk.read(key("category", null), this::load);
+
+        assertThat(loads.get()).isEqualTo(3);
+        assertThat(sdk.getInvalidations()).isEqualTo(1);
+    }
+
+    @DisplayName("A failed write invalidates too, it may have been applied")
+    @Test
+    void invalidatesOnFailedWrite() {
+        sdk.read(key("book", null), this::load);
+
+        assertThatThrownBy(() -> sdk.write("book", () -> {
+            throw new IllegalStateException("timeout");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(sdk.size()).isZero();
+    }
+
+    @DisplayName("A page loaded while its collection is written is not cached")
+    @Test
+    void doesNotCachePagesRacingWrites() {
+        sdk.read(key("book", null), () -> {
+            sdk.write("book", () -> "created");
+            return load();
+        });
+
+        assertThat(sdk.size()).isZero();
+    }
+
+    @DisplayName("Queries with different predicates are cached under different keys")
+    @Test
+    void keysQueriesByPredicate() {
+        KeyedPredicate pulp = KeyedPredicate.eq("category.name", "pulp");
+        KeyedPredicate pulpByRating = KeyedPredicate.and(pulp, KeyedPredicate.range("rating", "07", "09"));
+
+        PaginatedResult<String> first = sdk.query("book", KeyedPredicate.eq("author", "Herbert"), String.class, 10, null);
+        PaginatedResult<String> again = sdk.query("book", KeyedPredicate.eq("author", "Herbert"), String.class, 10, null);
+        PaginatedResult<String> other = sdk.query("book", KeyedPredicate.eq("author", "Tolkien"), String.class, 10, null);
+        sdk.query("book", KeyedPredicate.eq("title", "Herbert"), String.class, 10, null);
+        sdk.query("book", pulp, String.class, 10, null);
+        sdk.query("book", pulpByRating, String.class, 10, null);
+        sdk.query("book", KeyedPredicate.and(KeyedPredicate.eq("category.name", "pulp"), KeyedPredicate.range("rating", "07", "09")),
+                String.class, 10, null);
+
+        assertThat(again).isSameAs(first);
+        assertThat(other).isNotSameAs(first);
+        assertThat(loads.get()).isEqualTo(5);
+        assertThat(sdk.size()).isEqualTo(5);
+        assertThat(sdk.getUncacheable()).isZero();
+    }
+
+    @DisplayName("Predicates are keyed by their JSON")
+    @Test
+    void keysPredicatesByJson() {
+        assertThat(KeyedPredicate.and(KeyedPredicate.eq("category.name", "pulp"), KeyedPredicate.range("rating", "07", "09")).getKey())
+                .isEqualTo("{\"and\":[{\"eq\":{\"field_name\":\"category.name\",\"value\":\"pulp\"}},"
+                        + "{\"range\":{\"field_name\":\"rating\",\"from\":\"07\",\"to\":\"09\"}}]}");
+        assertThat(KeyedPredicate.eq("author", "a\",\"b").getKey()).isNotEqualTo(KeyedPredicate.eq("author\",\"a", "b").getKey());
+    }
+
+    @DisplayName("Plain SDK queries go to the server uncached")
+    @Test
+    void doesNotCachePlainQueries() {
+        Query query = new Query(new PredicateBuilder().withEq("author", "Herbert"));
+
+        sdk.query("book", query, String.class, 10, null);
+        sdk.query("book", query, String.class, 10, null);
+
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(sdk.getUncacheable()).isEqualTo(2);
+        assertThat(sdk.size()).isZero();
+    }
+}
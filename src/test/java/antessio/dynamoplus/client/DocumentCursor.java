@@ -0,0 +1,135 @@
+package antessio.dynamoplus.client;
+
+import antessio.dynamoplus.sdk.PaginatedResult;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Iterates over every document of a paginated result, following the {@code lastKey} cursor.
+ * <p>
+ * A background task fetches the next pages while the caller is consuming the current one, staying at most
+ * {@code prefetchDepth} pages ahead: memory is bounded by {@code (prefetchDepth + 2) * pageSize} documents.
+ * Anything thrown while fetching, {@link Error}s included, is rethrown by {@link #hasNext()}. Close the cursor when
+ * stopping early.
+ */
+public class DocumentCursor<T> implements Iterator<T>, AutoCloseable {
+
+    private static final Object END = new Object();
+
+    private final BlockingQueue<Object> pages;
+    private final Future<?> producer;
+    private Iterator<T> current = Collections.emptyIterator();
+    private boolean finished;
+    private long pagesRead;
+    private long documentsRead;
+
+    DocumentCursor(PageFetcher<T> fetcher, int pageSize, int prefetchDepth, ExecutorService executor) {
+        if (prefetchDepth < 1) {
+            throw new IllegalArgumentException("prefetchDepth must be at least 1");
+        }
+        this.pages = new ArrayBlockingQueue<>(prefetchDepth);
+        this.producer = executor.submit(() -> produce(fetcher, pageSize));
+    }
+
+    /**
+     * Queues the pages, then a terminal element: {@code END} or whatever was thrown, so that the consumer never waits
+     * for a page that will not come.
+     */
+    private void produce(PageFetcher<T> fetcher, int pageSize) {
+        Object terminal = END;
+        boolean interrupted = false;
+        try {
+            String cursor = null;
+            do {
+                PaginatedResult<T> page = fetcher.fetch(cursor, pageSize);
+                pages.put(page);
+                cursor = Boolean.TRUE.equals(page.getHasMore()) ? page.getLastKey() : null;
+            } while (cursor != null);
+        } catch (InterruptedException e) {
+            interrupted = true;
+            terminal = new IllegalStateException("interrupted while prefetching", e);
+        } catch (Throwable e) {
+            terminal = e;
+        } finally {
+            // close() clears the queue right after interrupting, so there is room for the terminal element
+            interrupted |= Thread.interrupted();
+            try {
+                pages.put(terminal);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            if (finished) {
+                return false;
+            }
+            Object next = take();
+            if (next == END) {
+                finished = true;
+                return false;
+            }
+            if (next instanceof Throwable) {
+                finished = true;
+                throw propagate((Throwable) next);
+            }
+            List<T> data = ((PaginatedResult<T>) next).getData();
+            current = data == null ? Collections.emptyIterator() : data.iterator();
+            pagesRead++;
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        documentsRead++;
+        return current.next();
+    }
+
+    public long getPagesRead() {
+        return pagesRead;
+    }
+
+    public long getDocumentsRead() {
+        return documentsRead;
+    }
+
+    @Override
+    public void close() {
+        finished = true;
+        current = Collections.emptyIterator();
+        producer.cancel(true);
+        pages.clear();
+    }
+
+    private static RuntimeException propagate(Throwable e) {
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        return e instanceof RuntimeException ? (RuntimeException) e : new IllegalStateException(e);
+    }
+
+    private Object take() {
+        try {
+            return pages.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new IllegalStateException("interrupted while waiting for the next page", e);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package antessio.dynamoplus.client;
+
+import antessio.dynamoplus.sdk.PaginatedResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+public class DocumentCursorTest {
+
+    private static PaginatedResult<Integer> page(List<Integer> data, String lastKey) {
+        return new PaginatedResult<Integer>() {
+            @Override
+            public List<Integer> getData() {
+                return data;
+            }
+
+            @Override
+            public Boolean getHasMore() {
+                return lastKey != null;
+            }
+
+            @Override
+            public String getLastKey() {
+                return lastKey;
+            }
+        };
+    }
+
+    private static PageFetcher<Integer> numbers(int total, AtomicInteger fetches) {
+        return (cursor, pageSize) -> {
+            fetches.incrementAndGet();
+            int from = cursor == null ? 0 : Integer.parseInt(cursor) + 1;
+            int to = Math.min(total, from + pageSize);
+            List<Integer> data = IntStream.range(from, to).boxed().collect(Collectors.toList());
+            return page(data, to < total ? String.valueOf(to - 1) : null);
+        };
+    }
+
+    @DisplayName("All the documents are returned in order across pages")
+    @Test
+    void followsTheCursor() {
+        AtomicInteger fetches = new AtomicInteger();
+        DocumentCursor<Integer> cursor = DocumentStreams.cursor(numbers(25, fetches), 10, 2);
+
+        try (Stream<Integer> stream = DocumentStreams.stream(cursor)) {
+            assertThat(stream.collect(Collectors.toList()))
+                    .containsExactlyElementsOf(IntStream.range(0, 25).boxed().collect(Collectors.toList()));
+        }
+        assertThat(cursor.getPagesRead()).isEqualTo(3);
+        assertThat(fetches.get()).isEqualTo(3);
+    }
+
+    @DisplayName("The prefetcher never runs more than prefetchDepth pages ahead")
+    @Test
+    void boundsPrefetching() throws InterruptedException {
+        AtomicInteger fetches = new AtomicInteger();
+        CountDownLatch fourthFetch = new CountDownLatch(4);
+        CountDownLatch fifthFetch = new CountDownLatch(5);
+        PageFetcher<Integer> numbers = numbers(1000, fetches);
+        PageFetcher<Integer> counted = (cursor, pageSize) -> {
+            fourthFetch.countDown();
+            fifthFetch.countDown();
+            return numbers.fetch(cursor, pageSize);
+        };
+        try (DocumentCursor<Integer> cursor = DocumentStreams.cursor(counted, 10, 2)) {
+            cursor.next();
+            // the page being consumed, two queued pages and one blocked on the queue
+            assertThat(fourthFetch.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(fifthFetch.await(200, TimeUnit.MILLISECONDS)).isFalse();
+            assertThat(fetches.get()).isEqualTo(4);
+        }
+    }
+
+    @DisplayName("Fetch errors are rethrown to the consumer")
+    @Test
+    void propagatesErrors() {
+        PageFetcher<Integer> failing = (cursor, pageSize) -> {
+            if (cursor != null) {
+                throw new IllegalStateException("boom");
+            }
+            return page(IntStream.range(0, pageSize).boxed().collect(Collectors.toList()), "9");
+        };
+        try (DocumentCursor<Integer> cursor = DocumentStreams.cursor(failing, 10, 1)) {
+            for (int i = 0; i < 10; i++) {
+                cursor.next();
+            }
+            assertThatThrownBy(cursor::hasNext).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+        }
+    }
+
+    @DisplayName("Errors thrown while fetching reach the consumer instead of leaving it waiting")
+    @Test
+    void propagatesErrorsThrownByTheFetcher() {
+        PageFetcher<Integer> failing = (cursor, pageSize) -> {
+            throw new NoClassDefFoundError("antessio/dynamoplus/sdk/Missing");
+        };
+        try (DocumentCursor<Integer> cursor = DocumentStreams.cursor(failing, 10, 1)) {
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () ->
+                    assertThatThrownBy(cursor::hasNext).isInstanceOf(NoClassDefFoundError.class));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package antessio.dynamoplus.client;
+
+import antessio.dynamoplus.sdk.SDKV2;
+import antessio.dynamoplus.sdk.domain.document.query.Query;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streaming, prefetching access to {@link SDKV2#getAll} and {@link SDKV2#query} results.
+ * <pre>
+ * try (Stream&lt;Book&gt; books = DocumentStreams.getAll(sdk, "book", Book.class, 100, 2)) {
+ *     books.forEach(...);
+ * }
+ * </pre>
+ */
+public final class DocumentStreams {
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int DEFAULT_PREFETCH_DEPTH = 2;
+
+    private static final ExecutorService PREFETCHERS = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "dynamoplus-prefetch");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private DocumentStreams() {
+    }
+
+    public static <T> DocumentCursor<T> getAllCursor(SDKV2 sdk, String collectionName, Class<T> cls, int pageSize, int prefetchDepth) {
+        return cursor((cursor, limit) -> sdk.getAll(collectionName, limit, cursor, cls), pageSize, prefetchDepth);
+    }
+
+    public static <T> DocumentCursor<T> queryCursor(SDKV2 sdk, String collectionName, Query query, Class<T> cls, int pageSize, int prefetchDepth) {
+        return cursor((cursor, limit) -> sdk.query(collectionName, query, cls, limit, cursor), pageSize, prefetchDepth);
+    }
+
+    public static <T> DocumentCursor<T> cursor(PageFetcher<T> fetcher, int pageSize, int prefetchDepth) {
+        return new DocumentCursor<>(fetcher, pageSize, prefetchDepth, PREFETCHERS);
+    }
+
+    public static <T> Stream<T> getAll(SDKV2 sdk, String collectionName, Class<T> cls, int pageSize, int prefetchDepth) {
+        return stream(getAllCursor(sdk, collectionName, cls, pageSize, prefetchDepth));
+    }
+
+    public static <T> Stream<T> query(SDKV2 sdk, String collectionName, Query query, Class<T> cls, int pageSize, int prefetchDepth) {
+        return stream(queryCursor(sdk, collectionName, query, cls, pageSize, prefetchDepth));
+    }
+
+    /**
+     * A sequential stream over the cursor; closing the stream closes the cursor.
+     */
+    public static <T> Stream<T> stream(DocumentCursor<T> cursor) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(cursor::close);
+    }
+}
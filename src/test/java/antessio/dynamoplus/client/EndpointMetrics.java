@@ -0,0 +1,23 @@
+package antessio.dynamoplus.client;
+
+import antessio.dynamoplus.perf.LatencySummary;
+import antessio.dynamoplus.protocol.AuthType;
+import lombok.Value;
+
+import java.util.Map;
+
+/**
+ * Requests of one operation issued with one authentication scheme.
+ */
+@Value
+public class EndpointMetrics {
+
+    String operation;
+    AuthType authType;
+    long count;
+    LatencySummary latency;
+    double totalSeconds;
+    long requestBytes;
+    long responseBytes;
+    Map<Integer, Long> statuses;
+}
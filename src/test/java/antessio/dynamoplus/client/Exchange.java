@@ -0,0 +1,53 @@
+package antessio.dynamoplus.client;
+
+import antessio.dynamoplus.protocol.AuthType;
+import antessio.dynamoplus.protocol.Endpoint;
+import lombok.Value;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A request relayed by the {@link Gateway}, with the response it got.
+ */
+@Value
+public class Exchange {
+
+    long timestampMillis;
+    String method;
+    String path;
+    /**
+     * Raw query string, {@code null} when missing.
+     */
+    String rawQuery;
+    Map<String, List<String>> requestHeaders;
+    byte[] requestBody;
+    /**
+     * HTTP status, {@code 502} when the server couldn't be reached.
+     */
+    int status;
+    byte[] responseBody;
+    /**
+     * Time spent upstream, from the moment the gateway has read the request to the moment it has read the response.
+     */
+    long durationNanos;
+
+    /**
+     * Case-insensitive lookup of the first value of a request header.
+     */
+    public String header(String name) {
+        return requestHeaders.entrySet().stream()
+                .filter(e -> e.getKey().equalsIgnoreCase(name))
+                .flatMap(e -> e.getValue().stream())
+                .findFirst()
+                .orElse(null);
+    }
+
+    public Endpoint getEndpoint() {
+        return Endpoint.resolve(method, path);
+    }
+
+    public AuthType getAuthType() {
+        return AuthType.detect(this::header);
+    }
+}
@@ -0,0 +1,207 @@
+package antessio.dynamoplus.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Loopback relay between the SDK clients and DynamoPlus.
+ * <p>
+ * {@code OkHttpSdkHttpClient} builds a private {@code OkHttpClient} for every SDK instance, so connections to the
+ * server can't be shared directly. Pointing the clients at the gateway instead makes all of them reach the server
+ * through one {@link SharedTransport}: a single pool of keep-alive (or HTTP/2) connections and TLS sessions, whatever
+ * the number of credential providers. Each client still keeps its own loopback connections to the gateway, and every
+ * body is buffered once more on the way: the gateway pays off against a remote server, where upstream handshakes are
+ * expensive, not against a local one.
+ * <p>
+ * Credentials are forwarded untouched. The {@code Host} header is rewritten to the authority of the upstream, as servers
+ * routing by virtual host (API Gateway, CloudFront, an ingress) expect, so HTTP signatures covering {@code host} (the
+ * one of the gateway, which the clients are pointed at) don't verify against a remote server: clients signing
+ * {@code host} must not go through the gateway. Against a loopback upstream (a local installation or the stand-in),
+ * where no routing depends on it, the {@code Host} of the client is kept and such signatures verify.
+ * <p>
+ * Being on the path of every request, the gateway is also where requests are observed: see {@link GatewayListener}.
+ */
+public class Gateway {
+
+    private static final Set<String> HOP_BY_HOP = new HashSet<>(Arrays.asList(
+            "connection", "keep-alive", "proxy-connection", "transfer-encoding", "te", "trailer", "upgrade",
+            "content-length"));
+
+    private final HttpUrl upstream;
+    private final boolean forwardsHost;
+    private final SharedTransport transport;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final List<GatewayListener> listeners = new CopyOnWriteArrayList<>();
+
+    private Gateway(String upstream, SharedTransport transport) throws IOException {
+        this.upstream = HttpUrl.get(upstream);
+        this.forwardsHost = forwardsHost(this.upstream);
+        this.transport = transport;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        // more threads would only wait for the permits of the transport: further exchanges queue here instead
+        this.executor = Executors.newFixedThreadPool(transport.getSettings().getMaxRequests(), r -> {
+            Thread t = new Thread(r, "dynamoplus-gateway");
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    /**
+     * Starts a gateway on an ephemeral loopback port, forwarding to {@code upstream}.
+     */
+    public static Gateway start(String upstream, SharedTransport transport) {
+        try {
+            Gateway gateway = new Gateway(upstream, transport);
+            // as for the stand-in, a daemon dispatcher thread lets the JVM exit without an explicit stop()
+            Thread starter = new Thread(gateway.server::start);
+            starter.setDaemon(true);
+            starter.start();
+            starter.join();
+            return gateway;
+        } catch (IOException e) {
+            throw new IllegalStateException("unable to start the gateway", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while starting the gateway", e);
+        }
+    }
+
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public String getUpstream() {
+        return upstream.toString();
+    }
+
+    public SharedTransport getTransport() {
+        return transport;
+    }
+
+    public Gateway addListener(GatewayListener listener) {
+        listeners.add(listener);
+        return this;
+    }
+
+    public void removeListener(GatewayListener listener) {
+        listeners.remove(listener);
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long timestamp = System.currentTimeMillis();
+        long start = System.nanoTime();
+        byte[] requestBody = new byte[0];
+        int status = 502;
+        byte[] responseBody = new byte[0];
+        try {
+            requestBody = readBody(exchange.getRequestBody());
+            try (Response response = transport.execute(toUpstream(exchange, requestBody))) {
+                status = response.code();
+                responseBody = response.body() == null ? new byte[0] : response.body().bytes();
+                response.headers().names().stream()
+                        .filter(name -> !HOP_BY_HOP.contains(name.toLowerCase()))
+                        .forEach(name -> exchange.getResponseHeaders().put(name, response.headers(name)));
+            }
+        } catch (IOException e) {
+            status = 502;
+            responseBody = String.valueOf(e.getMessage()).getBytes();
+        }
+        long duration = System.nanoTime() - start;
+        try {
+            send(exchange, status, responseBody);
+        } finally {
+            exchange.close();
+            notify(new Exchange(
+                    timestamp,
+                    exchange.getRequestMethod(),
+                    exchange.getRequestURI().getRawPath(),
+                    exchange.getRequestURI().getRawQuery(),
+                    exchange.getRequestHeaders(),
+                    requestBody,
+                    status,
+                    responseBody,
+                    duration));
+        }
+    }
+
+    private void notify(Exchange exchange) {
+        for (GatewayListener listener : listeners) {
+            try {
+                listener.onExchange(exchange);
+            } catch (RuntimeException e) {
+                System.err.println("gateway listener " + listener + " failed: " + e);
+            }
+        }
+    }
+
+    private Request toUpstream(HttpExchange exchange, byte[] body) {
+        String method = exchange.getRequestMethod();
+        String rawQuery = exchange.getRequestURI().getRawQuery();
+        HttpUrl url = upstream.newBuilder()
+                .encodedPath(exchange.getRequestURI().getRawPath())
+                .encodedQuery(rawQuery)
+                .build();
+        Request.Builder request = new Request.Builder().url(url);
+        exchange.getRequestHeaders().forEach((name, values) -> {
+            // without a Host header, OkHttp sends the authority of the upstream
+            if (!HOP_BY_HOP.contains(name.toLowerCase()) && (forwardsHost || !name.equalsIgnoreCase("host"))) {
+                values.forEach(value -> request.addHeader(name, value));
+            }
+        });
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        boolean hasBody = body.length > 0 || method.equals("POST") || method.equals("PUT") || method.equals("PATCH");
+        return request.method(method, hasBody
+                ? RequestBody.create(contentType == null ? null : MediaType.parse(contentType), body)
+                : null)
+                .build();
+    }
+
+    /**
+     * Whether the {@code Host} of the clients is kept: only for loopback upstreams, recognized by name without resolving it.
+     */
+    static boolean forwardsHost(HttpUrl upstream) {
+        String host = upstream.host();
+        return host.equals("localhost") || host.startsWith("127.") || host.equals("::1");
+    }
+
+    private static byte[] readBody(InputStream in) throws IOException {
+        byte[] buffer = new byte[8192];
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        if (exchange.getRequestMethod().equals("HEAD") || body.length == 0) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
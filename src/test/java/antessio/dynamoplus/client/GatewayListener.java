@@ -0,0 +1,11 @@
+package antessio.dynamoplus.client;
+
+/**
+ * Observes every request relayed by the {@link Gateway}. Called on the gateway thread once the response has been
+ * sent back to the client: implementations must be thread-safe and should be quick.
+ */
+@FunctionalInterface
+public interface GatewayListener {
+
+    void onExchange(Exchange exchange);
+}
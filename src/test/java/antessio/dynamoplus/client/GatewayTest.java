@@ -0,0 +1,143 @@
+package antessio.dynamoplus.client;
+
+import antessio.dynamoplus.Clients;
+import antessio.dynamoplus.protocol.AuthType;
+import antessio.dynamoplus.protocol.HttpSignatures;
+import antessio.dynamoplus.protocol.Wire;
+import antessio.dynamoplus.standin.StandInServer;
+import okhttp3.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GatewayTest {
+
+    private final StandInServer standIn = StandInServer.start("root", "12345");
+    private final Gateway gateway = Gateway.start(standIn.getBaseUrl(), new SharedTransport(TransportSettings.builder().build()));
+
+    @AfterEach
+    void tearDown() {
+        gateway.stop();
+        standIn.stop();
+    }
+
+    @DisplayName("Requests of different clients are forwarded over the same upstream connection")
+    @Test
+    void sharesUpstreamConnections() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            // a new client per request: each one opens its own connection to the gateway
+            OkHttpClient client = new OkHttpClient();
+            Request request = new Request.Builder()
+                    .url(gateway.getBaseUrl() + Wire.BASE_PATH + "/collection")
+                    .header("Authorization", Credentials.basic("root", "12345"))
+                    .post(RequestBody.create(MediaType.parse("application/json"), "{\"name\":\"book_" + i + "\",\"id_key\":\"isbn\"}"))
+                    .build();
+            try (Response response = client.newCall(request).execute()) {
+                assertThat(response.code()).isEqualTo(200);
+                assertThat(response.body().string()).contains("book_" + i);
+            }
+        }
+
+        TransportStats stats = gateway.getTransport().stats();
+        assertThat(stats.getRequests()).isEqualTo(5);
+        assertThat(stats.getNewConnections()).isEqualTo(1);
+        assertThat(stats.getReuseRatio()).isEqualTo(0.8);
+    }
+
+    @DisplayName("Error statuses are relayed as they are")
+    @Test
+    void relaysErrors() throws IOException {
+        Request request = new Request.Builder()
+                .url(gateway.getBaseUrl() + Wire.BASE_PATH + "/collection")
+                .header("Authorization", Credentials.basic("root", "wrong"))
+                .get()
+                .build();
+        try (Response response = new OkHttpClient().newCall(request).execute()) {
+            assertThat(response.code()).isIn(401, 403);
+        }
+    }
+
+    @DisplayName("Requests are measured by operation, authentication scheme and status")
+    @Test
+    void measuresRequests() throws IOException {
+        RequestMetrics metrics = new RequestMetrics();
+        gateway.addListener(metrics);
+        OkHttpClient client = new OkHttpClient();
+        for (String password : new String[]{"12345", "12345", "wrong"}) {
+            Request request = new Request.Builder()
+                    .url(gateway.getBaseUrl() + Wire.BASE_PATH + "/collection")
+                    .header("Authorization", Credentials.basic("root", password))
+                    .get()
+                    .build();
+            client.newCall(request).execute().close();
+        }
+
+        List<EndpointMetrics> snapshot = metrics.snapshot();
+        assertThat(snapshot).hasSize(1);
+        EndpointMetrics getAllCollections = snapshot.get(0);
+        assertThat(getAllCollections.getOperation()).isEqualTo("getAllCollections");
+        assertThat(getAllCollections.getAuthType()).isEqualTo(AuthType.basic);
+        assertThat(getAllCollections.getCount()).isEqualTo(3);
+        assertThat(getAllCollections.getStatuses()).containsEntry(200, 2L).hasSize(2);
+        assertThat(getAllCollections.getResponseBytes()).isPositive();
+    }
+
+    @DisplayName("The Host header is only kept for loopback upstreams")
+    @Test
+    void rewritesHostOfRemoteUpstreams() {
+        assertThat(Gateway.forwardsHost(HttpUrl.get(standIn.getBaseUrl()))).isTrue();
+        assertThat(Gateway.forwardsHost(HttpUrl.get("http://localhost:3000"))).isTrue();
+        assertThat(Gateway.forwardsHost(HttpUrl.get("http://[::1]:3000"))).isTrue();
+        assertThat(Gateway.forwardsHost(HttpUrl.get("https://abc123.execute-api.eu-west-1.amazonaws.com/dev"))).isFalse();
+        assertThat(Gateway.forwardsHost(HttpUrl.get("https://dynamoplus.example.com"))).isFalse();
+    }
+
+    @DisplayName("Against a loopback upstream the Host header is kept, so signatures covering it verify")
+    @Test
+    void forwardsHost() throws IOException {
+        OkHttpClient client = new OkHttpClient();
+        Request collection = new Request.Builder()
+                .url(gateway.getBaseUrl() + Wire.BASE_PATH + "/collection")
+                .header("Authorization", Credentials.basic("root", "12345"))
+                .post(RequestBody.create(MediaType.parse("application/json"), "{\"name\":\"book\",\"id_key\":\"isbn\"}"))
+                .build();
+        client.newCall(collection).execute().close();
+        Request authorize = new Request.Builder()
+                .url(gateway.getBaseUrl() + Wire.BASE_PATH + "/client_authorization")
+                .header("Authorization", Credentials.basic("root", "12345"))
+                .post(RequestBody.create(MediaType.parse("application/json"), Wire.MAPPER.createObjectNode()
+                        .put("type", "http_signature")
+                        .put("client_id", "signer")
+                        .put("public_key", Clients.PUBLIC_KEY)
+                        .set("client_scopes", Wire.MAPPER.createArrayNode().add(Wire.MAPPER.createObjectNode()
+                                .put("collection_name", "book").put("scope_type", "QUERY")))
+                        .toString()))
+                .build();
+        client.newCall(authorize).execute().close();
+        List<String> headers = Arrays.asList(HttpSignatures.REQUEST_TARGET, "host", "date");
+        String host = gateway.getBaseUrl().substring("http://".length());
+        String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC));
+        String target = Wire.BASE_PATH + "/book";
+        String signingString = HttpSignatures.signingString("GET", target, headers, h -> h.equals("host") ? host : date);
+        Request signed = new Request.Builder()
+                .url(gateway.getBaseUrl() + target)
+                .header("Date", date)
+                .header("Authorization", HttpSignatures.authorization("signer", "rsa-sha256", headers, signingString,
+                        HttpSignatures.privateKey(Clients.PRIVATE_KEY)))
+                .get()
+                .build();
+
+        try (Response response = client.newCall(signed).execute()) {
+            assertThat(response.code()).isEqualTo(200);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package antessio.dynamoplus.client;
+
+import antessio.dynamoplus.protocol.QueryShape;
+import antessio.dynamoplus.protocol.Wire;
+import antessio.dynamoplus.sdk.domain.conditions.Predicate;
+import antessio.dynamoplus.sdk.domain.conditions.PredicateBuilder;
+import antessio.dynamoplus.sdk.domain.conditions.Range;
+import antessio.dynamoplus.sdk.domain.document.query.Query;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * An SDK predicate built together with its JSON, in the form it travels in
+ * (e.g. {@code {"eq":{"field_name":"author","value":"x"}}}). The predicate classes of the SDK expose nothing to read
+ * back, so {@link CachingSdk} keys the queries by this JSON.
+ */
+public final class KeyedPredicate {
+
+    private final Predicate predicate;
+    private final ObjectNode json;
+
+    private KeyedPredicate(Predicate predicate, ObjectNode json) {
+        this.predicate = predicate;
+        this.json = json;
+    }
+
+    public static KeyedPredicate eq(String fieldName, String value) {
+        ObjectNode json = Wire.MAPPER.createObjectNode();
+        json.putObject(QueryShape.EQ).put("field_name", fieldName).put("value", value);
+        return new KeyedPredicate(new PredicateBuilder().withEq(fieldName, value), json);
+    }
+
+    public static KeyedPredicate range(String fieldName, String from, String to) {
+        ObjectNode json = Wire.MAPPER.createObjectNode();
+        json.putObject(QueryShape.RANGE).put("field_name", fieldName).put("from", from).put("to", to);
+        return new KeyedPredicate(new Range(fieldName, from, to), json);
+    }
+
+    public static KeyedPredicate and(KeyedPredicate... predicates) {
+        return and(Arrays.asList(predicates));
+    }
+
+    public static KeyedPredicate and(List<KeyedPredicate> predicates) {
+        ObjectNode json = Wire.MAPPER.createObjectNode();
+        ArrayNode and = json.putArray(QueryShape.AND);
+        predicates.forEach(p -> and.add(p.json));
+        return new KeyedPredicate(new PredicateBuilder().withAnd(predicates.stream().map(p -> p.predicate).collect(Collectors.toList())), json);
+    }
+
+    public Predicate getPredicate() {
+        return predicate;
+    }
+
+    public Query toQuery() {
+        return new Query(predicate);
+    }
+
+    public String getKey() {
+        return json.toString();
+    }
+
+    @Override
+    public String toString() {
+        return getKey();
+    }
+}
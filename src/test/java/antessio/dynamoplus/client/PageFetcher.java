@@ -0,0 +1,12 @@
+package antessio.dynamoplus.client;
+
+import antessio.dynamoplus.sdk.PaginatedResult;
+
+/**
+ * Fetches the page of results that starts after {@code cursor} ({@code null} for the first page).
+ */
+@FunctionalInterface
+public interface PageFetcher<T> {
+
+    PaginatedResult<T> fetch(String cursor, int pageSize);
+}
@@ -0,0 +1,128 @@
+package antessio.dynamoplus.client;
+
+import antessio.dynamoplus.perf.LatencySummary;
+import antessio.dynamoplus.perf.Reports;
+import antessio.dynamoplus.perf.Settings;
+import antessio.dynamoplus.protocol.AuthType;
+import antessio.dynamoplus.protocol.Operation;
+import lombok.Value;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Latency, payload size and status of the requests relayed by the {@link Gateway}, by logical operation and
+ * authentication scheme. Written at the end of a run as JSON and in the Prometheus text format.
+ * <p>
+ * Latencies are those of the upstream leg only (see {@link Exchange#getDurationNanos()}): they leave out the SDK
+ * (serialization, signing) and the hop between the client and the gateway; client-side latencies are those of the load
+ * tests. {@code Clients} starts the gateway for them unless {@code dynamoplus.requestMetrics=false}.
+ */
+public class RequestMetrics implements GatewayListener {
+
+    private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+
+    private final Map<Key, Metric> metrics = new ConcurrentHashMap<>();
+
+    @Override
+    public void onExchange(Exchange exchange) {
+        metrics.computeIfAbsent(new Key(exchange.getEndpoint().getOperation(), exchange.getAuthType()), k -> new Metric())
+                .record(exchange);
+    }
+
+    public List<EndpointMetrics> snapshot() {
+        return metrics.entrySet().stream()
+                .map(e -> e.getValue().snapshot(e.getKey()))
+                .sorted(Comparator.comparing(EndpointMetrics::getOperation).thenComparing(EndpointMetrics::getAuthType))
+                .collect(Collectors.toList());
+    }
+
+    public Path writeJson(String fileName) {
+        return Reports.writeJson(fileName, snapshot());
+    }
+
+    public Path writePrometheus(String fileName) {
+        StringBuilder out = new StringBuilder();
+        List<EndpointMetrics> snapshot = snapshot();
+        out.append("# HELP dynamoplus_upstream_request_duration_seconds Latency of the requests between the gateway and the server.\n");
+        out.append("# TYPE dynamoplus_upstream_request_duration_seconds summary\n");
+        for (EndpointMetrics m : snapshot) {
+            String labels = labels(m);
+            double[] values = {m.getLatency().getP50(), m.getLatency().getP95(), m.getLatency().getP99()};
+            for (int i = 0; i < QUANTILES.length; i++) {
+                out.append(String.format(Locale.ROOT, "dynamoplus_upstream_request_duration_seconds{%s,quantile=\"%s\"} %s%n",
+                        labels, QUANTILES[i], values[i] / 1000));
+            }
+            out.append(String.format(Locale.ROOT, "dynamoplus_upstream_request_duration_seconds_sum{%s} %s%n", labels, m.getTotalSeconds()));
+            out.append(String.format(Locale.ROOT, "dynamoplus_upstream_request_duration_seconds_count{%s} %d%n", labels, m.getCount()));
+        }
+        out.append("# HELP dynamoplus_upstream_requests_total Requests by HTTP status.\n");
+        out.append("# TYPE dynamoplus_upstream_requests_total counter\n");
+        for (EndpointMetrics m : snapshot) {
+            m.getStatuses().forEach((status, count) -> out.append(String.format(Locale.ROOT,
+                    "dynamoplus_upstream_requests_total{%s,status=\"%d\"} %d%n", labels(m), status, count)));
+        }
+        out.append("# HELP dynamoplus_upstream_request_bytes_total Bytes of the request bodies.\n");
+        out.append("# TYPE dynamoplus_upstream_request_bytes_total counter\n");
+        snapshot.forEach(m -> out.append(String.format(Locale.ROOT, "dynamoplus_upstream_request_bytes_total{%s} %d%n", labels(m), m.getRequestBytes())));
+        out.append("# HELP dynamoplus_upstream_response_bytes_total Bytes of the response bodies.\n");
+        out.append("# TYPE dynamoplus_upstream_response_bytes_total counter\n");
+        snapshot.forEach(m -> out.append(String.format(Locale.ROOT, "dynamoplus_upstream_response_bytes_total{%s} %d%n", labels(m), m.getResponseBytes())));
+        try {
+            Path directory = Settings.outputDirectory();
+            Files.createDirectories(directory);
+            Path file = directory.resolve(fileName);
+            Files.write(file, out.toString().getBytes(StandardCharsets.UTF_8));
+            System.out.println("report written to " + file.toAbsolutePath());
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String labels(EndpointMetrics m) {
+        return String.format("operation=\"%s\",auth=\"%s\"", m.getOperation(), m.getAuthType());
+    }
+
+    @Value
+    private static class Key {
+        Operation operation;
+        AuthType authType;
+    }
+
+    private static class Metric {
+        private final Histogram latency = LatencySummary.newHistogram();
+        private final Map<Integer, Long> statuses = new TreeMap<>();
+        private long totalNanos;
+        private long requestBytes;
+        private long responseBytes;
+
+        synchronized void record(Exchange exchange) {
+            latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(exchange.getDurationNanos()), latency.getHighestTrackableValue()));
+            totalNanos += exchange.getDurationNanos();
+            requestBytes += exchange.getRequestBody().length;
+            responseBytes += exchange.getResponseBody().length;
+            statuses.merge(exchange.getStatus(), 1L, Long::sum);
+        }
+
+        synchronized EndpointMetrics snapshot(Key key) {
+            return new EndpointMetrics(
+                    key.getOperation().getMetricName(),
+                    key.getAuthType(),
+                    latency.getTotalCount(),
+                    LatencySummary.of(latency),
+                    totalNanos / 1e9,
+                    requestBytes,
+                    responseBytes,
+                    new TreeMap<>(statuses));
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package antessio.dynamoplus.client;
+
+import lombok.Value;
+
+/**
+ * What {@link ResilientSdk} did for one operation.
+ */
+@Value
+public class ResilienceMetrics {
+
+    String operation;
+    long calls;
+    long attempts;
+    long retries;
+    long hedges;
+    /**
+     * Calls answered by the hedged request rather than the first one.
+     */
+    long hedgeWins;
+    long budgetExceeded;
+    long failures;
+}
@@ -0,0 +1,88 @@
+package antessio.dynamoplus.client;
+
+import antessio.dynamoplus.perf.Settings;
+import antessio.dynamoplus.protocol.Operation;
+import antessio.dynamoplus.sdk.SdkException;
+import antessio.dynamoplus.sdk.SdkHttpException;
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Timeout budgets, retries and hedging applied by {@link ResilientSdk}.
+ */
+@Value
+@Builder
+public class ResiliencePolicy {
+
+    /**
+     * Server errors, throttling and failures that didn't get an HTTP response.
+     */
+    public static final Predicate<RuntimeException> TRANSIENT = e -> {
+        if (e instanceof SdkHttpException) {
+            int code = ((SdkHttpException) e).getHttpCode();
+            return code >= 500 || code == 429;
+        }
+        return e instanceof SdkException || e instanceof UncheckedIOException;
+    };
+
+    /**
+     * Overall time allowed to a call, retries and hedges included.
+     */
+    @Builder.Default
+    Duration defaultBudget = Duration.ofSeconds(10);
+    @Singular
+    Map<Operation, Duration> budgets;
+    /**
+     * Attempts of idempotent calls; other calls are attempted once.
+     */
+    @Builder.Default
+    int maxAttempts = 3;
+    @Builder.Default
+    Duration initialBackoff = Duration.ofMillis(50);
+    @Builder.Default
+    Duration maxBackoff = Duration.ofSeconds(2);
+    @Builder.Default
+    double backoffMultiplier = 2;
+    @Builder.Default
+    Predicate<RuntimeException> retryable = TRANSIENT;
+    /**
+     * Sends a second, identical read when the first one is slower than {@code hedgePercentile} of the latencies seen
+     * so far for the operation; the first response wins.
+     */
+    @Builder.Default
+    boolean hedging = false;
+    @Builder.Default
+    double hedgePercentile = 95;
+    /**
+     * Hedging delay used until enough latencies have been seen, and lower bound of the computed one.
+     */
+    @Builder.Default
+    Duration minHedgeDelay = Duration.ofMillis(50);
+
+    /**
+     * The policy set by the {@code resilience.*} system properties: {@code budget}, {@code maxAttempts},
+     * {@code initialBackoff}, {@code maxBackoff}, {@code hedging}, {@code hedgePercentile} and {@code minHedgeDelay}.
+     */
+    public static ResiliencePolicy fromSettings() {
+        ResiliencePolicy defaults = ResiliencePolicy.builder().build();
+        return ResiliencePolicy.builder()
+                .defaultBudget(Settings.duration("resilience.budget", defaults.getDefaultBudget()))
+                .maxAttempts(Settings.integer("resilience.maxAttempts", defaults.getMaxAttempts()))
+                .initialBackoff(Settings.duration("resilience.initialBackoff", defaults.getInitialBackoff()))
+                .maxBackoff(Settings.duration("resilience.maxBackoff", defaults.getMaxBackoff()))
+                .hedging(Settings.bool("resilience.hedging", defaults.isHedging()))
+                .hedgePercentile(Settings.decimal("resilience.hedgePercentile", defaults.getHedgePercentile()))
+                .minHedgeDelay(Settings.duration("resilience.minHedgeDelay", defaults.getMinHedgeDelay()))
+                .build();
+    }
+
+    public Duration budget(Operation operation) {
+        return budgets.getOrDefault(operation, defaultBudget);
+    }
+}
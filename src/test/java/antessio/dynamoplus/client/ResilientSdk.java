@@ -0,0 +1,264 @@
+package antessio.dynamoplus.client;
+
+import antessio.dynamoplus.perf.LatencySummary;
+import antessio.dynamoplus.protocol.Operation;
+import antessio.dynamoplus.sdk.PaginatedResult;
+import antessio.dynamoplus.sdk.SDKV2;
+import antessio.dynamoplus.sdk.domain.document.query.Query;
+import antessio.dynamoplus.sdk.domain.system.clientauthorization.ClientAuthorizationApiKey;
+import antessio.dynamoplus.sdk.domain.system.clientauthorization.ClientAuthorizationHttpSignature;
+import antessio.dynamoplus.sdk.domain.system.collection.Collection;
+import antessio.dynamoplus.sdk.domain.system.index.Index;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * {@link SDKV2} calls under a {@link ResiliencePolicy}: every call must complete within the budget of its operation,
+ * idempotent calls (reads) are retried with exponential backoff and, when hedging is enabled, duplicated once they
+ * are slower than usual. Writes are never retried nor duplicated.
+ * <p>
+ * Attempts run on a pool of daemon threads. A call given up because of its budget can't be interrupted: its thread
+ * stays blocked until the SDK read timeout.
+ */
+public class ResilientSdk {
+
+    private static final int MIN_SAMPLES_FOR_HEDGING = 20;
+
+    private final SDKV2 sdk;
+    private final ResiliencePolicy policy;
+    private final ExecutorService executor;
+    private final Map<Operation, Stats> stats = new ConcurrentHashMap<>();
+
+    public ResilientSdk(SDKV2 sdk, ResiliencePolicy policy) {
+        this.sdk = sdk;
+        this.policy = policy;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "dynamoplus-resilient-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public Collection createCollection(Collection collection) {
+        return call(Operation.CREATE_COLLECTION, () -> sdk.createCollection(collection));
+    }
+
+    public PaginatedResult<Collection> getAllCollections() {
+        return call(Operation.GET_ALL_COLLECTIONS, sdk::getAllCollections);
+    }
+
+    public Index createIndex(Index index) {
+        return call(Operation.CREATE_INDEX, () -> sdk.createIndex(index));
+    }
+
+    public ClientAuthorizationApiKey createClientAuthorizationApiKey(ClientAuthorizationApiKey clientAuthorization) {
+        return call(Operation.CREATE_CLIENT_AUTHORIZATION, () -> sdk.createClientAuthorizationApiKey(clientAuthorization));
+    }
+
+    public ClientAuthorizationHttpSignature createClientAuthorizationHttpSignature(ClientAuthorizationHttpSignature clientAuthorization) {
+        return call(Operation.CREATE_CLIENT_AUTHORIZATION, () -> sdk.createClientAuthorizationHttpSignature(clientAuthorization));
+    }
+
+    public ClientAuthorizationApiKey getClientAuthorizationApiKey(String clientId) {
+        return call(Operation.GET_CLIENT_AUTHORIZATION, () -> sdk.getClientAuthorizationApiKey(clientId));
+    }
+
+    public <T> T createDocument(String collectionName, T document, Class<T> cls) {
+        return call(Operation.CREATE_DOCUMENT, () -> sdk.createDocument(collectionName, document, cls));
+    }
+
+    public void deleteDocument(String id, String collectionName) {
+        call(Operation.DELETE_DOCUMENT, () -> {
+            sdk.deleteDocument(id, collectionName);
+            return null;
+        });
+    }
+
+    public <T> PaginatedResult<T> getAll(String collectionName, Integer limit, String startFrom, Class<T> cls) {
+        return call(Operation.GET_ALL, () -> sdk.getAll(collectionName, limit, startFrom, cls));
+    }
+
+    public <T> PaginatedResult<T> query(String collectionName, Query query, Class<T> cls, Integer limit, String startFrom) {
+        return call(Operation.QUERY, () -> sdk.query(collectionName, query, cls, limit, startFrom));
+    }
+
+    /**
+     * Runs {@code call} as the given operation: retries and hedging only apply to idempotent operations.
+     */
+    public <T> T call(Operation operation, Supplier<T> call) {
+        Stats s = stats.computeIfAbsent(operation, o -> new Stats());
+        s.calls.increment();
+        Duration budget = policy.budget(operation);
+        long deadline = System.nanoTime() + budget.toNanos();
+        int maxAttempts = operation.isIdempotent() ? Math.max(1, policy.getMaxAttempts()) : 1;
+        long backoff = policy.getInitialBackoff().toNanos();
+        RuntimeException last = null;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            if (attempt > 1) {
+                s.retries.increment();
+            }
+            try {
+                return attempt(operation, s, call, deadline);
+            } catch (BudgetExceededException e) {
+                s.budgetExceeded.increment();
+                throw new BudgetExceededException(operation, budget, last);
+            } catch (RuntimeException e) {
+                last = e;
+                if (attempt == maxAttempts || !policy.getRetryable().test(e)) {
+                    s.failures.increment();
+                    throw e;
+                }
+            }
+            long pause = Math.min(backoff, deadline - System.nanoTime());
+            if (pause <= 0) {
+                break;
+            }
+            sleep(ThreadLocalRandom.current().nextLong(pause / 2, pause + 1));
+            backoff = Math.min((long) (backoff * policy.getBackoffMultiplier()), policy.getMaxBackoff().toNanos());
+        }
+        s.budgetExceeded.increment();
+        throw new BudgetExceededException(operation, budget, last);
+    }
+
+    /**
+     * With hedging, the hedge is counted as pending before waiting for the hedge delay: a primary failing in the
+     * meantime leaves the attempt to the hedge instead of failing it, and the failure is only reported when no hedge
+     * is launched.
+     */
+    private <T> T attempt(Operation operation, Stats s, Supplier<T> call, long deadline) {
+        boolean hedging = policy.isHedging() && operation.isIdempotent();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(hedging ? 2 : 1);
+        AtomicReference<RuntimeException> lastFailure = new AtomicReference<>();
+        AtomicBoolean settled = new AtomicBoolean();
+        CompletableFuture<?> primary = launch(s, call, result, pending, lastFailure, settled, false);
+        CompletableFuture<?> hedge = null;
+        try {
+            if (hedging) {
+                long delay = Math.min(s.hedgeDelayNanos(), deadline - System.nanoTime());
+                try {
+                    return result.get(Math.max(0, delay), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    if (deadline - System.nanoTime() > 0) {
+                        s.hedges.increment();
+                        hedge = launch(s, call, result, pending, lastFailure, settled, true);
+                    }
+                } finally {
+                    if (hedge == null) {
+                        done(result, pending, lastFailure);
+                    }
+                }
+            }
+            return result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new BudgetExceededException(operation, policy.budget(operation), null);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new CompletionException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } finally {
+            primary.cancel(true);
+            if (hedge != null) {
+                hedge.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Starts a request completing {@code result} with the first success, or with the last failure when every request
+     * of the attempt failed. The winner is counted before {@code result} completes, so the caller sees it.
+     */
+    private <T> CompletableFuture<?> launch(Stats s, Supplier<T> call, CompletableFuture<T> result, AtomicInteger pending,
+                                            AtomicReference<RuntimeException> lastFailure, AtomicBoolean settled, boolean isHedge) {
+        s.attempts.increment();
+        return CompletableFuture.runAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                T value = call.get();
+                s.record(System.nanoTime() - start);
+                if (settled.compareAndSet(false, true)) {
+                    if (isHedge) {
+                        s.hedgeWins.increment();
+                    }
+                    result.complete(value);
+                }
+            } catch (RuntimeException e) {
+                lastFailure.set(e);
+                done(result, pending, lastFailure);
+            }
+        }, executor);
+    }
+
+    /**
+     * Marks one pending request of the attempt as done without success: the last one fails {@code result}.
+     */
+    private static <T> void done(CompletableFuture<T> result, AtomicInteger pending, AtomicReference<RuntimeException> lastFailure) {
+        if (pending.decrementAndGet() == 0) {
+            result.completeExceptionally(lastFailure.get());
+        }
+    }
+
+    public List<ResilienceMetrics> metrics() {
+        return stats.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator.comparing(Operation::getMetricName)))
+                .map(e -> e.getValue().snapshot(e.getKey()))
+                .collect(Collectors.toList());
+    }
+
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private static void sleep(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    private class Stats {
+        final LongAdder calls = new LongAdder();
+        final LongAdder attempts = new LongAdder();
+        final LongAdder retries = new LongAdder();
+        final LongAdder hedges = new LongAdder();
+        final LongAdder hedgeWins = new LongAdder();
+        final LongAdder budgetExceeded = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        private final Histogram latency = LatencySummary.newHistogram();
+
+        synchronized void record(long nanos) {
+            latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), latency.getHighestTrackableValue()));
+        }
+
+        synchronized long hedgeDelayNanos() {
+            long min = policy.getMinHedgeDelay().toNanos();
+            if (latency.getTotalCount() < MIN_SAMPLES_FOR_HEDGING) {
+                return min;
+            }
+            return Math.max(min, TimeUnit.MICROSECONDS.toNanos(latency.getValueAtPercentile(policy.getHedgePercentile())));
+        }
+
+        ResilienceMetrics snapshot(Operation operation) {
+            return new ResilienceMetrics(operation.getMetricName(), calls.sum(), attempts.sum(), retries.sum(),
+                    hedges.sum(), hedgeWins.sum(), budgetExceeded.sum(), failures.sum());
+        }
+    }
+}
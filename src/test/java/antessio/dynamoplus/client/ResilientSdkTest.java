@@ -0,0 +1,117 @@
+package antessio.dynamoplus.client;
+
+import antessio.dynamoplus.protocol.Operation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ResilientSdkTest {
+
+    private ResilientSdk sdk;
+
+    @AfterEach
+    void tearDown() {
+        sdk.close();
+    }
+
+    private static ResiliencePolicy.ResiliencePolicyBuilder policy() {
+        return ResiliencePolicy.builder()
+                .initialBackoff(Duration.ofMillis(1))
+                .retryable(e -> e instanceof IllegalStateException);
+    }
+
+    @DisplayName("Idempotent calls are retried on transient failures")
+    @Test
+    void retriesReads() {
+        sdk = new ResilientSdk(null, policy().maxAttempts(3).build());
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = sdk.call(Operation.QUERY, () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new IllegalStateException("unavailable");
+            }
+            return "ok";
+        });
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(sdk.metrics().get(0))
+                .matches(m -> m.getAttempts() == 3 && m.getRetries() == 2 && m.getFailures() == 0);
+    }
+
+    @DisplayName("Writes are attempted once")
+    @Test
+    void doesNotRetryWrites() {
+        sdk = new ResilientSdk(null, policy().maxAttempts(3).build());
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> sdk.call(Operation.CREATE_DOCUMENT, () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("unavailable");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @DisplayName("A slow read is hedged and the faster response wins")
+    @Test
+    void hedgesSlowReads() {
+        sdk = new ResilientSdk(null, policy().hedging(true).minHedgeDelay(Duration.ofMillis(20)).build());
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = sdk.call(Operation.GET_ALL, () -> {
+            if (calls.incrementAndGet() == 1) {
+                sleep(2000);
+                return "slow";
+            }
+            return "fast";
+        });
+
+        assertThat(result).isEqualTo("fast");
+        assertThat(sdk.metrics().get(0))
+                .matches(m -> m.getHedges() == 1 && m.getHedgeWins() == 1);
+    }
+
+    @DisplayName("A read failing while its hedge is due is left to the hedge")
+    @Test
+    void hedgesFailedReads() {
+        sdk = new ResilientSdk(null, policy().maxAttempts(1).hedging(true).minHedgeDelay(Duration.ofMillis(20)).build());
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = sdk.call(Operation.GET_ALL, () -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("unavailable");
+            }
+            return "hedge";
+        });
+
+        assertThat(result).isEqualTo("hedge");
+        assertThat(sdk.metrics().get(0))
+                .matches(m -> m.getHedges() == 1 && m.getHedgeWins() == 1 && m.getFailures() == 0);
+    }
+
+    @DisplayName("Calls give up when the budget is spent")
+    @Test
+    void enforcesBudget() {
+        sdk = new ResilientSdk(null, policy().budget(Operation.GET_ALL, Duration.ofMillis(100)).build());
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> sdk.call(Operation.GET_ALL, () -> {
+            sleep(2000);
+            return "late";
+        })).isInstanceOf(BudgetExceededException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
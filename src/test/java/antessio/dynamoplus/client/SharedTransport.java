@@ -0,0 +1,118 @@
+package antessio.dynamoplus.client;
+
+import okhttp3.*;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One {@link OkHttpClient}, with its connection pool, shared by every client talking to DynamoPlus.
+ * <p>
+ * Calls are executed synchronously on the thread of the caller, to which the {@link Dispatcher} limits don't apply:
+ * {@link TransportSettings#getMaxRequests()} and {@link TransportSettings#getMaxRequestsPerHost()} are enforced here
+ * instead, callers over the limits waiting in line. The response body is buffered, so that a call stops counting
+ * against the limits as soon as {@link #execute(Request)} returns.
+ */
+public class SharedTransport {
+
+    private final TransportSettings settings;
+    private final OkHttpClient client;
+    private final Semaphore requestPermits;
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+    private final AtomicInteger queuedCalls = new AtomicInteger();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong newConnections = new AtomicLong();
+
+    public SharedTransport(TransportSettings settings) {
+        this.settings = settings;
+        this.requestPermits = new Semaphore(settings.getMaxRequests(), true);
+        this.client = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(settings.getMaxIdleConnections(), settings.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS))
+                .protocols(settings.isHttp2()
+                        ? Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1)
+                        : Collections.singletonList(Protocol.HTTP_1_1))
+                .connectTimeout(settings.getConnectTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .readTimeout(settings.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .writeTimeout(settings.getWriteTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .followRedirects(false)
+                .eventListener(new EventListener() {
+                    @Override
+                    public void callStart(Call call) {
+                        requests.incrementAndGet();
+                    }
+
+                    @Override
+                    public void connectStart(Call call, InetSocketAddress address, Proxy proxy) {
+                        newConnections.incrementAndGet();
+                    }
+                })
+                .build();
+    }
+
+    public TransportSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Executes the request once a permit of its host and one of the transport are available, returning the response
+     * with its body buffered.
+     */
+    public Response execute(Request request) throws IOException {
+        Semaphore host = hostPermits.computeIfAbsent(request.url().host() + ":" + request.url().port(),
+                h -> new Semaphore(settings.getMaxRequestsPerHost(), true));
+        acquire(host);
+        try {
+            acquire(requestPermits);
+            try (Response response = client.newCall(request).execute()) {
+                ResponseBody body = response.body();
+                return response.newBuilder()
+                        .body(body == null ? null : ResponseBody.create(body.contentType(), body.bytes()))
+                        .build();
+            } finally {
+                requestPermits.release();
+            }
+        } finally {
+            host.release();
+        }
+    }
+
+    private void acquire(Semaphore permits) throws InterruptedIOException {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        queuedCalls.incrementAndGet();
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for the transport");
+        } finally {
+            queuedCalls.decrementAndGet();
+        }
+    }
+
+    public TransportStats stats() {
+        return new TransportStats(
+                client.connectionPool().connectionCount(),
+                client.connectionPool().idleConnectionCount(),
+                client.dispatcher().runningCallsCount(),
+                queuedCalls.get(),
+                requests.get(),
+                newConnections.get());
+    }
+
+    public void close() {
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+    }
+}
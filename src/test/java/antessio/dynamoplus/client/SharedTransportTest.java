@@ -0,0 +1,82 @@
+package antessio.dynamoplus.client;
+
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SharedTransportTest {
+
+    private final AtomicInteger inProgress = new AtomicInteger();
+    private final AtomicInteger maxInProgress = new AtomicInteger();
+    private final ExecutorService callers = Executors.newFixedThreadPool(8);
+    private final ExecutorService handlers = Executors.newCachedThreadPool();
+    private HttpServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(handlers);
+        server.createContext("/", exchange -> {
+            maxInProgress.accumulateAndGet(inProgress.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inProgress.decrementAndGet();
+            byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        server.stop(0);
+        handlers.shutdownNow();
+    }
+
+    @DisplayName("No more than maxRequestsPerHost calls are in progress to a host, the others wait their turn")
+    @Test
+    void limitsRequestsPerHost() throws Exception {
+        SharedTransport transport = new SharedTransport(TransportSettings.builder().maxRequestsPerHost(2).build());
+        String url = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/";
+        List<Future<String>> bodies = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            bodies.add(callers.submit(() -> {
+                try (Response response = transport.execute(new Request.Builder().url(url).get().build())) {
+                    return response.body().string();
+                }
+            }));
+        }
+
+        for (Future<String> body : bodies) {
+            assertThat(body.get()).isEqualTo("ok");
+        }
+        assertThat(maxInProgress.get()).isEqualTo(2);
+        assertThat(transport.stats().getQueuedCalls()).isZero();
+        assertThat(transport.stats().getRequests()).isEqualTo(8);
+    }
+}
@@ -0,0 +1,60 @@
+package antessio.dynamoplus.client;
+
+import antessio.dynamoplus.perf.Settings;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Tuning of the {@link SharedTransport}, read from {@code transport.*} system properties. Timeouts default to the
+ * {@code http.*} ones of the SDK clients.
+ */
+@Value
+@Builder
+public class TransportSettings {
+
+    /**
+     * Calls in progress at most, over all hosts; further callers wait.
+     */
+    @Builder.Default
+    int maxRequests = 256;
+    /**
+     * Calls in progress at most to the same host, hence connections to it over HTTP/1.1.
+     */
+    @Builder.Default
+    int maxRequestsPerHost = 64;
+    @Builder.Default
+    int maxIdleConnections = 64;
+    @Builder.Default
+    Duration keepAlive = Duration.ofMinutes(5);
+    /**
+     * Negotiates HTTP/2 through ALPN; plain-text upstreams always use HTTP/1.1.
+     */
+    @Builder.Default
+    boolean http2 = true;
+    @Builder.Default
+    Duration connectTimeout = Duration.ofSeconds(30);
+    @Builder.Default
+    Duration readTimeout = Duration.ofSeconds(30);
+    @Builder.Default
+    Duration writeTimeout = Duration.ofSeconds(30);
+
+    public static TransportSettings fromSettings() {
+        TransportSettings defaults = TransportSettings.builder()
+                .connectTimeout(Settings.duration("http.connectTimeout", Duration.ofSeconds(30)))
+                .readTimeout(Settings.duration("http.readTimeout", Duration.ofSeconds(30)))
+                .writeTimeout(Settings.duration("http.writeTimeout", Duration.ofSeconds(30)))
+                .build();
+        return TransportSettings.builder()
+                .maxRequests(Settings.integer("transport.maxRequests", defaults.getMaxRequests()))
+                .maxRequestsPerHost(Settings.integer("transport.maxRequestsPerHost", defaults.getMaxRequestsPerHost()))
+                .maxIdleConnections(Settings.integer("transport.maxIdleConnections", defaults.getMaxIdleConnections()))
+                .keepAlive(Settings.duration("transport.keepAlive", defaults.getKeepAlive()))
+                .http2(Settings.bool("transport.http2", defaults.isHttp2()))
+                .connectTimeout(Settings.duration("transport.connectTimeout", defaults.getConnectTimeout()))
+                .readTimeout(Settings.duration("transport.readTimeout", defaults.getReadTimeout()))
+                .writeTimeout(Settings.duration("transport.writeTimeout", defaults.getWriteTimeout()))
+                .build();
+    }
+}
@@ -0,0 +1,34 @@
+package antessio.dynamoplus.client;
+
+import lombok.Value;
+
+/**
+ * Point-in-time view of the {@link SharedTransport} connection pool.
+ */
+@Value
+public class TransportStats {
+
+    int connections;
+    int idleConnections;
+    /**
+     * Calls in progress, all of them synchronous.
+     */
+    int runningCalls;
+    /**
+     * Calls waiting for {@code maxRequests} or {@code maxRequestsPerHost}.
+     */
+    int queuedCalls;
+    long requests;
+    long newConnections;
+
+    public int getActiveConnections() {
+        return connections - idleConnections;
+    }
+
+    /**
+     * Share of the requests served by an already open connection.
+     */
+    public double getReuseRatio() {
+        return requests == 0 ? 0 : Math.max(0, 1 - (double) newConnections / requests);
+    }
+}
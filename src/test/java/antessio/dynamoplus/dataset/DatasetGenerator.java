@@ -0,0 +1,103 @@
+package antessio.dynamoplus.dataset;
+
+import antessio.dynamoplus.domain.Book;
+import antessio.dynamoplus.domain.Category;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Generates the {@link Category} and {@link Book} documents described by a {@link DatasetSpec}.
+ * Books are produced lazily, one at a time, so datasets of any size can be streamed.
+ */
+public class DatasetGenerator {
+
+    private static final long ISBN_SPACE = 10_000_000_000_000L;
+    /**
+     * Coprime with 10^13: multiplying book numbers by it modulo 10^13 scatters them into unique isbns
+     * (without overflowing for up to 10^12 books).
+     */
+    private static final long ISBN_MULTIPLIER = 9_000_011L;
+    private static final int RATINGS = 11;
+
+    private final DatasetSpec spec;
+    private final List<Category> categories;
+    private final ZipfDistribution categoryDistribution;
+    private final ZipfDistribution authorDistribution;
+    private final ZipfDistribution ratingDistribution;
+
+    public DatasetGenerator(DatasetSpec spec) {
+        this.spec = spec;
+        this.categories = IntStream.range(0, spec.getCategories())
+                .mapToObj(DatasetGenerator::category)
+                .collect(Collectors.toList());
+        this.categoryDistribution = new ZipfDistribution(spec.getCategories(), spec.getCategorySkew());
+        this.authorDistribution = new ZipfDistribution(spec.getAuthors(), spec.getAuthorSkew());
+        this.ratingDistribution = new ZipfDistribution(RATINGS, spec.getRatingSkew());
+    }
+
+    public static Category category(int rank) {
+        return Category.builder()
+                .id(String.format("category-%d", rank))
+                .name(String.format("Category %d", rank))
+                .build();
+    }
+
+    public static String author(int rank) {
+        return String.format("Author %d", rank);
+    }
+
+    public static String title(long number) {
+        return String.format("Title %d", number);
+    }
+
+    public static String isbn(long seed, long number) {
+        long scrambled = Math.floorMod(number * ISBN_MULTIPLIER % ISBN_SPACE + Math.floorMod(seed, ISBN_SPACE), ISBN_SPACE);
+        return String.format("%013d", scrambled);
+    }
+
+    public DatasetSpec getSpec() {
+        return spec;
+    }
+
+    public List<Category> categories() {
+        return categories;
+    }
+
+    /**
+     * The books of the dataset, in generation order. Each call starts again from the first book.
+     */
+    public Iterator<Book> books() {
+        Random random = new Random(spec.getSeed());
+        return new Iterator<Book>() {
+            private long next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < spec.getBooks();
+            }
+
+            @Override
+            public Book next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return book(next++, random);
+            }
+        };
+    }
+
+    private Book book(long number, Random random) {
+        return Book.builder()
+                .isbn(isbn(spec.getSeed(), number))
+                .title(title(number))
+                .author(author(authorDistribution.sample(random)))
+                .category(categories.get(categoryDistribution.sample(random)))
+                .rating(String.format("%02d", RATINGS - 1 - ratingDistribution.sample(random)))
+                .build();
+    }
+}
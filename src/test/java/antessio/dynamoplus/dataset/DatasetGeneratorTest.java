@@ -0,0 +1,54 @@
+package antessio.dynamoplus.dataset;
+
+import antessio.dynamoplus.domain.Book;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DatasetGeneratorTest {
+
+    private final DatasetSpec spec = DatasetSpec.builder()
+            .seed(7)
+            .books(20_000)
+            .authors(500)
+            .authorSkew(1.2)
+            .categories(10)
+            .categorySkew(0)
+            .build();
+
+    @DisplayName("The same seed generates the same books")
+    @Test
+    void isReproducible() {
+        assertThat(books(new DatasetGenerator(spec))).isEqualTo(books(new DatasetGenerator(spec)));
+    }
+
+    @DisplayName("Isbns are unique")
+    @Test
+    void generatesUniqueIsbns() {
+        List<Book> books = books(new DatasetGenerator(spec));
+
+        assertThat(books.stream().map(Book::getIsbn).collect(Collectors.toSet())).hasSize(books.size());
+    }
+
+    @DisplayName("Authors follow the skew, categories are uniform")
+    @Test
+    void followsTheSkew() {
+        List<Book> books = books(new DatasetGenerator(spec));
+        Map<String, Long> byAuthor = books.stream().collect(Collectors.groupingBy(Book::getAuthor, Collectors.counting()));
+        Map<String, Long> byCategory = books.stream().collect(Collectors.groupingBy(b -> b.getCategory().getName(), Collectors.counting()));
+
+        assertThat(byAuthor.get(DatasetGenerator.author(0))).isGreaterThan(10 * byAuthor.getOrDefault(DatasetGenerator.author(50), 1L));
+        assertThat(byCategory).hasSize(10);
+        assertThat(byCategory.values()).allMatch(count -> count > books.size() / 10 * 0.9);
+    }
+
+    private static List<Book> books(DatasetGenerator generator) {
+        List<Book> books = new ArrayList<>();
+        generator.books().forEachRemaining(books::add);
+        return books;
+    }
+}
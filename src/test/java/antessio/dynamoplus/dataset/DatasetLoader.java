@@ -0,0 +1,59 @@
+package antessio.dynamoplus.dataset;
+
+import antessio.dynamoplus.Clients;
+import antessio.dynamoplus.DynamoPlusService;
+import antessio.dynamoplus.bulk.BatchIngestor;
+import antessio.dynamoplus.bulk.BulkResult;
+import antessio.dynamoplus.domain.Book;
+import antessio.dynamoplus.domain.Category;
+import antessio.dynamoplus.perf.Settings;
+import antessio.dynamoplus.sdk.SDKV2;
+
+/**
+ * Loads a synthetic dataset into the collections of a suffix (see {@link DynamoPlusService#setup(String)}).
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=antessio.dynamoplus.dataset.DatasetLoader \
+ *     -Ddataset.suffix=__books_1m -Ddataset.books=1000000 -Ddataset.authors=50000 -Ddataset.authorSkew=1.1
+ * </pre>
+ * The spec is read from {@code dataset.*} properties (see {@link DatasetSpec#fromSettings()});
+ * {@code dataset.batchSize} and {@code dataset.workers} tune the ingestion pipeline.
+ */
+public class DatasetLoader {
+
+    private final SDKV2 sdk;
+    private final int batchSize;
+    private final int workers;
+
+    public DatasetLoader(SDKV2 sdk, int batchSize, int workers) {
+        this.sdk = sdk;
+        this.batchSize = batchSize;
+        this.workers = workers;
+    }
+
+    public static void main(String[] args) {
+        DatasetSpec spec = DatasetSpec.fromSettings();
+        String suffix = Settings.string("dataset.suffix", DynamoPlusService.uniqueSuffix("__dataset"));
+        DynamoPlusService.getInstance().setup(suffix);
+        DatasetLoader loader = new DatasetLoader(
+                Clients.getIntance().getAdminClient(),
+                Settings.integer("dataset.batchSize", 100),
+                Settings.integer("dataset.workers", 16));
+        System.out.println("loading " + spec + " into suffix " + suffix);
+        System.out.println("books: " + loader.load(new DatasetGenerator(spec), suffix));
+    }
+
+    /**
+     * Creates the categories, then streams the books. Returns the result of the book ingestion.
+     */
+    public BulkResult load(DatasetGenerator generator, String suffix) {
+        String categoryCollectionName = DynamoPlusService.categoryCollectionName(suffix);
+        String bookCollectionName = DynamoPlusService.bookCollectionName(suffix);
+        BulkResult categories = new BatchIngestor<Category>("ingest-" + categoryCollectionName, batchSize, workers,
+                c -> sdk.createDocument(categoryCollectionName, c, Category.class))
+                .ingest(generator.categories().iterator());
+        System.out.println("categories: " + categories);
+        return new BatchIngestor<Book>("ingest-" + bookCollectionName, batchSize, workers,
+                b -> sdk.createDocument(bookCollectionName, b, Book.class))
+                .ingest(generator.books());
+    }
+}
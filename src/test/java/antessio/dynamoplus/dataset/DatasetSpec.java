@@ -0,0 +1,47 @@
+package antessio.dynamoplus.dataset;
+
+import antessio.dynamoplus.perf.Settings;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Size and shape of a synthetic dataset. The same spec (seed included) always generates the same documents.
+ * Skews are Zipf exponents: 0 is uniform, around 1 is the usual "few hot keys" shape.
+ */
+@Value
+@Builder
+public class DatasetSpec {
+
+    @Builder.Default
+    long seed = 42;
+    @Builder.Default
+    long books = 10_000;
+    @Builder.Default
+    int categories = 20;
+    @Builder.Default
+    double categorySkew = 1.0;
+    @Builder.Default
+    int authors = 1_000;
+    @Builder.Default
+    double authorSkew = 1.0;
+    /**
+     * Skew of the {@code rating} values 0..10, 10 being the most frequent one; 0 means uniform ratings.
+     */
+    @Builder.Default
+    double ratingSkew = 0;
+
+    /**
+     * Reads the spec from {@code dataset.*} system properties.
+     */
+    public static DatasetSpec fromSettings() {
+        return DatasetSpec.builder()
+                .seed(Settings.longValue("dataset.seed", 42))
+                .books(Settings.longValue("dataset.books", 10_000))
+                .categories(Settings.integer("dataset.categories", 20))
+                .categorySkew(Settings.decimal("dataset.categorySkew", 1.0))
+                .authors(Settings.integer("dataset.authors", 1_000))
+                .authorSkew(Settings.decimal("dataset.authorSkew", 1.0))
+                .ratingSkew(Settings.decimal("dataset.ratingSkew", 0))
+                .build();
+    }
+}
@@ -0,0 +1,51 @@
+package antessio.dynamoplus.perf;
+
+import antessio.dynamoplus.protocol.Wire;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Measurements of the {@link PerformanceGate} workload that later runs are compared with, keyed by operation name.
+ */
+@NoArgsConstructor
+@Data
+@Builder
+@AllArgsConstructor
+public class Baseline {
+    private String description;
+    private String workload;
+    @Builder.Default
+    private Map<String, BaselineMetrics> operations = new TreeMap<>();
+
+    public static Baseline of(LoadReport report, String description, String workload) {
+        Map<String, BaselineMetrics> operations = new TreeMap<>();
+        report.getResults().values().forEach(r -> operations.put(r.getOperation().getMetricName(), BaselineMetrics.of(r)));
+        return new Baseline(description, workload, operations);
+    }
+
+    public static Baseline read(Path file) {
+        try {
+            return Wire.MAPPER.readValue(file.toFile(), Baseline.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("unable to read the baseline " + file, e);
+        }
+    }
+
+    public void write(Path file) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Wire.MAPPER.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), this);
+        } catch (IOException e) {
+            throw new UncheckedIOException("unable to write the baseline " + file, e);
+        }
+    }
+}
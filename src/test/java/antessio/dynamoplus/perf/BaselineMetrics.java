@@ -0,0 +1,28 @@
+package antessio.dynamoplus.perf;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Reference measurements of one operation: latencies in milliseconds, throughput in operations per second.
+ */
+@NoArgsConstructor
+@Data
+@Builder
+@AllArgsConstructor
+public class BaselineMetrics {
+    private double p95;
+    private double p99;
+    private double throughput;
+    private double errorRate;
+
+    public static BaselineMetrics of(OperationResult result) {
+        return new BaselineMetrics(
+                result.percentileMillis(95),
+                result.percentileMillis(99),
+                result.getThroughput(),
+                result.getErrorRate());
+    }
+}
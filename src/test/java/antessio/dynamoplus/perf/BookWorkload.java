@@ -0,0 +1,142 @@
+package antessio.dynamoplus.perf;
+
+import antessio.dynamoplus.Clients;
+import antessio.dynamoplus.DynamoPlusService;
+import antessio.dynamoplus.client.ResiliencePolicy;
+import antessio.dynamoplus.client.ResilientSdk;
+import antessio.dynamoplus.domain.Book;
+import antessio.dynamoplus.domain.Category;
+import antessio.dynamoplus.protocol.Operation;
+import antessio.dynamoplus.sdk.SDKV2;
+import antessio.dynamoplus.sdk.domain.conditions.PredicateBuilder;
+import antessio.dynamoplus.sdk.domain.document.query.Query;
+import antessio.dynamoplus.sdk.domain.system.clientauthorization.ClientScope;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Creates, lists and queries books by author on the collections built by {@link DynamoPlusService#setup(String)}.
+ * Calls can go through a {@link ResilientSdk}, see {@link #withResilience(ResiliencePolicy)}.
+ */
+public class BookWorkload implements Workload {
+
+    private final SDKV2 client;
+    private final String bookCollectionName;
+    private final List<Category> categories;
+    private final List<String> authors;
+    private final int pageSize;
+    private final ResilientSdk resilient;
+
+    public BookWorkload(SDKV2 client, String bookCollectionName, List<Category> categories, List<String> authors, int pageSize) {
+        this(client, bookCollectionName, categories, authors, pageSize, null);
+    }
+
+    private BookWorkload(SDKV2 client, String bookCollectionName, List<Category> categories, List<String> authors, int pageSize,
+                         ResilientSdk resilient) {
+        this.client = client;
+        this.bookCollectionName = bookCollectionName;
+        this.categories = categories;
+        this.authors = authors;
+        this.pageSize = pageSize;
+        this.resilient = resilient;
+    }
+
+    /**
+     * Sets up the collections for {@code suffix}, creates {@code categoryCount} categories and returns a workload
+     * running through a new client with read/write access to the books.
+     *
+     * @param authType {@code basic} (the admin client), {@code api_key} or {@code http_signature}
+     */
+    public static BookWorkload setup(String suffix, String authType, int categoryCount, int authorCount, int pageSize) {
+        DynamoPlusService.getInstance().setup(suffix);
+        String categoryCollectionName = DynamoPlusService.categoryCollectionName(suffix);
+        String bookCollectionName = DynamoPlusService.bookCollectionName(suffix);
+        SDKV2 admin = Clients.getIntance().getAdminClient();
+        List<Category> categories = IntStream.range(0, categoryCount)
+                .mapToObj(i -> admin.createDocument(categoryCollectionName, Category.builder().name("category-" + i).build(), Category.class))
+                .collect(Collectors.toList());
+        List<String> authors = IntStream.range(0, authorCount)
+                .mapToObj(i -> "author-" + i)
+                .collect(Collectors.toList());
+        return new BookWorkload(createClient(suffix, authType, bookCollectionName), bookCollectionName, categories, authors, pageSize);
+    }
+
+    /**
+     * The same workload, on the same books and categories, through a new client of another authentication scheme.
+     */
+    public BookWorkload withAuthType(String suffix, String authType) {
+        return new BookWorkload(createClient(suffix, authType, bookCollectionName), bookCollectionName, categories, authors, pageSize);
+    }
+
+    /**
+     * The same workload, through the same client, with every call under {@code policy}: reads are retried and
+     * hedged as it says, writes only get a budget.
+     */
+    public BookWorkload withResilience(ResiliencePolicy policy) {
+        return new BookWorkload(client, bookCollectionName, categories, authors, pageSize, new ResilientSdk(client, policy));
+    }
+
+    public Optional<ResilientSdk> getResilientSdk() {
+        return Optional.ofNullable(resilient);
+    }
+
+    static SDKV2 createClient(String suffix, String authType, String collectionName) {
+        if ("basic".equals(authType)) {
+            return Clients.getIntance().createAdminClient();
+        }
+        List<ClientScope> scopes = ClientScope.READ_WRITE.stream()
+                .map(clientScopeType -> new ClientScope(collectionName, clientScopeType))
+                .collect(Collectors.toList());
+        String clientId = String.format("client-id-load-%s-%s", authType, suffix);
+        if ("http_signature".equals(authType)) {
+            return Clients.getIntance().createHttpSignature(clientId, scopes);
+        }
+        return Clients.getIntance().createClientApiKey(clientId, "api-key-" + suffix, scopes);
+    }
+
+    @Override
+    public void execute(Operation operation, Random random) {
+        switch (operation) {
+            case CREATE_DOCUMENT:
+                Book book = randomBook(random);
+                call(operation, () -> client.createDocument(bookCollectionName, book, Book.class));
+                break;
+            case GET_ALL:
+                call(operation, () -> client.getAll(bookCollectionName, pageSize, null, Book.class));
+                break;
+            case QUERY:
+                Query query = new Query(new PredicateBuilder().withEq("author", authors.get(random.nextInt(authors.size()))));
+                call(operation, () -> client.query(bookCollectionName, query, Book.class, pageSize, null));
+                break;
+            default:
+                throw new IllegalArgumentException(operation + " is not supported by " + getClass().getSimpleName());
+        }
+    }
+
+    private <T> T call(Operation operation, Supplier<T> call) {
+        return resilient == null ? call.get() : resilient.call(operation, call);
+    }
+
+    private Book randomBook(Random random) {
+        return Book.builder()
+                .isbn(randomIsbn(random))
+                .title("title-" + Long.toHexString(random.nextLong()))
+                .author(authors.get(random.nextInt(authors.size())))
+                .category(categories.get(random.nextInt(categories.size())))
+                .rating(String.format("%02d", random.nextInt(11)))
+                .build();
+    }
+
+    static String randomIsbn(Random random) {
+        StringBuilder isbn = new StringBuilder(13);
+        for (int i = 0; i < 13; i++) {
+            isbn.append((char) ('0' + random.nextInt(10)));
+        }
+        return isbn.toString();
+    }
+}
@@ -0,0 +1,122 @@
+package antessio.dynamoplus.perf;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A self-contained HTML page of line charts (inline SVG) and tables, written under {@link Settings#outputDirectory()}
+ * next to the JSON {@link Reports}.
+ */
+public class HtmlReport {
+
+    private static final String[] COLORS = {"#1f77b4", "#ff7f0e", "#2ca02c", "#d62728", "#9467bd", "#8c564b", "#e377c2", "#7f7f7f"};
+    private static final int WIDTH = 720;
+    private static final int HEIGHT = 360;
+    private static final int MARGIN = 60;
+
+    private final StringBuilder body = new StringBuilder();
+    private final String title;
+
+    public HtmlReport(String title) {
+        this.title = title;
+        body.append("<h1>").append(escape(title)).append("</h1>\n");
+    }
+
+    public HtmlReport paragraph(String text) {
+        body.append("<p>").append(escape(text)).append("</p>\n");
+        return this;
+    }
+
+    /**
+     * A line chart with one line per series; every series has one value per x.
+     */
+    public HtmlReport lineChart(String chartTitle, String xLabel, String yLabel, List<? extends Number> xs, Map<String, List<Double>> series) {
+        double maxX = xs.stream().mapToDouble(Number::doubleValue).max().orElse(1);
+        double maxY = series.values().stream().flatMap(List::stream).mapToDouble(Double::doubleValue).max().orElse(1);
+        maxX = maxX <= 0 ? 1 : maxX;
+        maxY = maxY <= 0 ? 1 : maxY * 1.1;
+        int plotWidth = WIDTH - 2 * MARGIN;
+        int plotHeight = HEIGHT - 2 * MARGIN;
+        body.append("<h2>").append(escape(chartTitle)).append("</h2>\n");
+        body.append(String.format("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"%d\" height=\"%d\" font-family=\"sans-serif\" font-size=\"11\">%n", WIDTH, HEIGHT));
+        body.append(String.format("<line x1=\"%d\" y1=\"%d\" x2=\"%d\" y2=\"%d\" stroke=\"black\"/>%n", MARGIN, HEIGHT - MARGIN, WIDTH - MARGIN, HEIGHT - MARGIN));
+        body.append(String.format("<line x1=\"%d\" y1=\"%d\" x2=\"%d\" y2=\"%d\" stroke=\"black\"/>%n", MARGIN, MARGIN, MARGIN, HEIGHT - MARGIN));
+        for (int i = 0; i <= 4; i++) {
+            double value = maxY * i / 4;
+            double y = HEIGHT - MARGIN - plotHeight * i / 4.0;
+            body.append(String.format(Locale.ROOT, "<line x1=\"%d\" y1=\"%.1f\" x2=\"%d\" y2=\"%.1f\" stroke=\"#ddd\"/>%n", MARGIN, y, WIDTH - MARGIN, y));
+            body.append(String.format(Locale.ROOT, "<text x=\"%d\" y=\"%.1f\" text-anchor=\"end\">%s</text>%n", MARGIN - 5, y + 4, format(value)));
+        }
+        for (Number x : xs) {
+            double px = MARGIN + plotWidth * x.doubleValue() / maxX;
+            body.append(String.format(Locale.ROOT, "<text x=\"%.1f\" y=\"%d\" text-anchor=\"middle\">%s</text>%n", px, HEIGHT - MARGIN + 15, format(x.doubleValue())));
+        }
+        body.append(String.format("<text x=\"%d\" y=\"%d\" text-anchor=\"middle\">%s</text>%n", WIDTH / 2, HEIGHT - 15, escape(xLabel)));
+        body.append(String.format("<text x=\"15\" y=\"%d\" text-anchor=\"middle\" transform=\"rotate(-90 15 %d)\">%s</text>%n", HEIGHT / 2, HEIGHT / 2, escape(yLabel)));
+        int s = 0;
+        for (Map.Entry<String, List<Double>> line : series.entrySet()) {
+            String color = COLORS[s % COLORS.length];
+            StringBuilder points = new StringBuilder();
+            for (int i = 0; i < xs.size() && i < line.getValue().size(); i++) {
+                double px = MARGIN + plotWidth * xs.get(i).doubleValue() / maxX;
+                double py = HEIGHT - MARGIN - plotHeight * line.getValue().get(i) / maxY;
+                points.append(String.format(Locale.ROOT, "%.1f,%.1f ", px, py));
+                body.append(String.format(Locale.ROOT, "<circle cx=\"%.1f\" cy=\"%.1f\" r=\"3\" fill=\"%s\"/>%n", px, py, color));
+            }
+            body.append(String.format("<polyline points=\"%s\" fill=\"none\" stroke=\"%s\" stroke-width=\"2\"/>%n", points.toString().trim(), color));
+            body.append(String.format("<text x=\"%d\" y=\"%d\" fill=\"%s\">%s</text>%n", MARGIN + 10, MARGIN - 30 + 14 * s, color, escape(line.getKey())));
+            s++;
+        }
+        body.append("</svg>\n");
+        return this;
+    }
+
+    public HtmlReport table(List<String> headers, List<List<Object>> rows) {
+        body.append("<table>\n<tr>");
+        headers.forEach(h -> body.append("<th>").append(escape(h)).append("</th>"));
+        body.append("</tr>\n");
+        for (List<Object> row : rows) {
+            body.append("<tr>");
+            row.forEach(cell -> body.append("<td>").append(escape(cell instanceof Double ? format((Double) cell) : String.valueOf(cell))).append("</td>"));
+            body.append("</tr>\n");
+        }
+        body.append("</table>\n");
+        return this;
+    }
+
+    public String toHtml() {
+        return "<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"utf-8\">\n<title>" + escape(title) + "</title>\n"
+                + "<style>body{font-family:sans-serif;margin:2em}table{border-collapse:collapse}"
+                + "th,td{border:1px solid #ccc;padding:4px 8px;text-align:right}</style>\n"
+                + "</head>\n<body>\n" + body + "</body>\n</html>\n";
+    }
+
+    public Path write(String fileName) {
+        try {
+            Path directory = Settings.outputDirectory();
+            Files.createDirectories(directory);
+            Path file = directory.resolve(fileName);
+            Files.write(file, toHtml().getBytes(StandardCharsets.UTF_8));
+            System.out.println("report written to " + file.toAbsolutePath());
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) && Math.abs(value) < 1e12
+                ? String.valueOf((long) value)
+                : String.format(Locale.ROOT, "%.2f", value);
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
@@ -0,0 +1,30 @@
+package antessio.dynamoplus.perf;
+
+import lombok.Value;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Percentiles of a histogram recorded in microseconds, in milliseconds.
+ */
+@Value
+public class LatencySummary {
+
+    long count;
+    double p50;
+    double p95;
+    double p99;
+    double max;
+
+    public static LatencySummary of(Histogram microseconds) {
+        return new LatencySummary(
+                microseconds.getTotalCount(),
+                microseconds.getValueAtPercentile(50) / 1000.0,
+                microseconds.getValueAtPercentile(95) / 1000.0,
+                microseconds.getValueAtPercentile(99) / 1000.0,
+                microseconds.getMaxValue() / 1000.0);
+    }
+
+    public static Histogram newHistogram() {
+        return new Histogram(OperationStats.HIGHEST_TRACKABLE_MICROS, 3);
+    }
+}
@@ -0,0 +1,166 @@
+package antessio.dynamoplus.perf;
+
+import antessio.dynamoplus.protocol.Operation;
+import lombok.Value;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a {@link Workload} following a {@link LoadProfile} and collects per-operation latency distributions.
+ * Measurements taken during the warmup are discarded.
+ * <p>
+ * Requests still running at the end of the run are waited for up to {@value #DRAIN_TIMEOUT_SECONDS} seconds and
+ * counted, throughput being computed up to the last completion. Those still running after that are recorded as
+ * {@code timeout} errors, with the time elapsed so far as their response time.
+ */
+public class LoadGenerator {
+
+    private static final long DRAIN_TIMEOUT_SECONDS = 60;
+
+    private final Workload workload;
+    private final LoadProfile profile;
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private final Map<Long, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong lastCompletion = new AtomicLong(Long.MIN_VALUE);
+
+    public LoadGenerator(Workload workload, LoadProfile profile) {
+        this.workload = workload;
+        this.profile = profile;
+        profile.getMix().getOperations().forEach(o -> stats.put(o, new OperationStats(o)));
+    }
+
+    public LoadReport run() {
+        long start = System.nanoTime();
+        long measureStart = start + profile.getWarmup().toNanos();
+        long end = measureStart + profile.getDuration().toNanos();
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(daemon("load-timer"));
+        timer.schedule(() -> stats.values().forEach(OperationStats::reset), measureStart - start, TimeUnit.NANOSECONDS);
+        try {
+            if (profile.getMode() == LoadProfile.Mode.OPEN) {
+                runOpenLoop(start, end);
+            } else {
+                runClosedLoop(start, end);
+            }
+        } finally {
+            timer.shutdownNow();
+            abandonInFlight();
+        }
+        long elapsed = Math.max(end, lastCompletion.get()) - measureStart;
+        Map<Operation, OperationResult> results = new EnumMap<>(Operation.class);
+        stats.forEach((operation, s) -> results.put(operation, s.snapshot(elapsed)));
+        return new LoadReport(profile, results);
+    }
+
+    private void runOpenLoop(long start, long end) {
+        ExecutorService workers = Executors.newFixedThreadPool(profile.getUsers(), daemon("load-worker"));
+        Random random = new Random();
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / profile.getRate());
+        try {
+            for (long i = 0; ; i++) {
+                long intended = start + i * intervalNanos;
+                if (intended >= end) {
+                    break;
+                }
+                parkUntil(intended);
+                Operation operation = profile.getMix().next(random);
+                long id = track(operation, intended);
+                workers.execute(() -> execute(id, operation, intended, ThreadLocalRandom.current()));
+            }
+        } finally {
+            drain(workers);
+        }
+    }
+
+    private void runClosedLoop(long start, long end) {
+        ExecutorService users = Executors.newFixedThreadPool(profile.getUsers(), daemon("load-user"));
+        long pacingNanos = profile.getPacing().toNanos();
+        for (int u = 0; u < profile.getUsers(); u++) {
+            users.execute(() -> {
+                Random random = ThreadLocalRandom.current();
+                for (long i = 0; ; i++) {
+                    long intended = pacingNanos > 0 ? start + i * pacingNanos : System.nanoTime();
+                    if (intended >= end || Thread.currentThread().isInterrupted()) {
+                        return;
+                    }
+                    parkUntil(intended);
+                    Operation operation = profile.getMix().next(random);
+                    execute(track(operation, intended), operation, intended, random);
+                }
+            });
+        }
+        drain(users);
+    }
+
+    private long track(Operation operation, long intendedStartNanos) {
+        long id = sequence.incrementAndGet();
+        inFlight.put(id, new InFlight(operation, intendedStartNanos));
+        return id;
+    }
+
+    /**
+     * Records the outcome of a request, unless it was already given up as a timeout.
+     */
+    private void execute(long id, Operation operation, long intendedStartNanos, Random random) {
+        OperationStats operationStats = stats.get(operation);
+        long startNanos = System.nanoTime();
+        try {
+            workload.execute(operation, random);
+            long endNanos = System.nanoTime();
+            if (inFlight.remove(id) != null) {
+                operationStats.record(intendedStartNanos, startNanos, endNanos);
+                lastCompletion.accumulateAndGet(endNanos, Math::max);
+            }
+        } catch (RuntimeException e) {
+            if (inFlight.remove(id) != null) {
+                operationStats.recordError(e);
+            }
+        }
+    }
+
+    private void abandonInFlight() {
+        long now = System.nanoTime();
+        for (Long id : new ArrayList<>(inFlight.keySet())) {
+            InFlight request = inFlight.remove(id);
+            if (request != null) {
+                stats.get(request.getOperation()).recordTimeout(request.getIntendedStartNanos(), now);
+            }
+        }
+    }
+
+    private static void parkUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private static void drain(ExecutorService executor) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static ThreadFactory daemon(String name) {
+        return r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    @Value
+    private static class InFlight {
+        Operation operation;
+        long intendedStartNanos;
+    }
+}
@@ -0,0 +1,37 @@
+package antessio.dynamoplus.perf;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * How the {@link LoadGenerator} paces requests.
+ * <ul>
+ * <li>{@link Mode#OPEN}: requests start at {@code rate} per second whatever the response times, served by at most
+ * {@code users} concurrent requests. Latency is measured from the intended start, so queueing delay is included.</li>
+ * <li>{@link Mode#CLOSED}: {@code users} loop issuing one request after the other. With a {@code pacing} each user
+ * targets one request per interval and latency is measured from the intended start as well; without it only the
+ * service time is measured.</li>
+ * </ul>
+ */
+@Value
+@Builder
+public class LoadProfile {
+
+    public enum Mode {OPEN, CLOSED}
+
+    @Builder.Default
+    Mode mode = Mode.CLOSED;
+    @Builder.Default
+    double rate = 50;
+    @Builder.Default
+    int users = 4;
+    @Builder.Default
+    Duration pacing = Duration.ZERO;
+    @Builder.Default
+    Duration warmup = Duration.ofSeconds(5);
+    @Builder.Default
+    Duration duration = Duration.ofSeconds(30);
+    OperationMix mix;
+}
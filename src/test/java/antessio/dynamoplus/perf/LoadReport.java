@@ -0,0 +1,72 @@
+package antessio.dynamoplus.perf;
+
+import antessio.dynamoplus.protocol.Operation;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Results of a {@link LoadGenerator} run.
+ */
+public class LoadReport {
+
+    private final LoadProfile profile;
+    private final Map<Operation, OperationResult> results;
+
+    LoadReport(LoadProfile profile, Map<Operation, OperationResult> results) {
+        this.profile = profile;
+        this.results = results;
+    }
+
+    public LoadProfile getProfile() {
+        return profile;
+    }
+
+    public Map<Operation, OperationResult> getResults() {
+        return results;
+    }
+
+    public double getTotalThroughput() {
+        return results.values().stream().mapToDouble(OperationResult::getThroughput).sum();
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%-18s %10s %8s %10s %10s %10s %10s %10s%n", "operation", "count", "errors", "ops/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        results.values().forEach(r -> out.printf("%-18s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                r.getOperation().getMetricName(),
+                r.getCount(),
+                r.getErrors(),
+                r.getThroughput(),
+                r.percentileMillis(50),
+                r.percentileMillis(95),
+                r.percentileMillis(99),
+                r.getResponseTime().getMaxValue() / 1000.0));
+        results.values().stream()
+                .filter(r -> r.getErrors() > 0)
+                .forEach(r -> out.printf("%s errors: %s%n", r.getOperation().getMetricName(), r.getErrorsByType()));
+    }
+
+    /**
+     * Writes one HdrHistogram percentile distribution ({@code .hgrm}, values in milliseconds) per operation.
+     */
+    public void writeHistograms(Path directory, String name) {
+        try {
+            Files.createDirectories(directory);
+            for (OperationResult result : results.values()) {
+                String prefix = String.format("%s-%s", name, result.getOperation().getMetricName());
+                try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(prefix + ".hgrm")))) {
+                    result.getResponseTime().outputPercentileDistribution(out, 1000.0);
+                }
+                try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(prefix + "-service.hgrm")))) {
+                    result.getServiceTime().outputPercentileDistribution(out, 1000.0);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
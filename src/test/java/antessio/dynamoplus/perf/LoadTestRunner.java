@@ -0,0 +1,61 @@
+package antessio.dynamoplus.perf;
+
+import antessio.dynamoplus.DynamoPlusService;
+import antessio.dynamoplus.client.ResiliencePolicy;
+
+import java.time.Duration;
+
+/**
+ * Runs a load test against {@code DYNAMOPLUS_HOST}:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=antessio.dynamoplus.perf.LoadTestRunner \
+ *     -Dload.mode=open -Dload.rate=200 -Dload.users=32 -Dload.duration=60s -Dload.mix=createDocument:1,getAll:1,query:2
+ * </pre>
+ * Properties: {@code load.mode} (open|closed), {@code load.rate} (requests/s, open loop), {@code load.users},
+ * {@code load.pacing} (per user interval, closed loop), {@code load.warmup}, {@code load.duration}, {@code load.mix},
+ * {@code load.auth} (api_key|http_signature), {@code load.categories}, {@code load.authors}, {@code load.pageSize},
+ * {@code perf.output} (directory of the {@code .hgrm} files).
+ * <p>
+ * With {@code load.resilience=true} the calls go through a {@code ResilientSdk} configured by the
+ * {@code resilience.*} properties (see {@link ResiliencePolicy#fromSettings()}); its metrics go to
+ * {@code resilience.json}.
+ */
+public class LoadTestRunner {
+
+    public static void main(String[] args) {
+        LoadProfile profile = profileFromSettings();
+        String suffix = DynamoPlusService.uniqueSuffix("__load");
+        BookWorkload workload = BookWorkload.setup(
+                suffix,
+                Settings.string("load.auth", "api_key"),
+                Settings.integer("load.categories", 10),
+                Settings.integer("load.authors", 100),
+                Settings.integer("load.pageSize", 20));
+        if (Settings.bool("load.resilience", false)) {
+            workload = workload.withResilience(ResiliencePolicy.fromSettings());
+        }
+        LoadReport report = new LoadGenerator(workload, profile).run();
+        report.print(System.out);
+        report.writeHistograms(Settings.outputDirectory(), "load");
+        workload.getResilientSdk().ifPresent(resilient -> {
+            resilient.metrics().forEach(System.out::println);
+            Reports.writeJson("resilience.json", resilient.metrics());
+            resilient.close();
+        });
+        if (Settings.bool("load.cleanup", true)) {
+            DynamoPlusService.getInstance().cleanup(suffix);
+        }
+    }
+
+    public static LoadProfile profileFromSettings() {
+        return LoadProfile.builder()
+                .mode(LoadProfile.Mode.valueOf(Settings.string("load.mode", "closed").toUpperCase()))
+                .rate(Settings.decimal("load.rate", 50))
+                .users(Settings.integer("load.users", 4))
+                .pacing(Settings.duration("load.pacing", Duration.ZERO))
+                .warmup(Settings.duration("load.warmup", Duration.ofSeconds(5)))
+                .duration(Settings.duration("load.duration", Duration.ofSeconds(30)))
+                .mix(OperationMix.parse(Settings.string("load.mix", "createDocument:1,getAll:1,query:2")))
+                .build();
+    }
+}
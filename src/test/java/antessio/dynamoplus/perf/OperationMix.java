@@ -0,0 +1,59 @@
+package antessio.dynamoplus.perf;
+
+import antessio.dynamoplus.protocol.Operation;
+
+import java.util.*;
+
+/**
+ * Weighted choice among operations, parsed from strings like {@code createDocument:1,getAll:1,query:2}.
+ */
+public class OperationMix {
+
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    public OperationMix(Map<Operation, Integer> weights) {
+        List<Map.Entry<Operation, Integer>> entries = new ArrayList<>();
+        weights.entrySet().stream().filter(e -> e.getValue() > 0).forEach(entries::add);
+        if (entries.isEmpty()) {
+            throw new IllegalArgumentException("the operation mix is empty");
+        }
+        operations = new Operation[entries.size()];
+        cumulativeWeights = new int[entries.size()];
+        int total = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            total += entries.get(i).getValue();
+            operations[i] = entries.get(i).getKey();
+            cumulativeWeights[i] = total;
+        }
+        totalWeight = total;
+    }
+
+    public static OperationMix parse(String mix) {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            Operation operation = Arrays.stream(Operation.values())
+                    .filter(o -> o.getMetricName().equals(parts[0].trim()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("unknown operation " + parts[0]));
+            weights.put(operation, parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1);
+        }
+        return new OperationMix(weights);
+    }
+
+    public Operation next(Random random) {
+        int value = random.nextInt(totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    public List<Operation> getOperations() {
+        return Arrays.asList(operations);
+    }
+}
@@ -0,0 +1,39 @@
+package antessio.dynamoplus.perf;
+
+import antessio.dynamoplus.protocol.Operation;
+import lombok.Value;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measurements of one operation over a run. Histograms are in microseconds; {@code responseTime} is corrected for
+ * coordinated omission, {@code serviceTime} is the time actually spent waiting for the server.
+ */
+@Value
+public class OperationResult {
+
+    Operation operation;
+    Histogram responseTime;
+    Histogram serviceTime;
+    long errors;
+    Map<String, Long> errorsByType;
+    long elapsedNanos;
+
+    public long getCount() {
+        return serviceTime.getTotalCount() + errors;
+    }
+
+    public double getThroughput() {
+        return serviceTime.getTotalCount() / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    public double getErrorRate() {
+        return getCount() == 0 ? 0 : errors / (double) getCount();
+    }
+
+    public double percentileMillis(double percentile) {
+        return responseTime.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
@@ -0,0 +1,76 @@
+package antessio.dynamoplus.perf;
+
+import antessio.dynamoplus.protocol.Operation;
+import antessio.dynamoplus.sdk.SdkHttpException;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency recorders and error counters of one operation. Values are recorded in microseconds.
+ */
+class OperationStats {
+
+    static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Operation operation;
+    private final Recorder responseTime = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Recorder serviceTime = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+    private final Map<String, AtomicLong> errorsByType = new ConcurrentHashMap<>();
+
+    OperationStats(Operation operation) {
+        this.operation = operation;
+    }
+
+    /**
+     * @param intendedStartNanos when the request should have started, or the actual start when there is no schedule
+     */
+    void record(long intendedStartNanos, long startNanos, long endNanos) {
+        responseTime.recordValue(clamp(TimeUnit.NANOSECONDS.toMicros(endNanos - intendedStartNanos)));
+        serviceTime.recordValue(clamp(TimeUnit.NANOSECONDS.toMicros(endNanos - startNanos)));
+    }
+
+    void recordError(RuntimeException e) {
+        errors.increment();
+        String type = e instanceof SdkHttpException ? "http_" + ((SdkHttpException) e).getHttpCode() : e.getClass().getSimpleName();
+        errorsByType.computeIfAbsent(type, t -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * A request given up while still running: its response time so far is recorded, and it counts as an error.
+     */
+    void recordTimeout(long intendedStartNanos, long abandonedNanos) {
+        responseTime.recordValue(clamp(TimeUnit.NANOSECONDS.toMicros(abandonedNanos - intendedStartNanos)));
+        errors.increment();
+        errorsByType.computeIfAbsent("timeout", t -> new AtomicLong()).incrementAndGet();
+    }
+
+    void reset() {
+        responseTime.getIntervalHistogram();
+        serviceTime.getIntervalHistogram();
+        errors.reset();
+        errorsByType.clear();
+    }
+
+    OperationResult snapshot(long elapsedNanos) {
+        Histogram response = responseTime.getIntervalHistogram();
+        Histogram service = serviceTime.getIntervalHistogram();
+        return new OperationResult(operation, response, service, errors.sum(), errorsByTypeSnapshot(), elapsedNanos);
+    }
+
+    private Map<String, Long> errorsByTypeSnapshot() {
+        Map<String, Long> snapshot = new ConcurrentHashMap<>();
+        errorsByType.forEach((k, v) -> snapshot.put(k, v.get()));
+        return snapshot;
+    }
+
+    private static long clamp(long micros) {
+        return Math.max(0, Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+    }
+}
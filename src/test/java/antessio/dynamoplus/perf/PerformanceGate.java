@@ -0,0 +1,85 @@
+package antessio.dynamoplus.perf;
+
+import antessio.dynamoplus.DynamoPlusService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs a fixed workload against {@code DYNAMOPLUS_HOST} and fails when latency, throughput or error rate regress
+ * with respect to the committed baseline. Not part of the default run: {@code mvn test -Pperf}, with
+ * {@code -Dperf.tolerance=0.2} to change the allowed regression and {@code -Dperf.updateBaseline=true} to record the
+ * current measurements as the new baseline. Without a recorded baseline, or with an operation missing from it, the gate
+ * fails.
+ */
+public class PerformanceGate {
+
+    static final LoadProfile WORKLOAD = LoadProfile.builder()
+            .mode(LoadProfile.Mode.CLOSED)
+            .users(8)
+            .pacing(Duration.ZERO)
+            .warmup(Duration.ofSeconds(10))
+            .duration(Duration.ofSeconds(60))
+            .mix(OperationMix.parse("createDocument:1,getAll:1,query:2"))
+            .build();
+    static final String WORKLOAD_DESCRIPTION = "closed loop, 8 users, 10s warmup, 60s, createDocument:1,getAll:1,query:2, api_key, 10 categories, 100 authors, page size 20";
+
+    private static Path baselineFile;
+    private static boolean updateBaseline;
+    private static Baseline baseline;
+    private static String suffix;
+    private static BookWorkload workload;
+
+    @BeforeAll
+    static void setup() {
+        baselineFile = Paths.get(Settings.string("perf.baseline", "src/test/resources/perf/baseline.json"));
+        updateBaseline = Settings.bool("perf.updateBaseline", false);
+        if (!updateBaseline) {
+            baseline = Baseline.read(baselineFile);
+            // an empty baseline would let every run pass: refuse to run until one has been recorded
+            assertThat(baseline.getOperations())
+                    .as("operations of %s, record them with -Dperf.updateBaseline=true against the reference installation", baselineFile)
+                    .isNotEmpty();
+        }
+        suffix = DynamoPlusService.uniqueSuffix("__perf");
+        workload = BookWorkload.setup(suffix, "api_key", 10, 100, 20);
+    }
+
+    @AfterAll
+    static void cleanup() {
+        if (suffix != null) {
+            DynamoPlusService.getInstance().cleanup(suffix);
+        }
+    }
+
+    @DisplayName("Latency, throughput and error rate don't regress beyond the tolerance")
+    @Test
+    void noRegression() {
+        LoadReport report = new LoadGenerator(workload, WORKLOAD).run();
+        report.print(System.out);
+        report.writeHistograms(Settings.outputDirectory(), "perf-gate");
+
+        if (updateBaseline) {
+            Baseline.of(report, Settings.string("perf.description", "recorded against " + System.getenv("DYNAMOPLUS_HOST")), WORKLOAD_DESCRIPTION)
+                    .write(baselineFile);
+            System.out.println("baseline updated: " + baselineFile.toAbsolutePath());
+            return;
+        }
+        Map<String, BaselineMetrics> measured = new TreeMap<>();
+        report.getResults().values().forEach(r -> measured.put(r.getOperation().getMetricName(), BaselineMetrics.of(r)));
+        Reports.writeJson("perf-gate.json", Baseline.of(report, "current run", WORKLOAD_DESCRIPTION));
+
+        List<String> regressions = new RegressionCheck(Settings.decimal("perf.tolerance", 0.2)).regressions(baseline, measured);
+        assertThat(regressions).as("regressions with respect to %s", baselineFile).isEmpty();
+    }
+}
@@ -0,0 +1,48 @@
+package antessio.dynamoplus.perf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares measurements with a {@link Baseline}: latencies may grow and throughput may drop by at most
+ * {@code tolerance} (e.g. {@code 0.2} for 20%), the error rate may grow by at most one percentage point.
+ */
+public class RegressionCheck {
+
+    static final double ERROR_RATE_SLACK = 0.01;
+
+    private final double tolerance;
+
+    public RegressionCheck(double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * @return one message per regressed metric, empty when the measurements are within tolerance. An operation missing
+     * from the baseline is reported too, since nothing proves it didn't regress.
+     */
+    public List<String> regressions(Baseline baseline, Map<String, BaselineMetrics> measured) {
+        List<String> regressions = new ArrayList<>();
+        measured.forEach((operation, actual) -> {
+            BaselineMetrics expected = baseline.getOperations().get(operation);
+            if (expected == null) {
+                regressions.add(String.format("%s has no baseline, record one with -Dperf.updateBaseline=true", operation));
+                return;
+            }
+            if (actual.getP95() > expected.getP95() * (1 + tolerance)) {
+                regressions.add(String.format("%s p95 %.2f ms, baseline %.2f ms", operation, actual.getP95(), expected.getP95()));
+            }
+            if (actual.getP99() > expected.getP99() * (1 + tolerance)) {
+                regressions.add(String.format("%s p99 %.2f ms, baseline %.2f ms", operation, actual.getP99(), expected.getP99()));
+            }
+            if (actual.getThroughput() < expected.getThroughput() * (1 - tolerance)) {
+                regressions.add(String.format("%s throughput %.1f ops/s, baseline %.1f ops/s", operation, actual.getThroughput(), expected.getThroughput()));
+            }
+            if (actual.getErrorRate() > expected.getErrorRate() + ERROR_RATE_SLACK) {
+                regressions.add(String.format("%s error rate %.2f%%, baseline %.2f%%", operation, actual.getErrorRate() * 100, expected.getErrorRate() * 100));
+            }
+        });
+        return regressions;
+    }
+}
@@ -0,0 +1,48 @@
+package antessio.dynamoplus.perf;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RegressionCheckTest {
+
+    private final Baseline baseline = Baseline.builder()
+            .operations(new TreeMap<>(Collections.singletonMap("query", new BaselineMetrics(10, 20, 100, 0))))
+            .build();
+    private final RegressionCheck check = new RegressionCheck(0.2);
+
+    @DisplayName("Measurements within the tolerance pass")
+    @Test
+    void withinTolerance() {
+        Map<String, BaselineMetrics> measured = Collections.singletonMap("query", new BaselineMetrics(11.9, 23.9, 81, 0.005));
+
+        assertThat(check.regressions(baseline, measured)).isEmpty();
+    }
+
+    @DisplayName("Each metric beyond the tolerance is reported")
+    @Test
+    void beyondTolerance() {
+        Map<String, BaselineMetrics> measured = Collections.singletonMap("query", new BaselineMetrics(20, 40, 50, 0.05));
+
+        assertThat(check.regressions(baseline, measured))
+                .hasSize(4)
+                .allMatch(message -> message.startsWith("query "));
+    }
+
+    @DisplayName("Operations without a baseline fail the check")
+    @Test
+    void missingBaseline() {
+        Map<String, BaselineMetrics> measured = Collections.singletonMap("getAll", new BaselineMetrics(1, 1, 1000, 0));
+
+        List<String> regressions = check.regressions(baseline, measured);
+
+        assertThat(regressions).hasSize(1);
+        assertThat(regressions.get(0)).contains("getAll has no baseline");
+    }
+}
@@ -0,0 +1,30 @@
+package antessio.dynamoplus.perf;
+
+import antessio.dynamoplus.protocol.Wire;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes machine-readable results of the performance scenarios under {@link Settings#outputDirectory()}.
+ */
+public final class Reports {
+
+    private Reports() {
+    }
+
+    public static Path writeJson(String fileName, Object report) {
+        try {
+            Path directory = Settings.outputDirectory();
+            Files.createDirectories(directory);
+            Path file = directory.resolve(fileName);
+            Wire.MAPPER.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), report);
+            System.out.println("report written to " + file.toAbsolutePath());
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package antessio.dynamoplus.perf;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Reads the knobs of the performance runners from system properties, e.g. {@code -Dload.duration=60s}.
+ * Durations accept plain seconds ({@code 30}), a unit suffix ({@code 500ms}, {@code 30s}, {@code 5m}, {@code 2h})
+ * or the ISO-8601 format ({@code PT30S}).
+ */
+public final class Settings {
+
+    private Settings() {
+    }
+
+    public static String string(String name, String defaultValue) {
+        return Optional.ofNullable(System.getProperty(name)).filter(s -> !s.trim().isEmpty()).orElse(defaultValue);
+    }
+
+    public static int integer(String name, int defaultValue) {
+        return Integer.parseInt(string(name, String.valueOf(defaultValue)));
+    }
+
+    public static long longValue(String name, long defaultValue) {
+        return Long.parseLong(string(name, String.valueOf(defaultValue)));
+    }
+
+    public static double decimal(String name, double defaultValue) {
+        return Double.parseDouble(string(name, String.valueOf(defaultValue)));
+    }
+
+    public static boolean bool(String name, boolean defaultValue) {
+        return Boolean.parseBoolean(string(name, String.valueOf(defaultValue)));
+    }
+
+    public static Duration duration(String name, Duration defaultValue) {
+        return Optional.ofNullable(System.getProperty(name)).map(Settings::parseDuration).orElse(defaultValue);
+    }
+
+    public static Path outputDirectory() {
+        return Paths.get(string("perf.output", "target/perf"));
+    }
+
+    static Duration parseDuration(String value) {
+        String v = value.trim().toLowerCase();
+        if (v.startsWith("pt")) {
+            return Duration.parse(v.toUpperCase());
+        }
+        if (v.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        }
+        if (v.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(v.substring(0, v.length() - 1)));
+        }
+        if (v.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(v.substring(0, v.length() - 1)));
+        }
+        if (v.endsWith("h")) {
+            return Duration.ofHours(Long.parseLong(v.substring(0, v.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(v));
+    }
+}
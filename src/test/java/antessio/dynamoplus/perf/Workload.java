@@ -0,0 +1,14 @@
+package antessio.dynamoplus.perf;
+
+import antessio.dynamoplus.protocol.Operation;
+
+import java.util.Random;
+
+/**
+ * A set of requests the {@link LoadGenerator} can issue, one call per operation.
+ * Implementations are called concurrently and must be thread safe.
+ */
+public interface Workload {
+
+    void execute(Operation operation, Random random);
+}
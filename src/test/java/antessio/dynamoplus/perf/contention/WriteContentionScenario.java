@@ -0,0 +1,265 @@
+package antessio.dynamoplus.perf.contention;
+
+import antessio.dynamoplus.Clients;
+import antessio.dynamoplus.DynamoPlusService;
+import antessio.dynamoplus.client.DocumentStreams;
+import antessio.dynamoplus.dataset.ZipfDistribution;
+import antessio.dynamoplus.perf.LatencySummary;
+import antessio.dynamoplus.perf.Reports;
+import antessio.dynamoplus.perf.Settings;
+import antessio.dynamoplus.sdk.SDKV2;
+import antessio.dynamoplus.sdk.SdkHttpException;
+import lombok.Value;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Many writers on a few keys: {@code contention.writers} threads create and delete books and categories whose
+ * isbns and names are drawn from {@code contention.books} and {@code contention.categories} hot keys, with a Zipf skew
+ * taken from {@code contention.skew} (default {@code 0,1,1.5}, one step each, 0 meaning uniform).
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=antessio.dynamoplus.perf.contention.WriteContentionScenario \
+ *     -Dcontention.writers=64 -Dcontention.books=4 -Dcontention.duration=30s
+ * </pre>
+ * Every step reports the throughput of successful writes, conflicts (409 and 412), other errors by status, latency
+ * of successful and failed writes, and the share of the hottest key. Once the writers stop, the documents are read
+ * back and checked against a {@link WriteOracle}; the scenario exits with status 1 when a key ends up in a state no
+ * ordering of the writes explains. Other properties: {@code contention.deleteRatio} (0.2), {@code contention.duration}
+ * (20s). Results go to {@code write-contention.json}.
+ */
+public class WriteContentionScenario {
+
+    private static final Set<Integer> CONFLICT_STATUSES = new HashSet<>(Arrays.asList(409, 412));
+    @SuppressWarnings("unchecked")
+    private static final Class<Map<String, Object>> DOCUMENT = (Class<Map<String, Object>>) (Class<?>) Map.class;
+
+    private final SDKV2 sdk;
+    private final String suffix;
+    private final int writers;
+    private final double deleteRatio;
+
+    WriteContentionScenario(SDKV2 sdk, String suffix, int writers, double deleteRatio) {
+        this.sdk = sdk;
+        this.suffix = suffix;
+        this.writers = writers;
+        this.deleteRatio = deleteRatio;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        List<Double> skews = Arrays.stream(Settings.string("contention.skew", "0,1,1.5").split(","))
+                .map(String::trim).map(Double::valueOf).collect(Collectors.toList());
+        int books = Settings.integer("contention.books", 8);
+        int categories = Settings.integer("contention.categories", 4);
+        Duration duration = Settings.duration("contention.duration", Duration.ofSeconds(20));
+        String suffix = DynamoPlusService.uniqueSuffix("__contention");
+        DynamoPlusService.getInstance().setup(suffix);
+        WriteContentionScenario scenario = new WriteContentionScenario(
+                Clients.getIntance().getAdminClient(),
+                suffix,
+                Settings.integer("contention.writers", 32),
+                Settings.decimal("contention.deleteRatio", 0.2));
+        List<Step> steps = new ArrayList<>();
+        try {
+            for (int i = 0; i < skews.size(); i++) {
+                Step step = scenario.run("s" + i, skews.get(i), books, categories, duration);
+                System.out.println(step);
+                steps.add(step);
+            }
+        } finally {
+            DynamoPlusService.getInstance().cleanup(suffix);
+        }
+        Reports.writeJson("write-contention.json", steps);
+        if (steps.stream().anyMatch(s -> !s.getConsistency().isConsistent())) {
+            System.err.println("inconsistent final state, see write-contention.json");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * The hot keys of a collection and how their documents are built.
+     */
+    private static class KeySpace {
+        private final String collectionName;
+        private final String idKey;
+        private final String valueField;
+        private final List<String> keys;
+        private final ZipfDistribution distribution;
+        private final WriteOracle oracle = new WriteOracle();
+
+        KeySpace(String collectionName, String idKey, String valueField, String prefix, int size, double skew) {
+            this.collectionName = collectionName;
+            this.idKey = idKey;
+            this.valueField = valueField;
+            this.keys = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                keys.add(prefix + "-" + i);
+            }
+            this.distribution = new ZipfDistribution(size, skew);
+        }
+
+        Map<String, Object> document(String key, String value) {
+            Map<String, Object> document = new LinkedHashMap<>();
+            document.put(idKey, key);
+            document.put(valueField, value);
+            return document;
+        }
+    }
+
+    Step run(String name, double skew, int books, int categories, Duration duration) throws InterruptedException {
+        List<KeySpace> spaces = Arrays.asList(
+                new KeySpace(DynamoPlusService.bookCollectionName(suffix), "isbn", "title", "hot-" + name + "-isbn", books, skew),
+                new KeySpace(DynamoPlusService.categoryCollectionName(suffix), "name", "id", "hot-" + name + "-category", categories, skew));
+        for (KeySpace space : spaces) {
+            for (String key : space.keys) {
+                long start = System.nanoTime();
+                sdk.createDocument(space.collectionName, space.document(key, "seed"), Map.class);
+                space.oracle.record(key, WriteOracle.Kind.PUT, "seed", start, System.nanoTime(), WriteOracle.Outcome.ACKNOWLEDGED);
+            }
+        }
+        Counters counters = new Counters(books + categories);
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService pool = Executors.newFixedThreadPool(writers, r -> {
+            Thread t = new Thread(r, "contention-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        long start = System.nanoTime();
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            pool.execute(() -> write(writer, spaces, counters, deadline));
+        }
+        pool.shutdown();
+        pool.awaitTermination(duration.toMillis() + TimeUnit.MINUTES.toMillis(5), TimeUnit.MILLISECONDS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Map<String, List<String>> observed = new HashMap<>();
+        for (KeySpace space : spaces) {
+            try (Stream<Map<String, Object>> documents = DocumentStreams.getAll(sdk, space.collectionName, DOCUMENT,
+                    DocumentStreams.DEFAULT_PAGE_SIZE, DocumentStreams.DEFAULT_PREFETCH_DEPTH)) {
+                documents.filter(d -> space.keys.contains(String.valueOf(d.get(space.idKey))))
+                        .forEach(d -> observed.computeIfAbsent(String.valueOf(d.get(space.idKey)), k -> new ArrayList<>())
+                                .add(String.valueOf(d.get(space.valueField))));
+            }
+        }
+        WriteOracle.Verdict bookVerdict = spaces.get(0).oracle.check(observed);
+        WriteOracle.Verdict categoryVerdict = spaces.get(1).oracle.check(observed);
+        List<String> violations = new ArrayList<>(bookVerdict.getViolations());
+        violations.addAll(categoryVerdict.getViolations());
+        WriteOracle.Verdict verdict = new WriteOracle.Verdict(bookVerdict.getKeys() + categoryVerdict.getKeys(),
+                bookVerdict.getConsistentKeys() + categoryVerdict.getConsistentKeys(), violations);
+        return counters.step(name, skew, writers, seconds, verdict);
+    }
+
+    private void write(int writer, List<KeySpace> spaces, Counters counters, long deadline) {
+        Random random = ThreadLocalRandom.current();
+        int totalKeys = spaces.stream().mapToInt(s -> s.keys.size()).sum();
+        long sequence = 0;
+        while (System.nanoTime() < deadline) {
+            int spaceIndex = random.nextInt(totalKeys) < spaces.get(0).keys.size() ? 0 : 1;
+            KeySpace space = spaces.get(spaceIndex);
+            int rank = space.distribution.sample(random);
+            String key = space.keys.get(rank);
+            boolean delete = random.nextDouble() < deleteRatio;
+            String value = "w" + writer + "-" + sequence++;
+            counters.keyAttempts.incrementAndGet(spaceIndex == 0 ? rank : spaces.get(0).keys.size() + rank);
+            long start = System.nanoTime();
+            WriteOracle.Outcome outcome;
+            int status = 0;
+            try {
+                if (delete) {
+                    sdk.deleteDocument(key, space.collectionName);
+                } else {
+                    sdk.createDocument(space.collectionName, space.document(key, value), Map.class);
+                }
+                outcome = WriteOracle.Outcome.ACKNOWLEDGED;
+            } catch (SdkHttpException e) {
+                status = e.getHttpCode();
+                outcome = status >= 400 && status < 500 ? WriteOracle.Outcome.REJECTED : WriteOracle.Outcome.AMBIGUOUS;
+            } catch (RuntimeException e) {
+                outcome = WriteOracle.Outcome.AMBIGUOUS;
+            }
+            long end = System.nanoTime();
+            space.oracle.record(key, delete ? WriteOracle.Kind.DELETE : WriteOracle.Kind.PUT, value, start, end, outcome);
+            counters.record(outcome, status, end - start);
+        }
+    }
+
+    private static class Counters {
+        private final AtomicLong successes = new AtomicLong();
+        private final AtomicLong conflicts = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final Map<String, AtomicLong> failures = new ConcurrentHashMap<>();
+        private final Histogram successLatency = LatencySummary.newHistogram();
+        private final Histogram failureLatency = LatencySummary.newHistogram();
+        private final AtomicLongArray keyAttempts;
+
+        Counters(int keys) {
+            this.keyAttempts = new AtomicLongArray(keys);
+        }
+
+        void record(WriteOracle.Outcome outcome, int status, long nanos) {
+            long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+            if (outcome == WriteOracle.Outcome.ACKNOWLEDGED) {
+                successes.incrementAndGet();
+                synchronized (successLatency) {
+                    successLatency.recordValue(Math.min(micros, successLatency.getHighestTrackableValue()));
+                }
+                return;
+            }
+            if (CONFLICT_STATUSES.contains(status)) {
+                conflicts.incrementAndGet();
+            } else {
+                errors.incrementAndGet();
+            }
+            failures.computeIfAbsent(status == 0 ? "no response" : String.valueOf(status), s -> new AtomicLong()).incrementAndGet();
+            synchronized (failureLatency) {
+                failureLatency.recordValue(Math.min(micros, failureLatency.getHighestTrackableValue()));
+            }
+        }
+
+        Step step(String name, double skew, int writers, double seconds, WriteOracle.Verdict verdict) {
+            long attempts = successes.get() + conflicts.get() + errors.get();
+            long hottest = 0;
+            for (int i = 0; i < keyAttempts.length(); i++) {
+                hottest = Math.max(hottest, keyAttempts.get(i));
+            }
+            Map<String, Long> byStatus = new TreeMap<>();
+            failures.forEach((status, count) -> byStatus.put(status, count.get()));
+            return new Step(name, skew, writers, attempts,
+                    successes.get() / seconds,
+                    attempts == 0 ? 0 : conflicts.get() / (double) attempts,
+                    attempts == 0 ? 0 : errors.get() / (double) attempts,
+                    byStatus,
+                    attempts == 0 ? 0 : hottest / (double) attempts,
+                    LatencySummary.of(successLatency),
+                    LatencySummary.of(failureLatency),
+                    verdict);
+        }
+    }
+
+    @Value
+    static class Step {
+        String name;
+        double skew;
+        int writers;
+        long attempts;
+        double successfulWritesPerSecond;
+        double conflictRate;
+        double errorRate;
+        Map<String, Long> failuresByStatus;
+        /**
+         * Share of the attempts that went to the most written key.
+         */
+        double hottestKeyShare;
+        LatencySummary successLatency;
+        LatencySummary failureLatency;
+        WriteOracle.Verdict consistency;
+    }
+}
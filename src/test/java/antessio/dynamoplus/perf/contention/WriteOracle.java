@@ -0,0 +1,106 @@
+package antessio.dynamoplus.perf.contention;
+
+import lombok.Value;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+/**
+ * Decides which final states of a set of keys are consistent with the writes issued concurrently on them.
+ * <p>
+ * A write takes effect at some point between its start and its end. An acknowledged write can therefore be the last
+ * one applied to its key unless another acknowledged write started after it ended. A write whose outcome is unknown
+ * (timeout, server error) may have been applied at any time after its start, so it can always be the last one.
+ * Rejected writes never take effect. The value of a deleted key is {@link #ABSENT}.
+ */
+public class WriteOracle {
+
+    public static final String ABSENT = "<absent>";
+    private static final int MAX_VIOLATIONS = 20;
+
+    public enum Kind {
+        PUT, DELETE
+    }
+
+    public enum Outcome {
+        ACKNOWLEDGED, REJECTED, AMBIGUOUS
+    }
+
+    @Value
+    public static class Write {
+        Kind kind;
+        String value;
+        long startNanos;
+        long endNanos;
+        Outcome outcome;
+
+        String result() {
+            return kind == Kind.DELETE ? ABSENT : value;
+        }
+    }
+
+    @Value
+    public static class Verdict {
+        int keys;
+        int consistentKeys;
+        /**
+         * The first inconsistent keys, with what was observed and what was allowed.
+         */
+        List<String> violations;
+
+        public boolean isConsistent() {
+            return keys == consistentKeys;
+        }
+    }
+
+    private final Map<String, List<Write>> writes = new ConcurrentHashMap<>();
+
+    public void record(String key, Kind kind, String value, long startNanos, long endNanos, Outcome outcome) {
+        writes.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>()).add(new Write(kind, value, startNanos, endNanos, outcome));
+    }
+
+    public Set<String> getKeys() {
+        return Collections.unmodifiableSet(writes.keySet());
+    }
+
+    /**
+     * The values the key may hold once all its writes are over, {@link #ABSENT} meaning no document.
+     */
+    public Set<String> allowed(String key) {
+        List<Write> all = writes.getOrDefault(key, Collections.emptyList());
+        List<Write> acknowledged = all.stream().filter(w -> w.getOutcome() == Outcome.ACKNOWLEDGED).collect(Collectors.toList());
+        long latestStart = acknowledged.stream().mapToLong(Write::getStartNanos).max().orElse(Long.MIN_VALUE);
+        Set<String> allowed = new LinkedHashSet<>();
+        if (acknowledged.isEmpty()) {
+            allowed.add(ABSENT);
+        }
+        acknowledged.stream()
+                .filter(w -> w.getEndNanos() >= latestStart)
+                .forEach(w -> allowed.add(w.result()));
+        all.stream()
+                .filter(w -> w.getOutcome() == Outcome.AMBIGUOUS)
+                .forEach(w -> allowed.add(w.result()));
+        return allowed;
+    }
+
+    /**
+     * @param observed the values read back for each key: more than one means duplicate documents, none {@link #ABSENT}
+     */
+    public Verdict check(Map<String, List<String>> observed) {
+        int consistent = 0;
+        List<String> violations = new ArrayList<>();
+        for (String key : new TreeSet<>(writes.keySet())) {
+            List<String> values = observed.getOrDefault(key, Collections.emptyList());
+            Set<String> allowed = allowed(key);
+            boolean ok = values.size() <= 1 && allowed.contains(values.isEmpty() ? ABSENT : values.get(0));
+            if (ok) {
+                consistent++;
+            } else if (violations.size() < MAX_VIOLATIONS) {
+                violations.add(String.format("%s: observed %s, allowed %s", key, values.isEmpty() ? ABSENT : values, allowed));
+            }
+        }
+        return new Verdict(writes.size(), consistent, violations);
+    }
+}
@@ -0,0 +1,75 @@
+package antessio.dynamoplus.perf.contention;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static antessio.dynamoplus.perf.contention.WriteOracle.ABSENT;
+import static antessio.dynamoplus.perf.contention.WriteOracle.Kind.DELETE;
+import static antessio.dynamoplus.perf.contention.WriteOracle.Kind.PUT;
+import static antessio.dynamoplus.perf.contention.WriteOracle.Outcome.ACKNOWLEDGED;
+import static antessio.dynamoplus.perf.contention.WriteOracle.Outcome.AMBIGUOUS;
+import static antessio.dynamoplus.perf.contention.WriteOracle.Outcome.REJECTED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WriteOracleTest {
+
+    private final WriteOracle oracle = new WriteOracle();
+
+    @DisplayName("Only the writes not followed by another acknowledged write can be the last one")
+    @Test
+    void sequentialWrites() {
+        oracle.record("k", PUT, "a", 0, 10, ACKNOWLEDGED);
+        oracle.record("k", PUT, "b", 20, 30, ACKNOWLEDGED);
+        oracle.record("k", DELETE, null, 40, 50, REJECTED);
+
+        assertThat(oracle.allowed("k")).containsExactly("b");
+    }
+
+    @DisplayName("Overlapping writes may be applied in any order")
+    @Test
+    void overlappingWrites() {
+        oracle.record("k", PUT, "a", 0, 10, ACKNOWLEDGED);
+        oracle.record("k", PUT, "b", 5, 30, ACKNOWLEDGED);
+        oracle.record("k", DELETE, null, 8, 12, ACKNOWLEDGED);
+
+        assertThat(oracle.allowed("k")).containsExactlyInAnyOrder("a", "b", ABSENT);
+    }
+
+    @DisplayName("A write with an unknown outcome may always be the last one")
+    @Test
+    void ambiguousWrites() {
+        oracle.record("k", PUT, "a", 0, 10, AMBIGUOUS);
+        oracle.record("k", PUT, "b", 20, 30, ACKNOWLEDGED);
+
+        assertThat(oracle.allowed("k")).containsExactlyInAnyOrder("a", "b");
+    }
+
+    @DisplayName("Lost writes, resurrected documents and duplicates are violations")
+    @Test
+    void detectsViolations() {
+        oracle.record("lost", PUT, "a", 0, 10, ACKNOWLEDGED);
+        oracle.record("lost", PUT, "b", 20, 30, ACKNOWLEDGED);
+        oracle.record("resurrected", PUT, "a", 0, 10, ACKNOWLEDGED);
+        oracle.record("resurrected", DELETE, null, 20, 30, ACKNOWLEDGED);
+        oracle.record("duplicated", PUT, "a", 0, 10, ACKNOWLEDGED);
+        oracle.record("fine", PUT, "a", 0, 10, ACKNOWLEDGED);
+        Map<String, List<String>> observed = new HashMap<>();
+        observed.put("lost", Collections.singletonList("a"));
+        observed.put("resurrected", Collections.singletonList("a"));
+        observed.put("duplicated", Arrays.asList("a", "a"));
+        observed.put("fine", Collections.singletonList("a"));
+
+        WriteOracle.Verdict verdict = oracle.check(observed);
+
+        assertThat(verdict.isConsistent()).isFalse();
+        assertThat(verdict.getKeys()).isEqualTo(4);
+        assertThat(verdict.getConsistentKeys()).isEqualTo(1);
+        assertThat(verdict.getViolations()).hasSize(3);
+    }
+}
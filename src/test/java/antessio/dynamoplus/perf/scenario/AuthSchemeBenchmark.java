@@ -0,0 +1,162 @@
+package antessio.dynamoplus.perf.scenario;
+
+import antessio.dynamoplus.DynamoPlusService;
+import antessio.dynamoplus.perf.*;
+import antessio.dynamoplus.protocol.Operation;
+import lombok.Value;
+import org.HdrHistogram.Histogram;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Cost of the authentication schemes: the same read ({@code getAll}, {@code query}) and write ({@code createDocument})
+ * workloads run through a basic, an API key and an HTTP signature client at increasing concurrency.
+ * <p>
+ * For each run it reports throughput, end-to-end latency and the client CPU time per request, measured on the calling
+ * threads (signing, serialization and HTTP client work; the signing alone is isolated by the JMH
+ * {@code RequestSigningBenchmark}). The maximum sustainable throughput of a scheme is the highest one reached with a
+ * p99 within {@code auth.slo} and less than 1% errors.
+ * <p>
+ * Properties: {@code auth.schemes} (default {@code basic,api_key,http_signature}), {@code auth.concurrency}
+ * (default {@code 1,4,16,64}), {@code auth.warmup}, {@code auth.duration}, {@code auth.slo} (default 250ms).
+ * Results go to {@code auth-schemes.json}.
+ */
+public class AuthSchemeBenchmark {
+
+    static final Map<String, OperationMix> WORKLOADS = new LinkedHashMap<>();
+
+    static {
+        WORKLOADS.put("read", OperationMix.parse("getAll:1,query:1"));
+        WORKLOADS.put("write", OperationMix.parse("createDocument:1"));
+    }
+
+    public static void main(String[] args) {
+        List<String> schemes = Arrays.asList(Settings.string("auth.schemes", "basic,api_key,http_signature").split(","));
+        List<Integer> levels = Arrays.stream(Settings.string("auth.concurrency", "1,4,16,64").split(","))
+                .map(String::trim)
+                .map(Integer::valueOf)
+                .collect(Collectors.toList());
+        Duration warmup = Settings.duration("auth.warmup", Duration.ofSeconds(5));
+        Duration duration = Settings.duration("auth.duration", Duration.ofSeconds(20));
+        double sloMillis = Settings.duration("auth.slo", Duration.ofMillis(250)).toMillis();
+
+        String suffix = DynamoPlusService.uniqueSuffix("__auth_bench");
+        BookWorkload base = BookWorkload.setup(suffix, "basic", 10, 100, 20);
+        List<Run> runs = new ArrayList<>();
+        try {
+            for (String scheme : schemes) {
+                BookWorkload workload = base.withAuthType(suffix, scheme.trim());
+                for (Map.Entry<String, OperationMix> mix : WORKLOADS.entrySet()) {
+                    for (int users : levels) {
+                        LoadProfile profile = LoadProfile.builder()
+                                .mode(LoadProfile.Mode.CLOSED)
+                                .users(users)
+                                .warmup(warmup)
+                                .duration(duration)
+                                .mix(mix.getValue())
+                                .build();
+                        Run run = run(scheme.trim(), mix.getKey(), workload, profile);
+                        System.out.println(run);
+                        runs.add(run);
+                    }
+                }
+            }
+        } finally {
+            DynamoPlusService.getInstance().cleanup(suffix);
+        }
+        List<Sustainable> sustainable = sustainable(runs, sloMillis);
+        sustainable.forEach(System.out::println);
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("sloMillis", sloMillis);
+        report.put("runs", runs);
+        report.put("sustainable", sustainable);
+        Reports.writeJson("auth-schemes.json", report);
+    }
+
+    static Run run(String scheme, String workloadName, Workload workload, LoadProfile profile) {
+        CpuMeasuringWorkload measured = new CpuMeasuringWorkload(workload);
+        LoadReport report = new LoadGenerator(measured, profile).run();
+        Histogram latency = LatencySummary.newHistogram();
+        report.getResults().values().forEach(r -> latency.add(r.getResponseTime()));
+        long errors = report.getResults().values().stream().mapToLong(OperationResult::getErrors).sum();
+        long count = report.getResults().values().stream().mapToLong(OperationResult::getCount).sum();
+        return new Run(
+                scheme,
+                workloadName,
+                profile.getUsers(),
+                report.getTotalThroughput(),
+                LatencySummary.of(latency),
+                count == 0 ? 0 : errors / (double) count,
+                measured.getCpuMicrosPerRequest());
+    }
+
+    static List<Sustainable> sustainable(List<Run> runs, double sloMillis) {
+        return runs.stream()
+                .collect(Collectors.groupingBy(r -> r.getScheme() + "/" + r.getWorkload(), LinkedHashMap::new, Collectors.toList()))
+                .values().stream()
+                .map(group -> group.stream()
+                        .filter(r -> r.getLatency().getP99() <= sloMillis && r.getErrorRate() < 0.01)
+                        .max(Comparator.comparingDouble(Run::getThroughput))
+                        .map(r -> new Sustainable(r.getScheme(), r.getWorkload(), r.getThroughput(), r.getUsers()))
+                        .orElse(new Sustainable(group.get(0).getScheme(), group.get(0).getWorkload(), 0, 0)))
+                .collect(Collectors.toList());
+    }
+
+    @Value
+    static class Run {
+        String scheme;
+        String workload;
+        int users;
+        double throughput;
+        LatencySummary latency;
+        double errorRate;
+        double cpuMicrosPerRequest;
+    }
+
+    @Value
+    static class Sustainable {
+        String scheme;
+        String workload;
+        double maxThroughput;
+        int atUsers;
+    }
+
+    /**
+     * Adds up the CPU time the calling threads spend in each request.
+     */
+    static class CpuMeasuringWorkload implements Workload {
+        private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+        private final Workload delegate;
+        private final LongAdder cpuNanos = new LongAdder();
+        private final LongAdder requests = new LongAdder();
+
+        CpuMeasuringWorkload(Workload delegate) {
+            this.delegate = delegate;
+            if (THREADS.isThreadCpuTimeSupported() && !THREADS.isThreadCpuTimeEnabled()) {
+                THREADS.setThreadCpuTimeEnabled(true);
+            }
+        }
+
+        @Override
+        public void execute(Operation operation, Random random) {
+            long start = THREADS.getCurrentThreadCpuTime();
+            try {
+                delegate.execute(operation, random);
+            } finally {
+                cpuNanos.add(THREADS.getCurrentThreadCpuTime() - start);
+                requests.increment();
+            }
+        }
+
+        double getCpuMicrosPerRequest() {
+            long n = requests.sum();
+            return n == 0 ? 0 : cpuNanos.sum() / 1000.0 / n;
+        }
+    }
+}
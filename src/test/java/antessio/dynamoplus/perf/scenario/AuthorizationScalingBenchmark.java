@@ -0,0 +1,250 @@
+package antessio.dynamoplus.perf.scenario;
+
+import antessio.dynamoplus.Clients;
+import antessio.dynamoplus.DynamoPlusService;
+import antessio.dynamoplus.client.AsyncSdk;
+import antessio.dynamoplus.domain.Book;
+import antessio.dynamoplus.perf.LatencySummary;
+import antessio.dynamoplus.perf.Reports;
+import antessio.dynamoplus.perf.Settings;
+import antessio.dynamoplus.sdk.SDKV2;
+import antessio.dynamoplus.sdk.SdkHttpException;
+import antessio.dynamoplus.sdk.domain.system.clientauthorization.ClientAuthorizationApiKey;
+import antessio.dynamoplus.sdk.domain.system.clientauthorization.ClientAuthorizationHttpSignature;
+import antessio.dynamoplus.sdk.domain.system.clientauthorization.ClientScope;
+import lombok.Value;
+import org.HdrHistogram.Histogram;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Authorization lookups as the number of clients and of scopes per client grow.
+ * <p>
+ * For each number of scopes M, client authorizations with M scopes are provisioned up to each number of clients N
+ * (measuring the provisioning throughput), then two probe clients with M scopes issue {@code getAll} on the books:
+ * one has a {@code QUERY} scope on them and is allowed, the other only has scopes on other collections and gets 403.
+ * Any other outcome fails the benchmark, since it would measure something else than the authorization lookup.
+ * If lookups are constant-time the latency of both doesn't change with N and M; {@code growth} is the ratio between
+ * the p50 at the largest and at the smallest N.
+ * <p>
+ * Scopes other than the book one point to collections that are never created. Client authorizations can't be
+ * deleted through the SDK: their ids carry the run suffix, so runs don't collide, but those of a number of scopes stay
+ * on the server while the next ones are measured. Every step therefore reports {@code authorizations}, the total the
+ * server held when it was probed (probe clients included), next to N; growth ratios are between those totals too.
+ * Properties: {@code authz.clients} (default {@code 100,1000,5000}), {@code authz.scopes} (default {@code 1,10,50}),
+ * {@code authz.type} ({@code api_key} or {@code http_signature}), {@code authz.workers}, {@code authz.probes}.
+ * Results go to {@code authorization-scaling.json}.
+ */
+public class AuthorizationScalingBenchmark {
+
+    private final String suffix;
+    private final String bookCollectionName;
+    private final String type;
+    private final SDKV2 admin;
+    private final int workers;
+
+    AuthorizationScalingBenchmark(String suffix, String bookCollectionName, String type, SDKV2 admin, int workers) {
+        this.suffix = suffix;
+        this.bookCollectionName = bookCollectionName;
+        this.type = type;
+        this.admin = admin;
+        this.workers = workers;
+    }
+
+    public static void main(String[] args) {
+        List<Integer> clientCounts = integers(Settings.string("authz.clients", "100,1000,5000"));
+        List<Integer> scopeCounts = integers(Settings.string("authz.scopes", "1,10,50"));
+        int probes = Settings.integer("authz.probes", 200);
+        String suffix = DynamoPlusService.uniqueSuffix("__authz_bench");
+        DynamoPlusService.getInstance().setup(suffix);
+        AuthorizationScalingBenchmark benchmark = new AuthorizationScalingBenchmark(
+                suffix,
+                DynamoPlusService.bookCollectionName(suffix),
+                Settings.string("authz.type", "api_key"),
+                Clients.getIntance().getAdminClient(),
+                Settings.integer("authz.workers", 16));
+        List<Step> steps = new ArrayList<>();
+        int authorizations = 0;
+        try {
+            for (int scopes : scopeCounts) {
+                int provisioned = 0;
+                for (int clients : clientCounts) {
+                    Provisioning provisioning = benchmark.provision(scopes, provisioned, clients);
+                    provisioned = clients;
+                    // the two probe clients of the step
+                    authorizations += provisioning.getCreated() + 2;
+                    Step step = benchmark.probe(scopes, clients, authorizations, provisioning, probes);
+                    System.out.println(step);
+                    steps.add(step);
+                }
+            }
+        } finally {
+            DynamoPlusService.getInstance().cleanup(suffix);
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("steps", steps);
+        report.put("growth", growth(steps));
+        Reports.writeJson("authorization-scaling.json", report);
+    }
+
+    /**
+     * Creates the client authorizations {@code from} (inclusive) to {@code to} (exclusive) with {@code scopeCount}
+     * {@code QUERY} scopes, none of them on the books.
+     */
+    Provisioning provision(int scopeCount, int from, int to) {
+        List<ClientScope> scopes = scopes(scopeCount, false);
+        Histogram latency = LatencySummary.newHistogram();
+        long start = System.nanoTime();
+        try (AsyncSdk async = new AsyncSdk(admin, workers)) {
+            List<CompletableFuture<Object>> created = IntStream.range(from, to)
+                    .mapToObj(i -> async.submit(() -> {
+                        long t0 = System.nanoTime();
+                        Object authorization = create(String.format("client-id-authz-%d-%d-%s", scopeCount, i, suffix), scopes);
+                        long nanos = System.nanoTime() - t0;
+                        synchronized (latency) {
+                            record(latency, nanos);
+                        }
+                        return authorization;
+                    }))
+                    .collect(Collectors.toList());
+            AsyncSdk.joinAll(created);
+        }
+        long elapsed = System.nanoTime() - start;
+        int count = to - from;
+        return new Provisioning(count, count == 0 ? 0 : count / (elapsed / 1e9), LatencySummary.of(latency));
+    }
+
+    private Object create(String clientId, List<ClientScope> scopes) {
+        if ("http_signature".equals(type)) {
+            return admin.createClientAuthorizationHttpSignature(new ClientAuthorizationHttpSignature(clientId, scopes, Clients.getIntance().getPublicKey()));
+        }
+        return admin.createClientAuthorizationApiKey(new ClientAuthorizationApiKey(clientId, scopes, "api-key-" + clientId, Collections.emptyList()));
+    }
+
+    /**
+     * @param authorizations the client authorizations on the server once the probe clients are created
+     */
+    Step probe(int scopeCount, int clientCount, int authorizations, Provisioning provisioning, int probes) {
+        SDKV2 allowed = probeClient("allowed", scopeCount, clientCount, true);
+        SDKV2 denied = probeClient("denied", scopeCount, clientCount, false);
+        Histogram allowedLatency = LatencySummary.newHistogram();
+        Histogram deniedLatency = LatencySummary.newHistogram();
+        long unexpected = 0;
+        RuntimeException firstUnexpected = null;
+        for (int i = 0; i < probes; i++) {
+            long t0 = System.nanoTime();
+            try {
+                allowed.getAll(bookCollectionName, 1, null, Book.class);
+                record(allowedLatency, System.nanoTime() - t0);
+            } catch (RuntimeException e) {
+                unexpected++;
+                firstUnexpected = firstUnexpected == null ? e : firstUnexpected;
+            }
+            t0 = System.nanoTime();
+            try {
+                denied.getAll(bookCollectionName, 1, null, Book.class);
+                unexpected++;
+                firstUnexpected = firstUnexpected == null ? new IllegalStateException("the denied probe was allowed") : firstUnexpected;
+            } catch (SdkHttpException e) {
+                if (e.getHttpCode() == 403) {
+                    record(deniedLatency, System.nanoTime() - t0);
+                } else {
+                    unexpected++;
+                    firstUnexpected = firstUnexpected == null ? e : firstUnexpected;
+                }
+            } catch (RuntimeException e) {
+                unexpected++;
+                firstUnexpected = firstUnexpected == null ? e : firstUnexpected;
+            }
+        }
+        if (unexpected > 0) {
+            throw new IllegalStateException(String.format("%d of %d probes with %d clients and %d scopes had an unexpected outcome",
+                    unexpected, 2 * probes, clientCount, scopeCount), firstUnexpected);
+        }
+        return new Step(type, clientCount, authorizations, scopeCount, provisioning, LatencySummary.of(allowedLatency), LatencySummary.of(deniedLatency));
+    }
+
+    private static void record(Histogram histogram, long nanos) {
+        histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), histogram.getHighestTrackableValue()));
+    }
+
+    private SDKV2 probeClient(String name, int scopeCount, int clientCount, boolean allowed) {
+        String clientId = String.format("client-id-authz-probe-%s-%d-%d-%s", name, scopeCount, clientCount, suffix);
+        List<ClientScope> scopes = scopes(scopeCount, allowed);
+        if ("http_signature".equals(type)) {
+            return Clients.getIntance().createHttpSignature(clientId, scopes);
+        }
+        return Clients.getIntance().createClientApiKey(clientId, "api-key-" + clientId, scopes);
+    }
+
+    /**
+     * {@code count} {@code QUERY} scopes, the one {@code getAll} requires; the first one is on the books when
+     * {@code onBooks}.
+     */
+    private List<ClientScope> scopes(int count, boolean onBooks) {
+        List<ClientScope> scopes = new ArrayList<>();
+        for (int i = 0; scopes.size() < count; i++) {
+            String collectionName = onBooks && i == 0 ? bookCollectionName : String.format("scope_%d_%s", i, suffix);
+            scopes.add(new ClientScope(collectionName, ClientScope.ClientScopeType.QUERY));
+        }
+        return scopes;
+    }
+
+    static List<Growth> growth(List<Step> steps) {
+        return steps.stream()
+                .collect(Collectors.groupingBy(Step::getScopes, TreeMap::new, Collectors.toList()))
+                .entrySet().stream()
+                .map(e -> {
+                    Step first = e.getValue().get(0);
+                    Step last = e.getValue().get(e.getValue().size() - 1);
+                    return new Growth(e.getKey(), first.getClients(), last.getClients(), first.getAuthorizations(), last.getAuthorizations(),
+                            ratio(last.getAllowed().getP50(), first.getAllowed().getP50()),
+                            ratio(last.getDenied().getP50(), first.getDenied().getP50()));
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static double ratio(double a, double b) {
+        return b == 0 ? 0 : a / b;
+    }
+
+    private static List<Integer> integers(String values) {
+        return Arrays.stream(values.split(",")).map(String::trim).map(Integer::valueOf).collect(Collectors.toList());
+    }
+
+    @Value
+    static class Provisioning {
+        int created;
+        double perSecond;
+        LatencySummary latency;
+    }
+
+    @Value
+    static class Step {
+        String type;
+        int clients;
+        /**
+         * Client authorizations on the server when probed, including those provisioned for fewer scopes.
+         */
+        int authorizations;
+        int scopes;
+        Provisioning provisioning;
+        LatencySummary allowed;
+        LatencySummary denied;
+    }
+
+    @Value
+    static class Growth {
+        int scopes;
+        int fromClients;
+        int toClients;
+        int fromAuthorizations;
+        int toAuthorizations;
+        double allowedP50Ratio;
+        double deniedP50Ratio;
+    }
+}
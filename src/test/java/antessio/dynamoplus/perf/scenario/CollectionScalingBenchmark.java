@@ -0,0 +1,275 @@
+package antessio.dynamoplus.perf.scenario;
+
+import antessio.dynamoplus.Clients;
+import antessio.dynamoplus.DynamoPlusService;
+import antessio.dynamoplus.IndexDefinition;
+import antessio.dynamoplus.client.AsyncSdk;
+import antessio.dynamoplus.client.Gateway;
+import antessio.dynamoplus.client.GatewayListener;
+import antessio.dynamoplus.domain.Book;
+import antessio.dynamoplus.perf.HtmlReport;
+import antessio.dynamoplus.perf.LatencySummary;
+import antessio.dynamoplus.perf.Reports;
+import antessio.dynamoplus.perf.Settings;
+import antessio.dynamoplus.protocol.Operation;
+import antessio.dynamoplus.protocol.Wire;
+import antessio.dynamoplus.sdk.PaginatedResult;
+import antessio.dynamoplus.sdk.SDKV2;
+import antessio.dynamoplus.sdk.domain.conditions.PredicateBuilder;
+import antessio.dynamoplus.sdk.domain.document.query.Query;
+import antessio.dynamoplus.sdk.domain.system.collection.Collection;
+import antessio.dynamoplus.sdk.domain.system.collection.CollectionBuilder;
+import antessio.dynamoplus.sdk.domain.system.index.IndexBuilder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import lombok.Value;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Metadata operations as the number of tenants grows, a tenant being the category and book collections of a suffix
+ * with the indexes of {@link DynamoPlusService#setup(String)}.
+ * <p>
+ * Tenants are provisioned up to each count of {@code tenants.counts} (default {@code 100,1000,5000}) by
+ * {@code tenants.workers} threads, measuring {@code createCollection} and {@code createIndex}. Then
+ * {@code tenants.probes} {@code getAllCollections} calls measure the listing latency and payload, and as many
+ * queries by author on the books of random tenants measure the per-tenant query latency. The largest count at which
+ * every metadata p95 stays within {@code tenants.slo} (200ms by default), without any failed call, is reported as
+ * {@code maxTenantsWithinSlo}: failed calls are left out of the latencies, so a step where they fail would look fast.
+ * <p>
+ * The SDK can't delete collections: run it against the stand-in or a disposable deployment. Results go to
+ * {@code collection-scaling.json} and {@code collection-scaling.html}.
+ */
+public class CollectionScalingBenchmark {
+
+    private final String runSuffix;
+    private final SDKV2 admin;
+    private final int workers;
+    private final Random random = new Random();
+
+    CollectionScalingBenchmark(String runSuffix, SDKV2 admin, int workers) {
+        this.runSuffix = runSuffix;
+        this.admin = admin;
+        this.workers = workers;
+    }
+
+    public static void main(String[] args) {
+        List<Integer> tenantCounts = Arrays.stream(Settings.string("tenants.counts", "100,1000,5000").split(","))
+                .map(String::trim).map(Integer::valueOf).sorted().collect(Collectors.toList());
+        int probes = Settings.integer("tenants.probes", 100);
+        Duration slo = Settings.duration("tenants.slo", Duration.ofMillis(200));
+        CollectionScalingBenchmark benchmark = new CollectionScalingBenchmark(
+                DynamoPlusService.uniqueSuffix("__tenants"),
+                Clients.getIntance().getAdminClient(),
+                Settings.integer("tenants.workers", 16));
+        List<Step> steps = new ArrayList<>();
+        int provisioned = 0;
+        for (int tenants : tenantCounts) {
+            Provisioning provisioning = benchmark.provision(provisioned, tenants);
+            provisioned = tenants;
+            Step step = benchmark.probe(tenants, provisioning, probes);
+            System.out.println(step);
+            steps.add(step);
+        }
+        int maxTenantsWithinSlo = maxTenantsWithinSlo(steps, slo.toMillis());
+        System.out.println("max tenants with metadata p95 within " + slo.toMillis() + "ms and no failures: " + maxTenantsWithinSlo);
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("sloMillis", slo.toMillis());
+        report.put("maxTenantsWithinSlo", maxTenantsWithinSlo);
+        report.put("steps", steps);
+        Reports.writeJson("collection-scaling.json", report);
+        html(steps, slo, maxTenantsWithinSlo).write("collection-scaling.html");
+    }
+
+    String tenantSuffix(int tenant) {
+        return runSuffix + "_" + tenant;
+    }
+
+    /**
+     * Creates the tenants {@code from} (inclusive) to {@code to} (exclusive): both collections, then their indexes.
+     */
+    Provisioning provision(int from, int to) {
+        Histogram collections = LatencySummary.newHistogram();
+        Histogram indexes = LatencySummary.newHistogram();
+        AtomicLong failures = new AtomicLong();
+        long start = System.nanoTime();
+        try (AsyncSdk async = new AsyncSdk(admin, workers)) {
+            List<CompletableFuture<Void>> created = IntStream.range(from, to)
+                    .mapToObj(i -> async.submit(() -> {
+                        String suffix = tenantSuffix(i);
+                        Map<String, Collection> byName = new HashMap<>();
+                        for (Collection c : Arrays.asList(
+                                collection("name", DynamoPlusService.categoryCollectionName(suffix)),
+                                collection("isbn", DynamoPlusService.bookCollectionName(suffix)))) {
+                            byName.put(c.getName(), timed(collections, failures, () -> admin.createCollection(c)));
+                        }
+                        for (IndexDefinition index : DynamoPlusService.indexDefinitions(suffix)) {
+                            timed(indexes, failures, () -> admin.createIndex(new IndexBuilder()
+                                    .uid(UUID.randomUUID())
+                                    .collection(byName.get(index.getCollectionName()))
+                                    .orderingKey(index.getOrderingKey())
+                                    .conditions(index.getConditions())
+                                    .createIndex()));
+                        }
+                        return (Void) null;
+                    }))
+                    .collect(Collectors.toList());
+            AsyncSdk.joinAll(created);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        int count = to - from;
+        return new Provisioning(count, seconds == 0 ? 0 : count / seconds,
+                LatencySummary.of(collections), LatencySummary.of(indexes), failures.get());
+    }
+
+    private static Collection collection(String idKey, String name) {
+        return new CollectionBuilder()
+                .idKey(idKey)
+                .name(name)
+                .fields(Collections.emptyList())
+                .createCollection();
+    }
+
+    /**
+     * Records the latency of a successful call; failures are counted and return {@code null}.
+     */
+    private static <T> T timed(Histogram histogram, AtomicLong failures, Supplier<T> call) {
+        long t0 = System.nanoTime();
+        try {
+            T result = call.get();
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - t0);
+            synchronized (histogram) {
+                histogram.recordValue(Math.min(micros, histogram.getHighestTrackableValue()));
+            }
+            return result;
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            return null;
+        }
+    }
+
+    Step probe(int tenants, Provisioning provisioning, int probes) {
+        Histogram listing = LatencySummary.newHistogram();
+        Histogram queries = LatencySummary.newHistogram();
+        AtomicLong failures = new AtomicLong();
+        AtomicLong wireBytes = new AtomicLong(-1);
+        Optional<Gateway> gateway = Clients.getIntance().getGateway();
+        GatewayListener payload = exchange -> {
+            if (exchange.getEndpoint().getOperation() == Operation.GET_ALL_COLLECTIONS) {
+                wireBytes.set(exchange.getResponseBody().length);
+            }
+        };
+        gateway.ifPresent(g -> g.addListener(payload));
+        PaginatedResult<Collection> last = null;
+        try {
+            for (int i = 0; i < probes; i++) {
+                PaginatedResult<Collection> page = timed(listing, failures, admin::getAllCollections);
+                last = page == null ? last : page;
+            }
+        } finally {
+            gateway.ifPresent(g -> g.removeListener(payload));
+        }
+        Query byAuthor = new Query(new PredicateBuilder().withEq("author", "author-0"));
+        for (int i = 0; i < probes; i++) {
+            String bookCollectionName = DynamoPlusService.bookCollectionName(tenantSuffix(random.nextInt(tenants)));
+            timed(queries, failures, () -> admin.query(bookCollectionName, byAuthor, Book.class, 10, null));
+        }
+        int listed = last == null ? 0 : last.getData().size();
+        long payloadBytes = wireBytes.get() >= 0 ? wireBytes.get() : serializedSize(last);
+        return new Step(tenants, 2 * tenants, provisioning, LatencySummary.of(listing), listed, payloadBytes,
+                LatencySummary.of(queries), failures.get());
+    }
+
+    private static long serializedSize(PaginatedResult<Collection> page) {
+        if (page == null) {
+            return 0;
+        }
+        try {
+            return Wire.MAPPER.writeValueAsBytes(page.getData()).length;
+        } catch (JsonProcessingException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * The tenants of the last step before the first one with a metadata p95 over the SLO or a failed call.
+     */
+    static int maxTenantsWithinSlo(List<Step> steps, long sloMillis) {
+        int max = 0;
+        for (Step step : steps) {
+            if (step.getProvisioning().getFailures() > 0
+                    || step.getProbeFailures() > 0
+                    || step.getProvisioning().getCreateCollection().getP95() > sloMillis
+                    || step.getProvisioning().getCreateIndex().getP95() > sloMillis
+                    || step.getGetAllCollections().getP95() > sloMillis) {
+                break;
+            }
+            max = step.getTenants();
+        }
+        return max;
+    }
+
+    private static HtmlReport html(List<Step> steps, Duration slo, int maxTenantsWithinSlo) {
+        List<Integer> tenants = steps.stream().map(Step::getTenants).collect(Collectors.toList());
+        Map<String, List<Double>> metadata = new LinkedHashMap<>();
+        metadata.put("createCollection p95", values(steps, s -> s.getProvisioning().getCreateCollection().getP95()));
+        metadata.put("createIndex p95", values(steps, s -> s.getProvisioning().getCreateIndex().getP95()));
+        metadata.put("getAllCollections p95", values(steps, s -> s.getGetAllCollections().getP95()));
+        metadata.put("query p95", values(steps, s -> s.getQuery().getP95()));
+        Map<String, List<Double>> payload = new LinkedHashMap<>();
+        payload.put("getAllCollections KB", values(steps, s -> s.getGetAllCollectionsBytes() / 1024.0));
+        Map<String, List<Double>> throughput = new LinkedHashMap<>();
+        throughput.put("tenants provisioned/s", values(steps, s -> s.getProvisioning().getTenantsPerSecond()));
+        return new HtmlReport("Collection-count scaling")
+                .paragraph(String.format("Largest tenant count with every metadata p95 within %d ms and no failures: %d", slo.toMillis(), maxTenantsWithinSlo))
+                .lineChart("Latency", "tenants", "p95 (ms)", tenants, metadata)
+                .lineChart("getAllCollections payload", "tenants", "KB", tenants, payload)
+                .lineChart("Provisioning throughput", "tenants", "tenants/s", tenants, throughput)
+                .table(Arrays.asList("tenants", "collections", "createCollection p50", "createIndex p50",
+                                "getAllCollections p50", "listed", "payload bytes", "query p50", "failures"),
+                        steps.stream().map(s -> Arrays.<Object>asList(s.getTenants(), s.getCollections(),
+                                s.getProvisioning().getCreateCollection().getP50(), s.getProvisioning().getCreateIndex().getP50(),
+                                s.getGetAllCollections().getP50(), s.getListedCollections(), s.getGetAllCollectionsBytes(),
+                                s.getQuery().getP50(), s.getProvisioning().getFailures() + s.getProbeFailures()))
+                                .collect(Collectors.toList()));
+    }
+
+    private static List<Double> values(List<Step> steps, ToDoubleFunction<Step> metric) {
+        return steps.stream().map(metric::applyAsDouble).collect(Collectors.toList());
+    }
+
+    @Value
+    static class Provisioning {
+        int tenants;
+        double tenantsPerSecond;
+        LatencySummary createCollection;
+        LatencySummary createIndex;
+        long failures;
+    }
+
+    @Value
+    static class Step {
+        int tenants;
+        int collections;
+        Provisioning provisioning;
+        LatencySummary getAllCollections;
+        /**
+         * Collections in the first page returned by {@code getAllCollections}.
+         */
+        int listedCollections;
+        /**
+         * Size of the {@code getAllCollections} response on the wire, or of its data re-serialized without the gateway.
+         */
+        long getAllCollectionsBytes;
+        LatencySummary query;
+        long probeFailures;
+    }
+}
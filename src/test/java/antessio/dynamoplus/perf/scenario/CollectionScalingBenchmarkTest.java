@@ -0,0 +1,39 @@
+package antessio.dynamoplus.perf.scenario;
+
+import antessio.dynamoplus.perf.LatencySummary;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CollectionScalingBenchmarkTest {
+
+    private static final LatencySummary FAST = new LatencySummary(10, 20, 50, 80, 90);
+    private static final LatencySummary SLOW = new LatencySummary(10, 150, 400, 500, 600);
+    private static final LatencySummary NONE = new LatencySummary(0, 0, 0, 0, 0);
+
+    private static CollectionScalingBenchmark.Step step(int tenants, LatencySummary createCollection, long provisioningFailures,
+                                                        long probeFailures) {
+        CollectionScalingBenchmark.Provisioning provisioning = new CollectionScalingBenchmark.Provisioning(
+                tenants, 10, createCollection, FAST, provisioningFailures);
+        return new CollectionScalingBenchmark.Step(tenants, 2 * tenants, provisioning, FAST, 2 * tenants, 1024, FAST, probeFailures);
+    }
+
+    @DisplayName("The largest tenant count is the last step before a p95 over the SLO")
+    @Test
+    void stopsAtSlowSteps() {
+        assertThat(CollectionScalingBenchmark.maxTenantsWithinSlo(Arrays.asList(
+                step(100, FAST, 0, 0), step(1000, FAST, 0, 0), step(5000, SLOW, 0, 0)), 200)).isEqualTo(1000);
+    }
+
+    @DisplayName("A step with failed calls breaches the SLO, even when nothing was measured")
+    @Test
+    void stopsAtFailingSteps() {
+        assertThat(CollectionScalingBenchmark.maxTenantsWithinSlo(Arrays.asList(
+                step(100, FAST, 0, 0), step(1000, NONE, 2000, 0), step(5000, FAST, 0, 0)), 200)).isEqualTo(100);
+        assertThat(CollectionScalingBenchmark.maxTenantsWithinSlo(Arrays.asList(
+                step(100, FAST, 0, 3), step(1000, FAST, 0, 0)), 200)).isZero();
+    }
+}
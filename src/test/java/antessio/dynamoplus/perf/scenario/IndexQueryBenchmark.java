@@ -0,0 +1,171 @@
+package antessio.dynamoplus.perf.scenario;
+
+import antessio.dynamoplus.Clients;
+import antessio.dynamoplus.DynamoPlusService;
+import antessio.dynamoplus.dataset.DatasetGenerator;
+import antessio.dynamoplus.dataset.DatasetLoader;
+import antessio.dynamoplus.dataset.DatasetSpec;
+import antessio.dynamoplus.domain.Book;
+import antessio.dynamoplus.perf.LatencySummary;
+import antessio.dynamoplus.perf.Reports;
+import antessio.dynamoplus.perf.Settings;
+import antessio.dynamoplus.sdk.PaginatedResult;
+import antessio.dynamoplus.sdk.SDKV2;
+import antessio.dynamoplus.sdk.domain.conditions.Eq;
+import antessio.dynamoplus.sdk.domain.conditions.PredicateBuilder;
+import antessio.dynamoplus.sdk.domain.conditions.Range;
+import antessio.dynamoplus.sdk.domain.document.query.Query;
+import lombok.Value;
+import org.HdrHistogram.Histogram;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Latency of the queries served by the indexes created in {@link DynamoPlusService#setup(String)}, at different
+ * selectivities: {@code Eq} on author, title and category.name, {@code Range} on rating and
+ * {@code And(Eq category.name, Range rating)}. The range on rating alone is served by a {@code rating} index ordered
+ * by rating, which the benchmark creates next to those of the setup.
+ * <p>
+ * A query is measured end to end, walking every page. Properties: the {@code dataset.*} ones, {@code bench.suffix}
+ * and {@code bench.load=false} to reuse a dataset loaded before by this benchmark, {@code bench.iterations},
+ * {@code bench.pageSize}.
+ * Results go to {@code index-queries.json}.
+ */
+public class IndexQueryBenchmark {
+
+    private final SDKV2 sdk;
+    private final String bookCollectionName;
+    private final int pageSize;
+
+    public IndexQueryBenchmark(SDKV2 sdk, String bookCollectionName, int pageSize) {
+        this.sdk = sdk;
+        this.bookCollectionName = bookCollectionName;
+        this.pageSize = pageSize;
+    }
+
+    public static void main(String[] args) {
+        DatasetSpec spec = DatasetSpec.fromSettings();
+        String suffix = Settings.string("bench.suffix", DynamoPlusService.uniqueSuffix("__index_bench"));
+        SDKV2 admin = Clients.getIntance().getAdminClient();
+        if (Settings.bool("bench.load", true)) {
+            DynamoPlusService service = DynamoPlusService.getInstance();
+            service.setup(suffix);
+            service.getOrCreateIndex(Collections.singletonList("rating"),
+                    service.getOrCreateCollection("isbn", DynamoPlusService.bookCollectionName(suffix)), "rating");
+            System.out.println("dataset: " + new DatasetLoader(admin, 100, 16).load(new DatasetGenerator(spec), suffix));
+        }
+        IndexQueryBenchmark benchmark = new IndexQueryBenchmark(admin, DynamoPlusService.bookCollectionName(suffix), Settings.integer("bench.pageSize", 100));
+        List<Result> results = new ArrayList<>();
+        int iterations = Settings.integer("bench.iterations", 20);
+        for (QueryCase queryCase : cases(spec)) {
+            Result result = benchmark.run(queryCase, iterations, spec.getBooks());
+            System.out.println(result);
+            results.add(result);
+        }
+        Reports.writeJson("index-queries.json", results);
+    }
+
+    /**
+     * The query shapes, from the most to the least selective value of each field given the dataset skew.
+     */
+    static List<QueryCase> cases(DatasetSpec spec) {
+        String headAuthor = DatasetGenerator.author(0);
+        String midAuthor = DatasetGenerator.author(spec.getAuthors() / 10);
+        String tailAuthor = DatasetGenerator.author(spec.getAuthors() - 1);
+        String headCategory = DatasetGenerator.category(0).getName();
+        String tailCategory = DatasetGenerator.category(spec.getCategories() - 1).getName();
+        return Arrays.asList(
+                new QueryCase("eq", "author", "head", () -> eq("author", headAuthor)),
+                new QueryCase("eq", "author", "mid", () -> eq("author", midAuthor)),
+                new QueryCase("eq", "author", "tail", () -> eq("author", tailAuthor)),
+                new QueryCase("eq", "title", "single", () -> eq("title", DatasetGenerator.title(spec.getBooks() / 2))),
+                new QueryCase("eq", "category.name", "head", () -> eq("category.name", headCategory)),
+                new QueryCase("eq", "category.name", "tail", () -> eq("category.name", tailCategory)),
+                new QueryCase("range", "rating", "10..10", () -> new Query(new Range("rating", "10", "10"))),
+                new QueryCase("range", "rating", "08..10", () -> new Query(new Range("rating", "08", "10"))),
+                new QueryCase("and", "category.name+rating", "head 08..10", () -> and(headCategory, "08", "10")),
+                new QueryCase("and", "category.name+rating", "tail 10..10", () -> and(tailCategory, "10", "10"))
+        );
+    }
+
+    private static Query eq(String field, String value) {
+        return new Query(new PredicateBuilder().withEq(field, value));
+    }
+
+    private static Query and(String category, String from, String to) {
+        return new Query(new PredicateBuilder().withAnd(Arrays.asList(
+                new Eq("category.name", category),
+                new Range("rating", from, to))));
+    }
+
+    public Result run(QueryCase queryCase, int iterations, long collectionSize) {
+        Histogram latency = LatencySummary.newHistogram();
+        long rows = 0;
+        long pages = 0;
+        long totalNanos = 0;
+        int errors = 0;
+        String lastError = null;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            try {
+                String cursor = null;
+                do {
+                    PaginatedResult<Book> page = sdk.query(bookCollectionName, queryCase.getQuery().get(), Book.class, pageSize, cursor);
+                    pages++;
+                    rows += page.getData().size();
+                    cursor = Boolean.TRUE.equals(page.getHasMore()) ? page.getLastKey() : null;
+                } while (cursor != null);
+                long elapsed = System.nanoTime() - start;
+                totalNanos += elapsed;
+                latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(elapsed), latency.getHighestTrackableValue()));
+            } catch (RuntimeException e) {
+                errors++;
+                lastError = e.getMessage();
+            }
+        }
+        int succeeded = iterations - errors;
+        double rowsPerQuery = succeeded == 0 ? 0 : rows / (double) succeeded;
+        return new Result(
+                queryCase.getShape(),
+                queryCase.getIndex(),
+                queryCase.getSelectivity(),
+                rowsPerQuery,
+                collectionSize == 0 ? 0 : rowsPerQuery / collectionSize,
+                succeeded == 0 ? 0 : pages / (double) succeeded,
+                totalNanos == 0 ? 0 : rows / (totalNanos / 1e9),
+                LatencySummary.of(latency),
+                errors,
+                lastError);
+    }
+
+    @Value
+    static class QueryCase {
+        String shape;
+        String index;
+        String selectivity;
+        Supplier<Query> query;
+    }
+
+    @Value
+    public static class Result {
+        String shape;
+        String index;
+        String selectivity;
+        double rowsPerQuery;
+        double selectivityRatio;
+        double pagesPerQuery;
+        double rowsPerSecond;
+        LatencySummary latency;
+        int errors;
+        String lastError;
+
+        @Override
+        public String toString() {
+            return String.format("%-6s %-22s %-12s rows=%-9.0f pages=%-6.1f rows/s=%-10.0f p50=%.1fms p95=%.1fms p99=%.1fms errors=%d%s",
+                    shape, index, selectivity, rowsPerQuery, pagesPerQuery, rowsPerSecond,
+                    latency.getP50(), latency.getP95(), latency.getP99(), errors, lastError == null ? "" : " (" + lastError + ")");
+        }
+    }
+}
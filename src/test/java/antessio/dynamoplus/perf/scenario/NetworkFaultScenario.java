@@ -0,0 +1,128 @@
+package antessio.dynamoplus.perf.scenario;
+
+import antessio.dynamoplus.Clients;
+import antessio.dynamoplus.DynamoPlusService;
+import antessio.dynamoplus.perf.*;
+import antessio.dynamoplus.proxy.FaultProxy;
+import antessio.dynamoplus.proxy.Faults;
+import antessio.dynamoplus.standin.StandInServer;
+import lombok.Value;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * How the clients behave on a degraded network: a {@link FaultProxy} sits between the clients and the server, and the
+ * same open-loop book workload runs under increasing latency, limited bandwidth, connection resets and stalls.
+ * For each step it reports throughput, p99, errors by type and the peak number of live threads, which shows
+ * requests piling up behind the slow ones.
+ * <p>
+ * The clients connect to the proxy directly, without the gateway, whatever {@code dynamoplus.sharedTransport},
+ * {@code dynamoplus.requestMetrics}, {@code dynamoplus.record} and {@code dynamoplus.indexAdvisor} say. Resets are drawn per request.
+ * <p>
+ * Runs against the stand-in unless {@code fault.upstream} (or {@code DYNAMOPLUS_HOST}) names a local plain HTTP
+ * server. The SDK timeouts are set with {@code http.connectTimeout}, {@code http.readTimeout} and
+ * {@code http.writeTimeout}. Other properties: {@code fault.rate}, {@code fault.users}, {@code fault.duration}.
+ * Results go to {@code network-faults.json}.
+ */
+public class NetworkFaultScenario {
+
+    static final Map<String, Faults> STEPS = new LinkedHashMap<>();
+
+    static {
+        STEPS.put("none", Faults.NONE);
+        STEPS.put("latency 20ms", Faults.builder().latency(Duration.ofMillis(20)).build());
+        STEPS.put("latency 100ms jitter 100ms", Faults.builder().latency(Duration.ofMillis(100)).jitter(Duration.ofMillis(100)).build());
+        STEPS.put("bandwidth 32KB/s", Faults.builder().bandwidth(32 * 1024).build());
+        STEPS.put("resets 5%", Faults.builder().resetProbability(0.05).build());
+        STEPS.put("stalls 1% of 5s", Faults.builder().stallProbability(0.01).stallDuration(Duration.ofSeconds(5)).build());
+        STEPS.put("stalls 1% of 40s", Faults.builder().stallProbability(0.01).stallDuration(Duration.ofSeconds(40)).build());
+    }
+
+    public static void main(String[] args) {
+        String upstream = Settings.string("fault.upstream", Optional.ofNullable(System.getenv("DYNAMOPLUS_HOST")).orElse(Clients.STAND_IN_HOST));
+        if (Clients.STAND_IN_HOST.equals(upstream)) {
+            upstream = StandInServer.start(
+                    Optional.ofNullable(System.getenv("DYNAMOPLUS_ROOT")).orElse("root"),
+                    Optional.ofNullable(System.getenv("DYNAMOPLUS_PASSWORD")).orElse("12345")).getBaseUrl();
+        }
+        FaultProxy proxy = FaultProxy.start(upstream);
+        System.setProperty("dynamoplus.host", proxy.getBaseUrl());
+        // the proxy must sit right behind the SDK clients: a gateway in between would absorb the faults on its own pool
+        System.setProperty(Clients.SHARED_TRANSPORT, "false");
+        System.setProperty(Clients.REQUEST_METRICS, "false");
+        System.clearProperty(Clients.RECORD);
+        System.clearProperty(Clients.INDEX_ADVISOR);
+
+        String suffix = DynamoPlusService.uniqueSuffix("__faults");
+        BookWorkload workload = BookWorkload.setup(suffix, "api_key", 10, 100, 20);
+        LoadProfile profile = LoadProfile.builder()
+                .mode(LoadProfile.Mode.OPEN)
+                .rate(Settings.decimal("fault.rate", 50))
+                .users(Settings.integer("fault.users", 64))
+                .warmup(Duration.ofSeconds(2))
+                .duration(Settings.duration("fault.duration", Duration.ofSeconds(30)))
+                .mix(OperationMix.parse("createDocument:1,getAll:1,query:2"))
+                .build();
+        List<Step> steps = new ArrayList<>();
+        try {
+            for (Map.Entry<String, Faults> step : STEPS.entrySet()) {
+                proxy.setFaults(step.getValue());
+                Step result = run(step.getKey(), workload, profile);
+                System.out.println(result);
+                steps.add(result);
+            }
+        } finally {
+            proxy.setFaults(Faults.NONE);
+            DynamoPlusService.getInstance().cleanup(suffix);
+            proxy.close();
+        }
+        Reports.writeJson("network-faults.json", steps);
+    }
+
+    static Step run(String name, Workload workload, LoadProfile profile) {
+        AtomicInteger peakThreads = new AtomicInteger();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "thread-sampler");
+            t.setDaemon(true);
+            return t;
+        });
+        sampler.scheduleAtFixedRate(
+                () -> peakThreads.accumulateAndGet(ManagementFactory.getThreadMXBean().getThreadCount(), Math::max),
+                0, 100, TimeUnit.MILLISECONDS);
+        LoadReport report;
+        try {
+            report = new LoadGenerator(workload, profile).run();
+        } finally {
+            sampler.shutdownNow();
+        }
+        Map<String, Long> errors = new TreeMap<>();
+        long count = 0;
+        double p99 = 0;
+        for (OperationResult result : report.getResults().values()) {
+            result.getErrorsByType().forEach((type, n) -> errors.merge(type, n, Long::sum));
+            count += result.getCount();
+            p99 = Math.max(p99, result.percentileMillis(99));
+        }
+        long errorCount = errors.values().stream().mapToLong(Long::longValue).sum();
+        return new Step(name, report.getTotalThroughput(), p99, count == 0 ? 0 : errorCount / (double) count, errors, peakThreads.get());
+    }
+
+    @Value
+    static class Step {
+        String faults;
+        double throughput;
+        /**
+         * Worst p99 across operations, in milliseconds.
+         */
+        double p99;
+        double errorRate;
+        Map<String, Long> errors;
+        int peakThreads;
+    }
+}
@@ -0,0 +1,43 @@
+package antessio.dynamoplus.perf.soak;
+
+import java.util.List;
+
+/**
+ * Flags series that keep growing over a run: the samples are split in {@code windows} consecutive windows and the
+ * series is growing when the mean of each window is not below the previous one and the last mean exceeds the first
+ * by more than {@code threshold} (e.g. {@code 0.2} for 20%). Averaging over windows keeps sawtooth series, like the
+ * heap between collections, from being flagged.
+ */
+public class GrowthDetector {
+
+    private final int windows;
+    private final double threshold;
+
+    public GrowthDetector(int windows, double threshold) {
+        if (windows < 2) {
+            throw new IllegalArgumentException("at least two windows are needed");
+        }
+        this.windows = windows;
+        this.threshold = threshold;
+    }
+
+    public boolean isGrowing(List<? extends Number> series) {
+        if (series.size() < windows) {
+            return false;
+        }
+        double[] means = new double[windows];
+        for (int w = 0; w < windows; w++) {
+            int from = w * series.size() / windows;
+            int to = (w + 1) * series.size() / windows;
+            means[w] = series.subList(from, to).stream().mapToDouble(Number::doubleValue).average().orElse(0);
+        }
+        for (int w = 1; w < windows; w++) {
+            if (means[w] < means[w - 1]) {
+                return false;
+            }
+        }
+        double first = means[0];
+        double last = means[windows - 1];
+        return first <= 0 ? last > 0 : (last - first) / first > threshold;
+    }
+}
@@ -0,0 +1,42 @@
+package antessio.dynamoplus.perf.soak;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GrowthDetectorTest {
+
+    private final GrowthDetector detector = new GrowthDetector(5, 0.2);
+
+    @DisplayName("A series that keeps growing is flagged")
+    @Test
+    void flagsGrowth() {
+        List<Integer> leaking = IntStream.range(0, 50).map(i -> 100 + i * 2 + (i % 3)).boxed().collect(Collectors.toList());
+
+        assertThat(detector.isGrowing(leaking)).isTrue();
+    }
+
+    @DisplayName("A sawtooth around a stable level is not flagged")
+    @Test
+    void ignoresSawtooth() {
+        List<Integer> sawtooth = IntStream.range(0, 50).map(i -> 100 + (i % 10) * 10).boxed().collect(Collectors.toList());
+
+        assertThat(detector.isGrowing(sawtooth)).isFalse();
+    }
+
+    @DisplayName("Growth below the threshold or that levels off is not flagged")
+    @Test
+    void ignoresSmallOrBoundedGrowth() {
+        List<Integer> small = IntStream.range(0, 50).map(i -> 1000 + i).boxed().collect(Collectors.toList());
+        List<Integer> warmingUp = Arrays.asList(10, 50, 80, 100, 100, 100, 99, 100, 101, 100);
+
+        assertThat(detector.isGrowing(small)).isFalse();
+        assertThat(detector.isGrowing(warmingUp.subList(3, 10))).isFalse();
+    }
+}
@@ -0,0 +1,155 @@
+package antessio.dynamoplus.perf.soak;
+
+import antessio.dynamoplus.Clients;
+import antessio.dynamoplus.DynamoPlusService;
+import antessio.dynamoplus.client.TransportStats;
+import antessio.dynamoplus.perf.*;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Drives a steady book workload for hours and watches the client side for slow leaks:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=antessio.dynamoplus.perf.soak.SoakRunner \
+ *     -Dsoak.duration=4h -Dsoak.rate=50 -Dsoak.churn=1m
+ * </pre>
+ * A JFR recording ({@code soak.jfr}) covers the whole run, while heap, GC, threads, open files and sockets and the
+ * connections of the shared transport are sampled every {@code soak.sampleInterval}. Samples taken after
+ * {@code soak.warmup} are checked by a {@link GrowthDetector}; the runner exits with status 1 when a series keeps
+ * growing. With {@code soak.churn} the workload switches to a newly created client at that interval, as tests do.
+ * <p>
+ * Other properties: {@code soak.users}, {@code soak.mix}, {@code soak.auth}, {@code soak.threshold},
+ * {@code soak.windows}, {@code soak.jfr=false}. Results go to {@code soak.json} and {@code soak-samples.csv}.
+ */
+public class SoakRunner {
+
+    static final Map<String, ToLongFunction<SoakSample>> WATCHED = new LinkedHashMap<>();
+
+    static {
+        WATCHED.put("heapUsedAfterGc", SoakSample::getHeapUsedAfterGc);
+        WATCHED.put("threads", SoakSample::getThreads);
+        WATCHED.put("openFileDescriptors", SoakSample::getOpenFileDescriptors);
+        WATCHED.put("openSockets", SoakSample::getOpenSockets);
+        WATCHED.put("transportConnections", SoakSample::getTransportConnections);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Duration duration = Settings.duration("soak.duration", Duration.ofHours(4));
+        Duration warmup = Settings.duration("soak.warmup", Duration.ofMinutes(5));
+        Duration interval = Settings.duration("soak.sampleInterval", Duration.ofMinutes(1));
+        Duration churn = Settings.duration("soak.churn", Duration.ZERO);
+        String auth = Settings.string("soak.auth", "api_key");
+        LoadProfile profile = LoadProfile.builder()
+                .mode(LoadProfile.Mode.OPEN)
+                .rate(Settings.decimal("soak.rate", 20))
+                .users(Settings.integer("soak.users", 16))
+                .warmup(Duration.ZERO)
+                .duration(duration)
+                .mix(OperationMix.parse(Settings.string("soak.mix", "createDocument:1,getAll:1,query:2")))
+                .build();
+
+        String suffix = DynamoPlusService.uniqueSuffix("__soak");
+        BookWorkload base = BookWorkload.setup(suffix, auth, 10, 100, 20);
+        AtomicReference<BookWorkload> current = new AtomicReference<>(base);
+        LongAdder requests = new LongAdder();
+        Workload workload = (operation, random) -> {
+            requests.increment();
+            current.get().execute(operation, random);
+        };
+        SoakSampler sampler = new SoakSampler(
+                () -> Clients.getIntance().getTransportStats().map(TransportStats::getConnections).orElse(-1),
+                requests::sum);
+        List<SoakSample> samples = new CopyOnWriteArrayList<>();
+
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2, r -> {
+            Thread t = new Thread(r, "soak-sampler");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleAtFixedRate(() -> {
+            SoakSample sample = sampler.sample();
+            samples.add(sample);
+            System.out.println(sample);
+        }, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+        if (!churn.isZero()) {
+            scheduler.scheduleAtFixedRate(() -> current.set(base.withAuthType(DynamoPlusService.uniqueSuffix(suffix), auth)),
+                    churn.toMillis(), churn.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        Path output = Settings.outputDirectory();
+        Files.createDirectories(output);
+        Recording recording = null;
+        if (Settings.bool("soak.jfr", true)) {
+            recording = new Recording(defaultConfiguration());
+            recording.setName("soak");
+            recording.setToDisk(true);
+            recording.setDestination(output.resolve("soak.jfr"));
+            recording.start();
+        }
+        LoadReport report;
+        try {
+            report = new LoadGenerator(workload, profile).run();
+        } finally {
+            scheduler.shutdownNow();
+            if (recording != null) {
+                recording.stop();
+                recording.close();
+                System.out.println("recording written to " + output.resolve("soak.jfr").toAbsolutePath());
+            }
+            DynamoPlusService.getInstance().cleanup(suffix);
+        }
+        samples.add(sampler.sample());
+        report.print(System.out);
+
+        GrowthDetector detector = new GrowthDetector(Settings.integer("soak.windows", 5), Settings.decimal("soak.threshold", 0.2));
+        List<SoakSample> steady = samples.stream()
+                .filter(s -> s.getElapsedMillis() >= warmup.toMillis())
+                .collect(Collectors.toList());
+        List<String> growing = WATCHED.entrySet().stream()
+                .filter(e -> detector.isGrowing(steady.stream().map(s -> e.getValue().applyAsLong(s)).collect(Collectors.toList())))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        writeCsv(output.resolve("soak-samples.csv"), samples);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("growing", growing);
+        result.put("samples", samples);
+        Reports.writeJson("soak.json", result);
+        if (!growing.isEmpty()) {
+            System.out.println("monotonic growth: " + growing);
+            System.exit(1);
+        }
+    }
+
+    private static Configuration defaultConfiguration() throws IOException {
+        try {
+            return Configuration.getConfiguration("default");
+        } catch (ParseException e) {
+            throw new IOException("invalid JFR configuration", e);
+        }
+    }
+
+    private static void writeCsv(Path file, List<SoakSample> samples) {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+            out.println("elapsedMillis,heapUsed,heapUsedAfterGc,gcCount,gcTimeMillis,threads,openFileDescriptors,openSockets,transportConnections,requests");
+            samples.forEach(s -> out.printf("%d,%d,%d,%d,%d,%d,%d,%d,%d,%d%n",
+                    s.getElapsedMillis(), s.getHeapUsed(), s.getHeapUsedAfterGc(), s.getGcCount(), s.getGcTimeMillis(),
+                    s.getThreads(), s.getOpenFileDescriptors(), s.getOpenSockets(), s.getTransportConnections(), s.getRequests()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package antessio.dynamoplus.perf.soak;
+
+import lombok.Value;
+
+/**
+ * Client-side resource usage at one point of a soak run. Sizes are in bytes, times in milliseconds.
+ */
+@Value
+public class SoakSample {
+
+    long elapsedMillis;
+    long heapUsed;
+    /**
+     * Heap still used after the last collection of each pool: unlike {@code heapUsed} it only grows with live data.
+     */
+    long heapUsedAfterGc;
+    long gcCount;
+    long gcTimeMillis;
+    int threads;
+    long openFileDescriptors;
+    long openSockets;
+    int transportConnections;
+    long requests;
+}
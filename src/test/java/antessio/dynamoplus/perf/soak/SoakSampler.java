@@ -0,0 +1,81 @@
+package antessio.dynamoplus.perf.soak;
+
+import java.io.IOException;
+import java.lang.management.*;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Takes {@link SoakSample}s from the platform MXBeans. Open files and sockets are read from {@code /proc/self/fd},
+ * so they are {@code -1} outside Linux.
+ */
+class SoakSampler {
+
+    private static final Path FD_DIRECTORY = Paths.get("/proc/self/fd");
+
+    private final long start = System.nanoTime();
+    private final IntSupplier transportConnections;
+    private final LongSupplier requests;
+
+    SoakSampler(IntSupplier transportConnections, LongSupplier requests) {
+        this.transportConnections = transportConnections;
+        this.requests = requests;
+    }
+
+    SoakSample sample() {
+        long heapUsedAfterGc = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .map(MemoryPoolMXBean::getCollectionUsage)
+                .filter(usage -> usage != null)
+                .mapToLong(MemoryUsage::getUsed)
+                .sum();
+        long gcCount = 0;
+        long gcTime = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCount += Math.max(0, gc.getCollectionCount());
+            gcTime += Math.max(0, gc.getCollectionTime());
+        }
+        long[] fds = fileDescriptors();
+        return new SoakSample(
+                (System.nanoTime() - start) / 1_000_000,
+                ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed(),
+                heapUsedAfterGc,
+                gcCount,
+                gcTime,
+                ManagementFactory.getThreadMXBean().getThreadCount(),
+                fds[0],
+                fds[1],
+                transportConnections.getAsInt(),
+                requests.getAsLong());
+    }
+
+    /**
+     * @return the number of open file descriptors and how many of them are sockets
+     */
+    private static long[] fileDescriptors() {
+        if (!Files.isDirectory(FD_DIRECTORY)) {
+            return new long[]{-1, -1};
+        }
+        long files = 0;
+        long sockets = 0;
+        try (DirectoryStream<Path> fds = Files.newDirectoryStream(FD_DIRECTORY)) {
+            for (Path fd : fds) {
+                files++;
+                try {
+                    if (Files.readSymbolicLink(fd).toString().startsWith("socket:")) {
+                        sockets++;
+                    }
+                } catch (IOException e) {
+                    // closed while listing
+                }
+            }
+        } catch (IOException e) {
+            return new long[]{-1, -1};
+        }
+        return new long[]{files, sockets};
+    }
+}
@@ -0,0 +1,30 @@
+package antessio.dynamoplus.protocol;
+
+import java.util.function.Function;
+
+/**
+ * The authentication scheme of a request, detected from its headers.
+ */
+public enum AuthType {
+    basic, api_key, http_signature, none;
+
+    /**
+     * @param header case-insensitive header lookup, returning {@code null} when the header is missing
+     */
+    public static AuthType detect(Function<String, String> header) {
+        String authorization = header.apply("Authorization");
+        if (authorization != null && authorization.regionMatches(true, 0, "Basic ", 0, 6)) {
+            return basic;
+        }
+        if (authorization != null && authorization.regionMatches(true, 0, "Signature ", 0, 10)) {
+            return http_signature;
+        }
+        if (header.apply("Signature") != null) {
+            return http_signature;
+        }
+        if (header.apply(Wire.API_KEY_HEADER) != null) {
+            return api_key;
+        }
+        return none;
+    }
+}
@@ -0,0 +1,109 @@
+package antessio.dynamoplus.protocol;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * An HTTP request line resolved to the {@link Operation} it performs, together with the collection and the
+ * document id (when the path carries them).
+ */
+public class Endpoint {
+
+    private static final String COLLECTION = "collection";
+    private static final String INDEX = "index";
+    private static final String CLIENT_AUTHORIZATION = "client_authorization";
+    private static final String QUERY = "query";
+
+    private final Operation operation;
+    private final String collection;
+    private final String id;
+
+    private Endpoint(Operation operation, String collection, String id) {
+        this.operation = operation;
+        this.collection = collection;
+        this.id = id;
+    }
+
+    public static Endpoint resolve(String method, String path) {
+        String m = method.toUpperCase();
+        if (path.startsWith(Wire.SYSTEM_INFO_PATH)) {
+            return new Endpoint(Operation.SYSTEM_INFO, null, null);
+        }
+        if (!path.startsWith(Wire.BASE_PATH + "/")) {
+            return new Endpoint(Operation.UNKNOWN, null, null);
+        }
+        List<String> segments = Arrays.stream(path.substring(Wire.BASE_PATH.length() + 1).split("/"))
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toList());
+        if (segments.isEmpty()) {
+            return new Endpoint(Operation.UNKNOWN, null, null);
+        }
+        String first = segments.get(0);
+        String second = segments.size() > 1 ? segments.get(1) : null;
+        boolean isQuery = QUERY.equals(second) && segments.size() == 2 && m.equals("POST");
+        switch (first) {
+            case COLLECTION:
+                return system(m, second, isQuery, Operation.CREATE_COLLECTION, Operation.GET_COLLECTION, Operation.GET_ALL_COLLECTIONS);
+            case INDEX:
+                return system(m, second, isQuery, Operation.CREATE_INDEX, Operation.GET_INDEX, Operation.UNKNOWN);
+            case CLIENT_AUTHORIZATION:
+                return system(m, second, isQuery, Operation.CREATE_CLIENT_AUTHORIZATION, Operation.GET_CLIENT_AUTHORIZATION, Operation.UNKNOWN);
+            default:
+                return document(m, first, second, isQuery);
+        }
+    }
+
+    private static Endpoint system(String method, String id, boolean isQuery, Operation create, Operation get, Operation getAll) {
+        if (isQuery || (id == null && method.equals("GET"))) {
+            return new Endpoint(getAll, null, null);
+        }
+        if (id == null && method.equals("POST")) {
+            return new Endpoint(create, null, null);
+        }
+        if (id != null && method.equals("GET")) {
+            return new Endpoint(get, null, id);
+        }
+        return new Endpoint(Operation.UNKNOWN, null, id);
+    }
+
+    private static Endpoint document(String method, String collection, String id, boolean isQuery) {
+        if (isQuery) {
+            return new Endpoint(Operation.QUERY, collection, null);
+        }
+        if (id == null) {
+            switch (method) {
+                case "POST":
+                    return new Endpoint(Operation.CREATE_DOCUMENT, collection, null);
+                case "GET":
+                    return new Endpoint(Operation.GET_ALL, collection, null);
+                default:
+                    return new Endpoint(Operation.UNKNOWN, collection, null);
+            }
+        }
+        switch (method) {
+            case "GET":
+                return new Endpoint(Operation.GET_DOCUMENT, collection, id);
+            case "PUT":
+            case "PATCH":
+                return new Endpoint(Operation.UPDATE_DOCUMENT, collection, id);
+            case "DELETE":
+                return new Endpoint(Operation.DELETE_DOCUMENT, collection, id);
+            default:
+                return new Endpoint(Operation.UNKNOWN, collection, id);
+        }
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public Optional<String> getCollection() {
+        return Optional.ofNullable(collection);
+    }
+
+    public Optional<String> getId() {
+        return Optional.ofNullable(id);
+    }
+}
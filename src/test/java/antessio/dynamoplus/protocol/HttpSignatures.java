@@ -0,0 +1,118 @@
+package antessio.dynamoplus.protocol;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.*;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Helpers for the <a href="https://tools.ietf.org/html/draft-cavage-http-signatures">HTTP signatures</a> scheme used by
+ * {@code HttpSignatureCredentialsProviderBuilder}.
+ */
+public final class HttpSignatures {
+
+    public static final String REQUEST_TARGET = "(request-target)";
+    private static final Pattern PARAMETER = Pattern.compile("(\\w+)=\"([^\"]*)\"");
+
+    private HttpSignatures() {
+    }
+
+    /**
+     * Parses the parameters ({@code keyId}, {@code algorithm}, {@code headers}, {@code signature}) of a signature header.
+     */
+    public static Map<String, String> parse(String header) {
+        String value = header.regionMatches(true, 0, "Signature ", 0, 10) ? header.substring(10) : header;
+        Map<String, String> parameters = new HashMap<>();
+        Matcher matcher = PARAMETER.matcher(value);
+        while (matcher.find()) {
+            parameters.put(matcher.group(1), matcher.group(2));
+        }
+        return parameters;
+    }
+
+    public static List<String> signedHeaders(Map<String, String> parameters) {
+        return Arrays.asList(parameters.getOrDefault("headers", "date").toLowerCase().trim().split("\\s+"));
+    }
+
+    public static String signingString(String method, String pathAndQuery, List<String> signedHeaders, Function<String, String> header) {
+        StringJoiner joiner = new StringJoiner("\n");
+        for (String name : signedHeaders) {
+            if (REQUEST_TARGET.equals(name)) {
+                joiner.add(name + ": " + method.toLowerCase() + " " + pathAndQuery);
+            } else {
+                joiner.add(name + ": " + Optional.ofNullable(header.apply(name)).orElse(""));
+            }
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * Signs the signing string and returns the value of the {@code Authorization} header.
+     */
+    public static String authorization(String keyId, String algorithm, List<String> signedHeaders, String signingString, PrivateKey privateKey) {
+        return String.format("Signature keyId=\"%s\",algorithm=\"%s\",headers=\"%s\",signature=\"%s\"",
+                keyId, algorithm, String.join(" ", signedHeaders), sign(signingString, algorithm, privateKey));
+    }
+
+    public static String sign(String signingString, String algorithm, PrivateKey privateKey) {
+        try {
+            Signature signer = Signature.getInstance(javaAlgorithm(algorithm));
+            signer.initSign(privateKey);
+            signer.update(signingString.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(signer.sign());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("unable to sign the request", e);
+        }
+    }
+
+    public static boolean verify(String signingString, String base64Signature, String algorithm, PublicKey publicKey) {
+        try {
+            Signature verifier = Signature.getInstance(javaAlgorithm(algorithm));
+            verifier.initVerify(publicKey);
+            verifier.update(signingString.getBytes(StandardCharsets.UTF_8));
+            return verifier.verify(Base64.getDecoder().decode(base64Signature));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    public static PublicKey publicKey(String pem) {
+        try {
+            return KeyFactory.getInstance("RSA").generatePublic(new X509EncodedKeySpec(pemBody(pem)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("invalid public key", e);
+        }
+    }
+
+    public static PrivateKey privateKey(String pem) {
+        try {
+            return KeyFactory.getInstance("RSA").generatePrivate(new PKCS8EncodedKeySpec(pemBody(pem)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("invalid private key", e);
+        }
+    }
+
+    static byte[] pemBody(String pem) {
+        return Base64.getMimeDecoder().decode(pem.replaceAll("-----[A-Z ]+-----", ""));
+    }
+
+    static String javaAlgorithm(String algorithm) {
+        String name = Optional.ofNullable(algorithm).orElse("rsa-sha256").toLowerCase();
+        switch (name) {
+            case "rsa-sha1":
+                return "SHA1withRSA";
+            case "rsa-sha512":
+                return "SHA512withRSA";
+            default:
+                return "SHA256withRSA";
+        }
+    }
+}
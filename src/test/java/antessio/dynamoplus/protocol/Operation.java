@@ -0,0 +1,53 @@
+package antessio.dynamoplus.protocol;
+
+/**
+ * Logical operations exposed by the DynamoPlus HTTP API, named after the {@code SDKV2} methods that issue them.
+ */
+public enum Operation {
+    SYSTEM_INFO("systemInfo", true),
+    CREATE_COLLECTION("createCollection", false),
+    GET_COLLECTION("getCollection", true),
+    GET_ALL_COLLECTIONS("getAllCollections", true),
+    CREATE_INDEX("createIndex", false),
+    GET_INDEX("getIndex", true),
+    CREATE_CLIENT_AUTHORIZATION("createClientAuthorization", false),
+    GET_CLIENT_AUTHORIZATION("getClientAuthorization", true),
+    CREATE_DOCUMENT("createDocument", false),
+    GET_DOCUMENT("getDocument", true),
+    UPDATE_DOCUMENT("updateDocument", false),
+    DELETE_DOCUMENT("deleteDocument", false),
+    GET_ALL("getAll", true),
+    QUERY("query", true),
+    UNKNOWN("unknown", false);
+
+    private final String metricName;
+    private final boolean idempotent;
+
+    Operation(String metricName, boolean idempotent) {
+        this.metricName = metricName;
+        this.idempotent = idempotent;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+
+    public boolean isIdempotent() {
+        return idempotent;
+    }
+
+    public boolean isSystem() {
+        switch (this) {
+            case CREATE_COLLECTION:
+            case GET_COLLECTION:
+            case GET_ALL_COLLECTIONS:
+            case CREATE_INDEX:
+            case GET_INDEX:
+            case CREATE_CLIENT_AUTHORIZATION:
+            case GET_CLIENT_AUTHORIZATION:
+                return true;
+            default:
+                return false;
+        }
+    }
+}
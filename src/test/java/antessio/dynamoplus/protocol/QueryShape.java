@@ -0,0 +1,112 @@
+package antessio.dynamoplus.protocol;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.*;
+
+/**
+ * The structure of a query predicate: the fields matched by equality and the field (if any) matched by range.
+ * <p>
+ * A query can be served by an index whose conditions are the equality fields, plus at most the ordering key,
+ * and whose ordering key is the range field when there is one.
+ * Predicates travel as {@code {"matches": {"and": [{"eq": {"field_name": ..., "value": ...}}, {"range": {"field_name": ..., "from": ..., "to": ...}}]}}}.
+ */
+public class QueryShape {
+
+    public static final String MATCHES = "matches";
+    public static final String EQ = "eq";
+    public static final String RANGE = "range";
+    public static final String AND = "and";
+
+    private final List<String> eqFields;
+    private final String rangeField;
+
+    public QueryShape(List<String> eqFields, String rangeField) {
+        this.eqFields = Collections.unmodifiableList(new ArrayList<>(eqFields));
+        this.rangeField = rangeField;
+    }
+
+    /**
+     * @param body the query request body, or {@code null} for a full scan
+     */
+    public static QueryShape of(JsonNode body) {
+        List<String> eq = new ArrayList<>();
+        String[] range = new String[1];
+        predicate(body).ifPresent(p -> collect(p, eq, range));
+        return new QueryShape(eq, range[0]);
+    }
+
+    public static Optional<JsonNode> predicate(JsonNode body) {
+        if (body == null || !body.isObject()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(Optional.ofNullable(body.get(MATCHES)).orElse(body.get("predicate")))
+                .filter(JsonNode::isObject);
+    }
+
+    private static void collect(JsonNode predicate, List<String> eq, String[] range) {
+        if (predicate.has(AND)) {
+            predicate.get(AND).forEach(p -> collect(p, eq, range));
+        } else if (predicate.has(EQ)) {
+            Wire.text(predicate.get(EQ), "fieldName").ifPresent(eq::add);
+        } else if (predicate.has(RANGE)) {
+            range[0] = Wire.text(predicate.get(RANGE), "fieldName").orElse(null);
+        }
+    }
+
+    public List<String> getEqFields() {
+        return eqFields;
+    }
+
+    public Optional<String> getRangeField() {
+        return Optional.ofNullable(rangeField);
+    }
+
+    public boolean isScan() {
+        return eqFields.isEmpty() && rangeField == null;
+    }
+
+    /**
+     * The index conditions that would serve this query.
+     */
+    public List<String> requiredConditions() {
+        List<String> conditions = new ArrayList<>(eqFields);
+        getRangeField().ifPresent(conditions::add);
+        return conditions;
+    }
+
+    public boolean isServedBy(List<String> conditions, String orderingKey) {
+        if (isScan()) {
+            return true;
+        }
+        Set<String> partition = new HashSet<>(conditions);
+        if (orderingKey != null) {
+            partition.remove(orderingKey);
+        }
+        if (!partition.equals(new HashSet<>(eqFields))) {
+            return false;
+        }
+        return rangeField == null || rangeField.equals(orderingKey);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        QueryShape that = (QueryShape) o;
+        return new HashSet<>(eqFields).equals(new HashSet<>(that.eqFields)) && Objects.equals(rangeField, that.rangeField);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(new HashSet<>(eqFields), rangeField);
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(" AND ");
+        eqFields.forEach(f -> joiner.add(f + " = ?"));
+        getRangeField().ifPresent(f -> joiner.add(f + " BETWEEN ? AND ?"));
+        return isScan() ? "<scan>" : joiner.toString();
+    }
+}
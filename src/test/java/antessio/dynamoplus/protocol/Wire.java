@@ -0,0 +1,77 @@
+package antessio.dynamoplus.protocol;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Optional;
+
+/**
+ * Field names and JSON helpers for the DynamoPlus HTTP API as the SDK speaks it.
+ * <p>
+ * The server is written in Python and uses snake_case, while some SDK payloads are camelCase:
+ * lookups through {@link #field(JsonNode, String)} accept both spellings.
+ */
+public final class Wire {
+
+    public static final String BASE_PATH = "/dynamoplus";
+    public static final String SYSTEM_INFO_PATH = "/system/info";
+
+    public static final String DATA = "data";
+    public static final String HAS_MORE = "has_more";
+    public static final String LAST_KEY = "last_key";
+    public static final String MESSAGE = "msg";
+
+    public static final String LIMIT_PARAM = "limit";
+    public static final String START_FROM_PARAM = "start_from";
+
+    public static final String API_KEY_HEADER = "dynamoplus-api-key";
+    public static final String CLIENT_ID_HEADER = "dynamoplus-client-id";
+
+    public static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private Wire() {
+    }
+
+    public static Optional<JsonNode> field(JsonNode node, String camelCaseName) {
+        if (node == null || !node.isObject()) {
+            return Optional.empty();
+        }
+        JsonNode value = node.get(camelCaseName);
+        if (value == null) {
+            value = node.get(toSnakeCase(camelCaseName));
+        }
+        return Optional.ofNullable(value).filter(v -> !v.isNull());
+    }
+
+    public static Optional<String> text(JsonNode node, String camelCaseName) {
+        return field(node, camelCaseName).map(JsonNode::asText);
+    }
+
+    /**
+     * Resolves a dotted path such as {@code category.name} against a document.
+     */
+    public static Optional<JsonNode> path(JsonNode document, String dottedPath) {
+        JsonNode current = document;
+        for (String part : dottedPath.split("\\.")) {
+            if (current == null || !current.isObject()) {
+                return Optional.empty();
+            }
+            current = current.get(part);
+        }
+        return Optional.ofNullable(current).filter(v -> !v.isNull());
+    }
+
+    static String toSnakeCase(String camelCaseName) {
+        StringBuilder sb = new StringBuilder();
+        for (char c : camelCaseName.toCharArray()) {
+            if (Character.isUpperCase(c)) {
+                sb.append('_').append(Character.toLowerCase(c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
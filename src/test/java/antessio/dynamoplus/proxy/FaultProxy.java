@@ -0,0 +1,208 @@
+package antessio.dynamoplus.proxy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loopback TCP proxy that degrades the connection to a server as configured by its {@link Faults}, which can be
+ * changed while running. Bytes are forwarded untouched, so the upstream must speak plain HTTP (the stand-in or a local
+ * installation). Each connection uses two daemon threads, one per direction.
+ */
+public class FaultProxy implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final InetSocketAddress upstream;
+    private final ServerSocket server;
+    private final ExecutorService executor;
+    private volatile Faults faults = Faults.NONE;
+    private final AtomicLong connections = new AtomicLong();
+    private final AtomicLong resets = new AtomicLong();
+    private final AtomicLong stalls = new AtomicLong();
+
+    private FaultProxy(InetSocketAddress upstream) throws IOException {
+        this.upstream = upstream;
+        this.server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "fault-proxy");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.execute(this::accept);
+    }
+
+    /**
+     * Starts a proxy on an ephemeral loopback port in front of {@code upstreamUrl} (e.g. {@code http://localhost:3000}).
+     */
+    public static FaultProxy start(String upstreamUrl) {
+        URI uri = URI.create(upstreamUrl);
+        int port = uri.getPort() != -1 ? uri.getPort() : 80;
+        try {
+            return new FaultProxy(new InetSocketAddress(uri.getHost(), port));
+        } catch (IOException e) {
+            throw new IllegalStateException("unable to start the fault proxy", e);
+        }
+    }
+
+    public String getBaseUrl() {
+        return "http://" + server.getInetAddress().getHostAddress() + ":" + server.getLocalPort();
+    }
+
+    public Faults getFaults() {
+        return faults;
+    }
+
+    public void setFaults(Faults faults) {
+        this.faults = faults;
+    }
+
+    public long getConnections() {
+        return connections.get();
+    }
+
+    public long getResets() {
+        return resets.get();
+    }
+
+    public long getStalls() {
+        return stalls.get();
+    }
+
+    @Override
+    public void close() {
+        try {
+            server.close();
+        } catch (IOException e) {
+            // closing anyway
+        }
+        executor.shutdownNow();
+    }
+
+    private void accept() {
+        while (!server.isClosed()) {
+            try {
+                Socket client = server.accept();
+                connections.incrementAndGet();
+                executor.execute(() -> connect(client));
+            } catch (IOException e) {
+                if (!server.isClosed()) {
+                    System.err.println("fault proxy: " + e);
+                }
+            }
+        }
+    }
+
+    private void connect(Socket client) {
+        Socket server;
+        try {
+            server = new Socket();
+            server.connect(upstream);
+        } catch (IOException e) {
+            abort(client);
+            return;
+        }
+        AtomicBoolean awaitingResponse = new AtomicBoolean();
+        AtomicInteger open = new AtomicInteger(2);
+        executor.execute(() -> pump(client, server, client, server, true, awaitingResponse, open));
+        pump(server, client, client, server, false, awaitingResponse, open);
+    }
+
+    /**
+     * Copies {@code from} to {@code to}, degrading the stream, until either side closes. The sockets are closed once
+     * both directions are done.
+     * <p>
+     * Bytes sent to the server mark a request as awaiting its response; the first chunk of the response draws whether
+     * the connection is reset, so that keep-alive connections are reset per request and not once per connection.
+     */
+    private void pump(Socket from, Socket to, Socket client, Socket server, boolean toServer, AtomicBoolean awaitingResponse,
+                      AtomicInteger open) {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try {
+            InputStream in = from.getInputStream();
+            OutputStream out = to.getOutputStream();
+            int read;
+            while ((read = in.read(buffer, 0, chunkSize())) != -1) {
+                if (toServer) {
+                    awaitingResponse.set(true);
+                } else if (awaitingResponse.getAndSet(false)
+                        && ThreadLocalRandom.current().nextDouble() < faults.getResetProbability()) {
+                    resets.incrementAndGet();
+                    abort(client);
+                    abort(server);
+                    return;
+                }
+                delay(read);
+                out.write(buffer, 0, read);
+                out.flush();
+            }
+            to.shutdownOutput();
+            if (open.decrementAndGet() == 0) {
+                close(client);
+                close(server);
+            }
+        } catch (IOException e) {
+            abort(client);
+            abort(server);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort(client);
+            abort(server);
+        }
+    }
+
+    /**
+     * Reads at most a tenth of a second worth of data when the bandwidth is limited, so that pacing stays smooth.
+     */
+    private int chunkSize() {
+        long bandwidth = faults.getBandwidth();
+        return bandwidth <= 0 ? BUFFER_SIZE : (int) Math.max(1, Math.min(BUFFER_SIZE, bandwidth / 10));
+    }
+
+    private void delay(int bytes) throws InterruptedException {
+        Faults current = faults;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long nanos = current.getLatency().toNanos();
+        if (!current.getJitter().isZero()) {
+            nanos += (long) (random.nextDouble() * current.getJitter().toNanos());
+        }
+        if (current.getBandwidth() > 0) {
+            nanos += TimeUnit.SECONDS.toNanos(bytes) / current.getBandwidth();
+        }
+        if (current.getStallProbability() > 0 && random.nextDouble() < current.getStallProbability()) {
+            stalls.incrementAndGet();
+            nanos += current.getStallDuration().toNanos();
+        }
+        if (nanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        }
+    }
+
+    private static void close(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // already closed
+        }
+    }
+
+    /**
+     * Closes with a TCP reset instead of an orderly shutdown.
+     */
+    private static void abort(Socket socket) {
+        try {
+            socket.setSoLinger(true, 0);
+        } catch (IOException e) {
+            // already closed
+        }
+        close(socket);
+    }
+}
@@ -0,0 +1,70 @@
+package antessio.dynamoplus.proxy;
+
+import antessio.dynamoplus.protocol.Wire;
+import antessio.dynamoplus.standin.StandInServer;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class FaultProxyTest {
+
+    private final StandInServer standIn = StandInServer.start("root", "12345");
+    private final FaultProxy proxy = FaultProxy.start(standIn.getBaseUrl());
+    private final OkHttpClient client = new OkHttpClient.Builder().retryOnConnectionFailure(false).build();
+    private final Request systemInfo = new Request.Builder().url(proxy.getBaseUrl() + Wire.SYSTEM_INFO_PATH).build();
+
+    @AfterEach
+    void tearDown() {
+        proxy.close();
+        standIn.stop();
+    }
+
+    @DisplayName("Without faults requests go through untouched")
+    @Test
+    void forwards() throws IOException {
+        try (Response response = client.newCall(systemInfo).execute()) {
+            assertThat(response.code()).isEqualTo(200);
+            assertThat(response.body().string()).contains("stand-in");
+        }
+    }
+
+    @DisplayName("Latency is added to each direction")
+    @Test
+    void addsLatency() throws IOException {
+        proxy.setFaults(Faults.builder().latency(Duration.ofMillis(100)).build());
+
+        long start = System.nanoTime();
+        client.newCall(systemInfo).execute().close();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(200));
+    }
+
+    @DisplayName("Reset connections fail the request")
+    @Test
+    void resetsConnections() {
+        proxy.setFaults(Faults.builder().resetProbability(1).build());
+
+        assertThatThrownBy(() -> client.newCall(systemInfo).execute().close()).isInstanceOf(IOException.class);
+        assertThat(proxy.getResets()).isEqualTo(1);
+    }
+
+    @DisplayName("Resets are drawn for each request of a keep-alive connection")
+    @Test
+    void resetsRequestsOfOpenConnections() throws IOException {
+        client.newCall(systemInfo).execute().close();
+        proxy.setFaults(Faults.builder().resetProbability(1).build());
+
+        assertThatThrownBy(() -> client.newCall(systemInfo).execute().close()).isInstanceOf(IOException.class);
+        assertThat(proxy.getConnections()).isEqualTo(1);
+        assertThat(proxy.getResets()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,45 @@
+package antessio.dynamoplus.proxy;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Network degradation applied by a {@link FaultProxy}.
+ */
+@Value
+@Builder
+public class Faults {
+
+    public static final Faults NONE = Faults.builder().build();
+
+    /**
+     * Delay added to every chunk of data, in both directions.
+     */
+    @Builder.Default
+    Duration latency = Duration.ZERO;
+    /**
+     * Upper bound of a random delay added to {@code latency}.
+     */
+    @Builder.Default
+    Duration jitter = Duration.ZERO;
+    /**
+     * Bytes per second in each direction of a connection, {@code 0} for no limit.
+     */
+    @Builder.Default
+    long bandwidth = 0;
+    /**
+     * Probability that a request fails with a connection reset when the first bytes of its response arrive, drawn for
+     * each request of a keep-alive connection.
+     */
+    @Builder.Default
+    double resetProbability = 0;
+    /**
+     * Probability that a chunk of data is held for {@code stallDuration} before being forwarded.
+     */
+    @Builder.Default
+    double stallProbability = 0;
+    @Builder.Default
+    Duration stallDuration = Duration.ofSeconds(5);
+}
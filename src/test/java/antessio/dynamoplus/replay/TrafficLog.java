@@ -0,0 +1,161 @@
+package antessio.dynamoplus.replay;
+
+import antessio.dynamoplus.protocol.AuthType;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Binary log of the {@link TrafficRecord}s of one run. The file starts with a magic number and a version, followed by
+ * the records one after the other, so it can be written and read as a stream:
+ * <pre>
+ * offsetNanos:long timestampMillis:long durationNanos:long method:utf path:utf hasQuery:boolean [rawQuery:utf]
+ * authType:byte headerCount:short (name:utf value:utf)* bodyLength:int body:byte[] status:short responseBytes:int
+ * </pre>
+ */
+public final class TrafficLog {
+
+    static final int MAGIC = 0x44505452;
+    static final int VERSION = 1;
+
+    private TrafficLog() {
+    }
+
+    /**
+     * Creates the log, replacing an existing one: record offsets are relative to the start of the run, so the records
+     * of two runs can't share a log.
+     */
+    public static Writer create(Path file) throws IOException {
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE), 64 * 1024));
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        return new Writer(out);
+    }
+
+    public static Reader read(Path file) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024));
+        if (in.readInt() != MAGIC) {
+            in.close();
+            throw new IOException(file + " is not a traffic log");
+        }
+        int version = in.readUnsignedShort();
+        if (version != VERSION) {
+            in.close();
+            throw new IOException("unsupported traffic log version " + version);
+        }
+        return new Reader(in);
+    }
+
+    public static class Writer implements Closeable, Flushable {
+        private final DataOutputStream out;
+
+        private Writer(DataOutputStream out) {
+            this.out = out;
+        }
+
+        public synchronized void write(TrafficRecord record) throws IOException {
+            out.writeLong(record.getOffsetNanos());
+            out.writeLong(record.getTimestampMillis());
+            out.writeLong(record.getDurationNanos());
+            out.writeUTF(record.getMethod());
+            out.writeUTF(record.getPath());
+            out.writeBoolean(record.getRawQuery() != null);
+            if (record.getRawQuery() != null) {
+                out.writeUTF(record.getRawQuery());
+            }
+            out.writeByte(record.getAuthType().ordinal());
+            int headerCount = record.getHeaders().values().stream().mapToInt(List::size).sum();
+            out.writeShort(headerCount);
+            for (Map.Entry<String, List<String>> header : record.getHeaders().entrySet()) {
+                for (String value : header.getValue()) {
+                    out.writeUTF(header.getKey());
+                    out.writeUTF(value);
+                }
+            }
+            out.writeInt(record.getBody().length);
+            out.write(record.getBody());
+            out.writeShort(record.getStatus());
+            out.writeInt(record.getResponseBytes());
+        }
+
+        @Override
+        public synchronized void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            out.close();
+        }
+    }
+
+    public static class Reader implements Iterator<TrafficRecord>, Closeable {
+        private final DataInputStream in;
+        private TrafficRecord next;
+        private boolean done;
+
+        private Reader(DataInputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !done) {
+                next = readRecord();
+                done = next == null;
+            }
+            return next != null;
+        }
+
+        @Override
+        public TrafficRecord next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            TrafficRecord record = next;
+            next = null;
+            return record;
+        }
+
+        /**
+         * @return the next record, {@code null} at the end of the log (a record truncated by a crash included)
+         */
+        private TrafficRecord readRecord() {
+            try {
+                long offset = in.readLong();
+                long timestamp = in.readLong();
+                long duration = in.readLong();
+                String method = in.readUTF();
+                String path = in.readUTF();
+                String rawQuery = in.readBoolean() ? in.readUTF() : null;
+                AuthType authType = AuthType.values()[in.readUnsignedByte()];
+                int headerCount = in.readUnsignedShort();
+                Map<String, List<String>> headers = new LinkedHashMap<>();
+                for (int i = 0; i < headerCount; i++) {
+                    headers.computeIfAbsent(in.readUTF(), k -> new ArrayList<>()).add(in.readUTF());
+                }
+                byte[] body = new byte[in.readInt()];
+                in.readFully(body);
+                int status = in.readUnsignedShort();
+                int responseBytes = in.readInt();
+                return new TrafficRecord(offset, timestamp, duration, method, path, rawQuery, authType, headers, body, status, responseBytes);
+            } catch (EOFException e) {
+                return null;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package antessio.dynamoplus.replay;
+
+import antessio.dynamoplus.protocol.AuthType;
+import antessio.dynamoplus.protocol.Endpoint;
+import lombok.Value;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One recorded HTTP exchange: the request as sent, with the status, size and duration of its response.
+ */
+@Value
+public class TrafficRecord {
+
+    /**
+     * Time since the start of the recording.
+     */
+    long offsetNanos;
+    long timestampMillis;
+    long durationNanos;
+    String method;
+    String path;
+    /**
+     * Raw query string, {@code null} when missing.
+     */
+    String rawQuery;
+    AuthType authType;
+    Map<String, List<String>> headers;
+    byte[] body;
+    int status;
+    int responseBytes;
+
+    public String header(String name) {
+        return headers.entrySet().stream()
+                .filter(e -> e.getKey().equalsIgnoreCase(name))
+                .flatMap(e -> e.getValue().stream())
+                .findFirst()
+                .orElse(null);
+    }
+
+    public String getPathAndQuery() {
+        return rawQuery == null ? path : path + "?" + rawQuery;
+    }
+
+    public Endpoint getEndpoint() {
+        return Endpoint.resolve(method, path);
+    }
+}
@@ -0,0 +1,64 @@
+package antessio.dynamoplus.replay;
+
+import antessio.dynamoplus.client.Exchange;
+import antessio.dynamoplus.client.GatewayListener;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes every exchange relayed by the {@code Gateway} to a new {@link TrafficLog}, replacing the log of a previous
+ * run. Credentials are recorded as they are sent: keep the logs private.
+ */
+public class TrafficRecorder implements GatewayListener, Closeable {
+
+    private static final Set<String> SKIPPED_HEADERS = new HashSet<>(Arrays.asList(
+            "host", "connection", "keep-alive", "content-length", "transfer-encoding", "accept-encoding"));
+
+    private final TrafficLog.Writer writer;
+    private final long startMillis = System.currentTimeMillis();
+    private long failures;
+
+    public TrafficRecorder(Path file) throws IOException {
+        this.writer = TrafficLog.create(file);
+    }
+
+    @Override
+    public void onExchange(Exchange exchange) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        exchange.getRequestHeaders().forEach((name, values) -> {
+            if (!SKIPPED_HEADERS.contains(name.toLowerCase())) {
+                headers.put(name, new ArrayList<>(values));
+            }
+        });
+        TrafficRecord record = new TrafficRecord(
+                TimeUnit.MILLISECONDS.toNanos(Math.max(0, exchange.getTimestampMillis() - startMillis)),
+                exchange.getTimestampMillis(),
+                exchange.getDurationNanos(),
+                exchange.getMethod(),
+                exchange.getPath(),
+                exchange.getRawQuery(),
+                exchange.getAuthType(),
+                headers,
+                exchange.getRequestBody(),
+                exchange.getStatus(),
+                exchange.getResponseBody().length);
+        try {
+            writer.write(record);
+        } catch (IOException e) {
+            synchronized (this) {
+                if (failures++ == 0) {
+                    System.err.println("unable to record the traffic: " + e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,273 @@
+package antessio.dynamoplus.replay;
+
+import antessio.dynamoplus.Clients;
+import antessio.dynamoplus.client.SharedTransport;
+import antessio.dynamoplus.client.TransportSettings;
+import antessio.dynamoplus.perf.LatencySummary;
+import antessio.dynamoplus.perf.Reports;
+import antessio.dynamoplus.perf.Settings;
+import antessio.dynamoplus.protocol.AuthType;
+import antessio.dynamoplus.protocol.HttpSignatures;
+import antessio.dynamoplus.protocol.Operation;
+import lombok.Value;
+import okhttp3.*;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.PrivateKey;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Re-issues a {@link TrafficLog} against a server and compares the latencies with the recorded ones:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=antessio.dynamoplus.replay.TrafficReplayer \
+ *     -Dreplay.log=target/perf/traffic.log -Dreplay.target=http://localhost:3000 -Dreplay.speed=4 -Dreplay.lanes=8
+ * </pre>
+ * {@code replay.speed} scales the recorded pacing ({@code 1} is the original one, {@code 0} as fast as possible).
+ * Requests are spread over {@code replay.lanes} by client, so the requests of each client keep their order. Admin
+ * writes (collections, indexes, client authorizations) are barriers: they run alone, once every request before them
+ * has completed, so that the requests depending on them find them. HTTP signatures are signed again with a fresh
+ * {@code Date}, with {@code replay.privateKey} (a PEM file) or the key of {@link Clients}. The log should start from
+ * an empty server state, as the suite does: collections, indexes and client authorizations are created by the
+ * recorded requests themselves. Requests that can't be sent count as errors.
+ */
+public class TrafficReplayer {
+
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.RFC_1123_DATE_TIME;
+    private static final TrafficRecord END = new TrafficRecord(0, 0, 0, "", "", null, AuthType.none, Collections.emptyMap(), new byte[0], 0, 0);
+
+    private final HttpUrl target;
+    private final SharedTransport transport;
+    private final double speed;
+    private final int lanes;
+    private final PrivateKey privateKey;
+
+    /**
+     * @param privateKey key signing again the HTTP signature requests, may be {@code null} when there are none
+     */
+    public TrafficReplayer(String target, SharedTransport transport, double speed, int lanes, PrivateKey privateKey) {
+        this.target = HttpUrl.get(target);
+        this.transport = transport;
+        this.speed = speed;
+        this.lanes = lanes;
+        this.privateKey = privateKey;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path log = Paths.get(Settings.string("replay.log", Settings.outputDirectory().resolve("traffic.log").toString()));
+        String privateKeyFile = Settings.string("replay.privateKey", null);
+        String pem = privateKeyFile == null
+                ? Clients.PRIVATE_KEY
+                : new String(java.nio.file.Files.readAllBytes(Paths.get(privateKeyFile)));
+        TrafficReplayer replayer = new TrafficReplayer(
+                Settings.string("replay.target", Optional.ofNullable(System.getenv("DYNAMOPLUS_HOST")).orElse("http://localhost:3000")),
+                new SharedTransport(TransportSettings.fromSettings()),
+                Settings.decimal("replay.speed", 1),
+                Settings.integer("replay.lanes", 4),
+                HttpSignatures.privateKey(pem));
+        List<ReplayResult> results = replayer.replay(log);
+        results.forEach(System.out::println);
+        Reports.writeJson("replay.json", results);
+    }
+
+    public List<ReplayResult> replay(Path log) throws IOException, InterruptedException {
+        Map<String, Stats> stats = new ConcurrentHashMap<>();
+        List<BlockingQueue<TrafficRecord>> queues = new ArrayList<>();
+        Outstanding outstanding = new Outstanding();
+        ExecutorService workers = Executors.newFixedThreadPool(lanes, r -> {
+            Thread t = new Thread(r, "replay-lane");
+            t.setDaemon(true);
+            return t;
+        });
+        long start = System.nanoTime();
+        for (int i = 0; i < lanes; i++) {
+            BlockingQueue<TrafficRecord> queue = new ArrayBlockingQueue<>(1024);
+            queues.add(queue);
+            workers.execute(() -> lane(queue, start, stats, outstanding));
+        }
+        try (TrafficLog.Reader reader = TrafficLog.read(log)) {
+            while (reader.hasNext()) {
+                TrafficRecord record = reader.next();
+                if (isAdminWrite(record)) {
+                    outstanding.await();
+                    execute(record, start, stats);
+                } else {
+                    outstanding.add();
+                    queues.get(Math.floorMod(principal(record).hashCode(), lanes)).put(record);
+                }
+            }
+        } finally {
+            for (BlockingQueue<TrafficRecord> queue : queues) {
+                queue.put(END);
+            }
+            workers.shutdown();
+            workers.awaitTermination(1, TimeUnit.HOURS);
+        }
+        return stats.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(e -> e.getValue().result(e.getKey()))
+                .collect(Collectors.toList());
+    }
+
+    private void lane(BlockingQueue<TrafficRecord> queue, long start, Map<String, Stats> stats, Outstanding outstanding) {
+        try {
+            for (TrafficRecord record = queue.take(); record != END; record = queue.take()) {
+                try {
+                    execute(record, start, stats);
+                } finally {
+                    outstanding.done();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Sends the record at its (scaled) offset. Any failure, including one building the request, counts as an error
+     * instead of stopping the lane.
+     */
+    private void execute(TrafficRecord record, long start, Map<String, Stats> stats) {
+        if (speed > 0) {
+            long due = start + (long) (record.getOffsetNanos() / speed);
+            for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+                LockSupport.parkNanos(wait);
+            }
+        }
+        Stats s = stats.computeIfAbsent(record.getEndpoint().getOperation().getMetricName(), k -> new Stats());
+        long t0 = System.nanoTime();
+        try (Response response = transport.execute(request(record))) {
+            if (response.body() != null) {
+                response.body().bytes();
+            }
+            s.record(record, System.nanoTime() - t0, response.code());
+        } catch (IOException | RuntimeException e) {
+            s.error();
+        }
+    }
+
+    /**
+     * Collections, indexes and client authorizations: the requests after them may depend on them.
+     */
+    static boolean isAdminWrite(TrafficRecord record) {
+        Operation operation = record.getEndpoint().getOperation();
+        return operation.isSystem() && !operation.isIdempotent();
+    }
+
+    Request request(TrafficRecord record) {
+        HttpUrl url = target.newBuilder().encodedPath(record.getPath()).encodedQuery(record.getRawQuery()).build();
+        Request.Builder request = new Request.Builder().url(url);
+        record.getHeaders().forEach((name, values) -> values.forEach(value -> request.addHeader(name, value)));
+        if (record.getAuthType() == AuthType.http_signature) {
+            resign(record, request);
+        }
+        String contentType = record.header("Content-Type");
+        boolean hasBody = record.getBody().length > 0 || Arrays.asList("POST", "PUT", "PATCH").contains(record.getMethod());
+        return request.method(record.getMethod(), hasBody
+                ? RequestBody.create(contentType == null ? null : MediaType.parse(contentType), record.getBody())
+                : null)
+                .build();
+    }
+
+    private void resign(TrafficRecord record, Request.Builder request) {
+        boolean inAuthorization = record.header("Authorization") != null;
+        Map<String, String> parameters = HttpSignatures.parse(inAuthorization ? record.header("Authorization") : record.header("Signature"));
+        List<String> signedHeaders = HttpSignatures.signedHeaders(parameters);
+        Map<String, String> headers = new HashMap<>();
+        record.getHeaders().forEach((name, values) -> headers.put(name.toLowerCase(), values.get(0)));
+        headers.put("date", HTTP_DATE.format(ZonedDateTime.now(ZoneOffset.UTC)));
+        headers.put("host", target.host() + (target.port() == HttpUrl.defaultPort(target.scheme()) ? "" : ":" + target.port()));
+        request.header("Date", headers.get("date"));
+        String signingString = HttpSignatures.signingString(record.getMethod(), record.getPathAndQuery(), signedHeaders, name -> headers.get(name.toLowerCase()));
+        String authorization = HttpSignatures.authorization(parameters.get("keyId"), parameters.get("algorithm"), signedHeaders, signingString, privateKey);
+        if (inAuthorization) {
+            request.header("Authorization", authorization);
+        } else {
+            request.header("Signature", authorization.substring("Signature ".length()));
+        }
+    }
+
+    /**
+     * The client issuing the request, so that its requests go through the same lane.
+     */
+    static String principal(TrafficRecord record) {
+        switch (record.getAuthType()) {
+            case api_key:
+                return "api_key:" + record.header("dynamoplus-client-id");
+            case http_signature:
+                String header = Optional.ofNullable(record.header("Authorization")).orElse(record.header("Signature"));
+                return "http_signature:" + HttpSignatures.parse(header).get("keyId");
+            default:
+                return record.getAuthType() + ":" + record.header("Authorization");
+        }
+    }
+
+    /**
+     * Requests handed to the lanes and not completed yet.
+     */
+    private static class Outstanding {
+        private int count;
+
+        synchronized void add() {
+            count++;
+        }
+
+        synchronized void done() {
+            if (--count == 0) {
+                notifyAll();
+            }
+        }
+
+        synchronized void await() throws InterruptedException {
+            while (count > 0) {
+                wait();
+            }
+        }
+    }
+
+    @Value
+    public static class ReplayResult {
+        String operation;
+        long count;
+        LatencySummary recorded;
+        LatencySummary replayed;
+        double p50DeltaMillis;
+        double p99DeltaMillis;
+        long statusMismatches;
+        long errors;
+    }
+
+    private static class Stats {
+        private final Histogram recorded = LatencySummary.newHistogram();
+        private final Histogram replayed = LatencySummary.newHistogram();
+        private long statusMismatches;
+        private long errors;
+
+        synchronized void record(TrafficRecord record, long nanos, int status) {
+            recorded.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(record.getDurationNanos()), recorded.getHighestTrackableValue()));
+            replayed.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), replayed.getHighestTrackableValue()));
+            if (status != record.getStatus()) {
+                statusMismatches++;
+            }
+        }
+
+        synchronized void error() {
+            errors++;
+        }
+
+        synchronized ReplayResult result(String operation) {
+            LatencySummary before = LatencySummary.of(recorded);
+            LatencySummary after = LatencySummary.of(replayed);
+            return new ReplayResult(operation, replayed.getTotalCount() + errors, before, after,
+                    after.getP50() - before.getP50(), after.getP99() - before.getP99(), statusMismatches, errors);
+        }
+    }
+}
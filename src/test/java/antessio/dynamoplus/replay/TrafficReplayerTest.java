@@ -0,0 +1,183 @@
+package antessio.dynamoplus.replay;
+
+import antessio.dynamoplus.Clients;
+import antessio.dynamoplus.client.Gateway;
+import antessio.dynamoplus.client.SharedTransport;
+import antessio.dynamoplus.client.TransportSettings;
+import antessio.dynamoplus.protocol.HttpSignatures;
+import antessio.dynamoplus.protocol.Wire;
+import antessio.dynamoplus.standin.StandInServer;
+import okhttp3.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.security.PrivateKey;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+public class TrafficReplayerTest {
+
+    @TempDir
+    Path directory;
+
+    @DisplayName("Recorded traffic is read back as it was written")
+    @Test
+    void readsBackTheLog() throws Exception {
+        Path log = record();
+
+        List<TrafficRecord> records = new ArrayList<>();
+        try (TrafficLog.Reader reader = TrafficLog.read(log)) {
+            reader.forEachRemaining(records::add);
+        }
+
+        assertThat(records).extracting(TrafficRecord::getMethod).containsExactly("POST", "POST", "GET", "GET");
+        assertThat(records).extracting(TrafficRecord::getStatus).containsExactly(200, 200, 200, 401);
+        assertThat(records.get(0).getPath()).isEqualTo(Wire.BASE_PATH + "/collection");
+        assertThat(new String(records.get(0).getBody())).contains("book_replay");
+        assertThat(records.get(2).getRawQuery()).isEqualTo("limit=5");
+    }
+
+    @DisplayName("Replaying the log on an empty server gives the same responses")
+    @Test
+    void replays() throws Exception {
+        Path log = record();
+        StandInServer target = StandInServer.start("root", "12345");
+        try {
+            TrafficReplayer replayer = new TrafficReplayer(target.getBaseUrl(), new SharedTransport(TransportSettings.builder().build()),
+                    0, 2, null);
+
+            List<TrafficReplayer.ReplayResult> results = replayer.replay(log);
+
+            assertThat(results).extracting(TrafficReplayer.ReplayResult::getOperation)
+                    .containsExactly("createCollection", "createDocument", "getAll", "getAllCollections");
+            assertThat(results).allMatch(r -> r.getCount() == 1);
+            assertThat(results).allMatch(r -> r.getStatusMismatches() == 0 && r.getErrors() == 0);
+        } finally {
+            target.stop();
+        }
+    }
+
+    @DisplayName("A new recording replaces the log of the previous run")
+    @Test
+    void replacesThePreviousRun() throws Exception {
+        record();
+        Path log = record();
+
+        List<TrafficRecord> records = new ArrayList<>();
+        try (TrafficLog.Reader reader = TrafficLog.read(log)) {
+            reader.forEachRemaining(records::add);
+        }
+
+        assertThat(records).hasSize(4);
+    }
+
+    @DisplayName("HTTP signatures are signed again, after the client authorization they depend on")
+    @Test
+    void resignsHttpSignatures() throws Exception {
+        List<TrafficReplayer.ReplayResult> results = replaySigned(HttpSignatures.privateKey(Clients.PRIVATE_KEY));
+
+        assertThat(results).extracting(TrafficReplayer.ReplayResult::getOperation)
+                .containsExactly("createClientAuthorization", "createCollection", "getAll");
+        assertThat(results).allMatch(r -> r.getStatusMismatches() == 0 && r.getErrors() == 0);
+        assertThat(results.get(2).getCount()).isEqualTo(5);
+    }
+
+    @DisplayName("Requests that can't be built count as errors and don't stop the replay")
+    @Test
+    void countsFailedRequests() throws Exception {
+        // no key to sign with: building each signed request fails
+        List<TrafficReplayer.ReplayResult> results = assertTimeoutPreemptively(Duration.ofSeconds(30), () -> replaySigned(null));
+
+        assertThat(results.get(2).getOperation()).isEqualTo("getAll");
+        assertThat(results.get(2).getErrors()).isEqualTo(5);
+    }
+
+    private List<TrafficReplayer.ReplayResult> replaySigned(PrivateKey privateKey) throws Exception {
+        Path log = recordSigned();
+        StandInServer target = StandInServer.start("root", "12345");
+        try {
+            return new TrafficReplayer(target.getBaseUrl(), new SharedTransport(TransportSettings.builder().build()), 0, 4, privateKey)
+                    .replay(log);
+        } finally {
+            target.stop();
+        }
+    }
+
+    /**
+     * An admin creating a collection and an HTTP signature client, then the client listing it.
+     */
+    private Path recordSigned() throws IOException {
+        Path log = directory.resolve("signed.log");
+        StandInServer standIn = StandInServer.start("root", "12345");
+        Gateway gateway = Gateway.start(standIn.getBaseUrl(), new SharedTransport(TransportSettings.builder().build()));
+        try (TrafficRecorder recorder = new TrafficRecorder(log)) {
+            gateway.addListener(recorder);
+            OkHttpClient client = new OkHttpClient();
+            String root = Credentials.basic("root", "12345");
+            send(client, new Request.Builder().url(gateway.getBaseUrl() + Wire.BASE_PATH + "/collection").header("Authorization", root)
+                    .post(RequestBody.create(MediaType.parse("application/json"), "{\"name\":\"book_replay\",\"id_key\":\"isbn\"}")));
+            send(client, new Request.Builder().url(gateway.getBaseUrl() + Wire.BASE_PATH + "/client_authorization").header("Authorization", root)
+                    .post(RequestBody.create(MediaType.parse("application/json"), Wire.MAPPER.createObjectNode()
+                            .put("type", "http_signature")
+                            .put("client_id", "signer")
+                            .put("public_key", Clients.PUBLIC_KEY)
+                            .set("client_scopes", Wire.MAPPER.createArrayNode().add(Wire.MAPPER.createObjectNode()
+                                    .put("collection_name", "book_replay").put("scope_type", "QUERY")))
+                            .toString())));
+            List<String> headers = Arrays.asList(HttpSignatures.REQUEST_TARGET, "host", "date");
+            String host = gateway.getBaseUrl().substring("http://".length());
+            String target = Wire.BASE_PATH + "/book_replay?limit=5";
+            for (int i = 0; i < 5; i++) {
+                String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC));
+                String signingString = HttpSignatures.signingString("GET", target, headers, h -> h.equals("host") ? host : date);
+                Request signed = new Request.Builder().url(gateway.getBaseUrl() + target).header("Date", date)
+                        .header("Authorization", HttpSignatures.authorization("signer", "rsa-sha256", headers, signingString,
+                                HttpSignatures.privateKey(Clients.PRIVATE_KEY)))
+                        .build();
+                try (Response response = client.newCall(signed).execute()) {
+                    assertThat(response.code()).isEqualTo(200);
+                }
+            }
+        } finally {
+            gateway.stop();
+            standIn.stop();
+        }
+        return log;
+    }
+
+    private Path record() throws IOException {
+        Path log = directory.resolve("traffic.log");
+        StandInServer standIn = StandInServer.start("root", "12345");
+        Gateway gateway = Gateway.start(standIn.getBaseUrl(), new SharedTransport(TransportSettings.builder().build()));
+        try (TrafficRecorder recorder = new TrafficRecorder(log)) {
+            gateway.addListener(recorder);
+            OkHttpClient client = new OkHttpClient();
+            String root = Credentials.basic("root", "12345");
+            send(client, new Request.Builder().url(gateway.getBaseUrl() + Wire.BASE_PATH + "/collection").header("Authorization", root)
+                    .post(RequestBody.create(MediaType.parse("application/json"), "{\"name\":\"book_replay\",\"id_key\":\"isbn\"}")));
+            send(client, new Request.Builder().url(gateway.getBaseUrl() + Wire.BASE_PATH + "/book_replay").header("Authorization", root)
+                    .post(RequestBody.create(MediaType.parse("application/json"), "{\"isbn\":\"1\",\"title\":\"t\"}")));
+            send(client, new Request.Builder().url(gateway.getBaseUrl() + Wire.BASE_PATH + "/book_replay?limit=5").header("Authorization", root));
+            send(client, new Request.Builder().url(gateway.getBaseUrl() + Wire.BASE_PATH + "/collection").header("Authorization", Credentials.basic("root", "wrong")));
+        } finally {
+            gateway.stop();
+            standIn.stop();
+        }
+        return log;
+    }
+
+    private static void send(OkHttpClient client, Request.Builder request) throws IOException {
+        client.newCall(request.build()).execute().close();
+    }
+}
@@ -0,0 +1,48 @@
+package antessio.dynamoplus.standin;
+
+import antessio.dynamoplus.protocol.QueryShape;
+import antessio.dynamoplus.protocol.Wire;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Optional;
+
+/**
+ * Evaluates {@code eq}, {@code range} and {@code and} predicates against a document.
+ * Ranges are inclusive on both ends and compare values as strings, like DynamoDB's {@code BETWEEN} on string keys.
+ */
+final class Predicates {
+
+    private Predicates() {
+    }
+
+    static boolean matches(JsonNode predicate, JsonNode document) {
+        if (predicate.has(QueryShape.AND)) {
+            for (JsonNode p : predicate.get(QueryShape.AND)) {
+                if (!matches(p, document)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (predicate.has(QueryShape.EQ)) {
+            JsonNode eq = predicate.get(QueryShape.EQ);
+            String expected = Wire.text(eq, "value").orElse(null);
+            return value(document, eq).map(v -> v.equals(expected)).orElse(false);
+        }
+        if (predicate.has(QueryShape.RANGE)) {
+            JsonNode range = predicate.get(QueryShape.RANGE);
+            String from = Wire.text(range, "from").orElse("");
+            String to = Wire.text(range, "to").orElse(null);
+            return value(document, range)
+                    .map(v -> v.compareTo(from) >= 0 && (to == null || v.compareTo(to) <= 0))
+                    .orElse(false);
+        }
+        throw new StandInException(400, "unsupported predicate " + predicate);
+    }
+
+    private static Optional<String> value(JsonNode document, JsonNode condition) {
+        return Wire.text(condition, "fieldName")
+                .flatMap(field -> Wire.path(document, field))
+                .map(JsonNode::asText);
+    }
+}
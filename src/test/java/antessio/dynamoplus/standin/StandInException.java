@@ -0,0 +1,20 @@
+package antessio.dynamoplus.standin;
+
+/**
+ * A request failure that the stand-in server reports with the given HTTP status.
+ */
+class StandInException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    StandInException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    int getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,326 @@
+package antessio.dynamoplus.standin;
+
+import antessio.dynamoplus.protocol.*;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * In-process stand-in for a DynamoPlus installation, good enough to run the suite and the performance scenarios
+ * without Docker or AWS.
+ * <p>
+ * It implements the collection, index, client authorization, document and query endpoints called by {@code SDKV2},
+ * authenticates basic, API key and HTTP signature credentials and enforces client scopes. Queries must be served by
+ * an index, as on the real server. All state lives in memory and is lost on {@link #stop()}.
+ */
+public class StandInServer {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    private final String root;
+    private final String password;
+    private final StandInStore store = new StandInStore();
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private StandInServer(String root, String password, int port) throws IOException {
+        this.root = root;
+        this.password = password;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "dynamoplus-standin");
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    /**
+     * Starts a stand-in on an ephemeral loopback port.
+     */
+    public static StandInServer start(String root, String password) {
+        try {
+            StandInServer standIn = new StandInServer(root, password, 0);
+            // the dispatcher thread inherits the daemon flag of the thread starting the server:
+            // starting it from a daemon thread lets the JVM exit without an explicit stop()
+            Thread starter = new Thread(standIn.server::start);
+            starter.setDaemon(true);
+            starter.start();
+            starter.join();
+            return standIn;
+        } catch (IOException e) {
+            throw new IllegalStateException("unable to start the stand-in server", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while starting the stand-in server", e);
+        }
+    }
+
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            Endpoint endpoint = Endpoint.resolve(method, exchange.getRequestURI().getPath());
+            byte[] body = readBody(exchange.getRequestBody());
+            if (endpoint.getOperation() != Operation.SYSTEM_INFO) {
+                authorize(authenticate(exchange), endpoint);
+            }
+            JsonNode response = dispatch(endpoint, exchange, body);
+            send(exchange, 200, response);
+        } catch (StandInException e) {
+            ObjectNode error = Wire.MAPPER.createObjectNode().put(Wire.MESSAGE, e.getMessage());
+            send(exchange, e.getStatus(), error);
+        } catch (RuntimeException e) {
+            ObjectNode error = Wire.MAPPER.createObjectNode().put(Wire.MESSAGE, String.valueOf(e.getMessage()));
+            send(exchange, 500, error);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private JsonNode dispatch(Endpoint endpoint, HttpExchange exchange, byte[] body) {
+        Map<String, String> params = queryParameters(exchange.getRequestURI().getRawQuery());
+        switch (endpoint.getOperation()) {
+            case SYSTEM_INFO:
+                return Wire.MAPPER.createObjectNode().put("version", "stand-in");
+            case CREATE_COLLECTION:
+                return store.createCollection(object(body));
+            case GET_COLLECTION:
+                return store.getCollection(endpoint.getId().get()).orElseThrow(() -> notFound(endpoint));
+            case GET_ALL_COLLECTIONS:
+                return page(store.getAllCollections(), false, null);
+            case CREATE_INDEX:
+                return store.createIndex(object(body));
+            case GET_INDEX:
+                return store.getIndex(endpoint.getId().get()).orElseThrow(() -> notFound(endpoint));
+            case CREATE_CLIENT_AUTHORIZATION:
+                return store.createClientAuthorization(object(body));
+            case GET_CLIENT_AUTHORIZATION:
+                return store.getClientAuthorization(endpoint.getId().get()).orElseThrow(() -> notFound(endpoint));
+            case CREATE_DOCUMENT:
+                return store.createDocument(collection(endpoint), object(body));
+            case GET_DOCUMENT:
+                return store.getDocument(collection(endpoint), endpoint.getId().get()).orElseThrow(() -> notFound(endpoint));
+            case UPDATE_DOCUMENT:
+                return store.updateDocument(collection(endpoint), endpoint.getId().get(), object(body));
+            case DELETE_DOCUMENT:
+                store.deleteDocument(collection(endpoint), endpoint.getId().get());
+                return Wire.MAPPER.createObjectNode();
+            case GET_ALL:
+                return query(collection(endpoint), null, params);
+            case QUERY:
+                return query(collection(endpoint), body.length == 0 ? null : object(body), params);
+            default:
+                throw new StandInException(404, "no route for " + exchange.getRequestMethod() + " " + exchange.getRequestURI());
+        }
+    }
+
+    private JsonNode query(String collectionName, JsonNode body, Map<String, String> params) {
+        QueryShape shape = QueryShape.of(body);
+        String orderingKey = null;
+        if (!shape.isScan()) {
+            ObjectNode index = store.servingIndex(collectionName, shape)
+                    .orElseThrow(() -> new StandInException(400, "no index on " + collectionName + " serves " + shape));
+            orderingKey = StandInStore.orderingKey(index);
+        }
+        int limit = Optional.ofNullable(params.get(Wire.LIMIT_PARAM)).map(Integer::parseInt).orElse(DEFAULT_PAGE_SIZE);
+        String startFrom = Optional.ofNullable(params.get(Wire.START_FROM_PARAM)).orElse(params.get("startFrom"));
+        List<Map.Entry<String, ObjectNode>> entries = store.scan(collectionName, QueryShape.predicate(body).orElse(null), orderingKey, startFrom, limit);
+        boolean hasMore = entries.size() > limit;
+        List<Map.Entry<String, ObjectNode>> pageEntries = hasMore ? entries.subList(0, limit) : entries;
+        String lastKey = hasMore ? pageEntries.get(pageEntries.size() - 1).getKey() : null;
+        return page(pageEntries.stream().map(Map.Entry::getValue).collect(Collectors.toList()), hasMore, lastKey);
+    }
+
+    private JsonNode page(List<ObjectNode> data, boolean hasMore, String lastKey) {
+        ObjectNode page = Wire.MAPPER.createObjectNode();
+        page.set(Wire.DATA, store.toArray(data));
+        page.put(Wire.HAS_MORE, hasMore);
+        if (lastKey != null) {
+            page.put(Wire.LAST_KEY, lastKey);
+        }
+        return page;
+    }
+
+    private Principal authenticate(HttpExchange exchange) {
+        AuthType authType = AuthType.detect(exchange.getRequestHeaders()::getFirst);
+        switch (authType) {
+            case basic:
+                String credentials = new String(Base64.getDecoder().decode(
+                        exchange.getRequestHeaders().getFirst("Authorization").substring(6).trim()), StandardCharsets.UTF_8);
+                if (credentials.equals(root + ":" + password)) {
+                    return Principal.ROOT;
+                }
+                throw new StandInException(401, "invalid credentials");
+            case api_key:
+                String clientId = exchange.getRequestHeaders().getFirst(Wire.CLIENT_ID_HEADER);
+                String apiKey = exchange.getRequestHeaders().getFirst(Wire.API_KEY_HEADER);
+                return Optional.ofNullable(clientId)
+                        .flatMap(store::getClientAuthorization)
+                        .filter(c -> apiKey != null && apiKey.equals(Wire.text(c, "apiKey").orElse(null)))
+                        .map(Principal::new)
+                        .orElseThrow(() -> new StandInException(401, "invalid api key"));
+            case http_signature:
+                return verifySignature(exchange);
+            default:
+                throw new StandInException(401, "missing credentials");
+        }
+    }
+
+    private Principal verifySignature(HttpExchange exchange) {
+        String header = Optional.ofNullable(exchange.getRequestHeaders().getFirst("Authorization"))
+                .orElse(exchange.getRequestHeaders().getFirst("Signature"));
+        Map<String, String> parameters = HttpSignatures.parse(header);
+        ObjectNode client = Optional.ofNullable(parameters.get("keyId"))
+                .flatMap(store::getClientAuthorization)
+                .orElseThrow(() -> new StandInException(401, "unknown key id"));
+        String publicKey = Wire.text(client, "publicKey")
+                .orElseThrow(() -> new StandInException(401, "client has no public key"));
+        String rawQuery = exchange.getRequestURI().getRawQuery();
+        String target = exchange.getRequestURI().getRawPath() + (rawQuery == null ? "" : "?" + rawQuery);
+        String signingString = HttpSignatures.signingString(exchange.getRequestMethod(), target,
+                HttpSignatures.signedHeaders(parameters), exchange.getRequestHeaders()::getFirst);
+        if (!HttpSignatures.verify(signingString, parameters.getOrDefault("signature", ""), parameters.get("algorithm"),
+                HttpSignatures.publicKey(publicKey))) {
+            throw new StandInException(401, "invalid signature");
+        }
+        return new Principal(client);
+    }
+
+    private void authorize(Principal principal, Endpoint endpoint) {
+        if (principal.isRoot()) {
+            return;
+        }
+        if (endpoint.getOperation().isSystem()) {
+            throw new StandInException(403, "system endpoints require admin credentials");
+        }
+        String scopeType = scopeType(endpoint.getOperation());
+        String collectionName = collection(endpoint);
+        boolean allowed = Wire.field(principal.client, "clientScopes")
+                .map(scopes -> {
+                    for (JsonNode scope : scopes) {
+                        if (collectionName.equals(Wire.text(scope, "collectionName").orElse(null))
+                                && scopeType.equalsIgnoreCase(Wire.text(scope, "scopeType").orElse(""))) {
+                            return true;
+                        }
+                    }
+                    return false;
+                })
+                .orElse(false);
+        if (!allowed) {
+            throw new StandInException(403, String.format("client is not allowed to %s on %s", scopeType, collectionName));
+        }
+    }
+
+    private static String scopeType(Operation operation) {
+        switch (operation) {
+            case CREATE_DOCUMENT:
+                return "CREATE";
+            case GET_DOCUMENT:
+                return "GET";
+            case UPDATE_DOCUMENT:
+                return "UPDATE";
+            case DELETE_DOCUMENT:
+                return "DELETE";
+            default:
+                return "QUERY";
+        }
+    }
+
+    private static String collection(Endpoint endpoint) {
+        return endpoint.getCollection().orElseThrow(() -> new StandInException(404, "collection is missing"));
+    }
+
+    private static StandInException notFound(Endpoint endpoint) {
+        return new StandInException(404, endpoint.getId().orElse("") + " not found");
+    }
+
+    private static ObjectNode object(byte[] body) {
+        try {
+            JsonNode node = Wire.MAPPER.readTree(body);
+            if (node == null || !node.isObject()) {
+                throw new StandInException(400, "expected a JSON object");
+            }
+            return (ObjectNode) node;
+        } catch (IOException e) {
+            throw new StandInException(400, "invalid JSON: " + e.getMessage());
+        }
+    }
+
+    private static Map<String, String> queryParameters(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                try {
+                    params.put(URLDecoder.decode(pair.substring(0, eq), "UTF-8"), URLDecoder.decode(pair.substring(eq + 1), "UTF-8"));
+                } catch (IOException e) {
+                    throw new StandInException(400, "invalid query string");
+                }
+            }
+        }
+        return params;
+    }
+
+    private static byte[] readBody(InputStream in) throws IOException {
+        byte[] buffer = new byte[8192];
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static void send(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        byte[] bytes = Wire.MAPPER.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        if (exchange.getRequestMethod().equals("HEAD")) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static class Principal {
+        static final Principal ROOT = new Principal(null);
+        private final ObjectNode client;
+
+        Principal(ObjectNode client) {
+            this.client = client;
+        }
+
+        boolean isRoot() {
+            return client == null;
+        }
+    }
+}
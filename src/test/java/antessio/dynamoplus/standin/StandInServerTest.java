@@ -0,0 +1,184 @@
+package antessio.dynamoplus.standin;
+
+import antessio.dynamoplus.protocol.HttpSignatures;
+import antessio.dynamoplus.protocol.Wire;
+import com.fasterxml.jackson.databind.JsonNode;
+import okhttp3.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StandInServerTest {
+
+    private static final MediaType JSON = MediaType.parse("application/json");
+    private static final String ROOT = Credentials.basic("root", "12345");
+
+    private final StandInServer standIn = StandInServer.start("root", "12345");
+    private final OkHttpClient client = new OkHttpClient();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        assertThat(call(post("/collection", "{\"name\":\"book\",\"id_key\":\"isbn\"}"), ROOT).code()).isEqualTo(200);
+        assertThat(call(post("/index", "{\"collection\":{\"name\":\"book\"},\"conditions\":[\"category.name\",\"rating\"],\"ordering_key\":\"rating\"}"), ROOT).code())
+                .isEqualTo(200);
+        String[][] books = {{"1", "09"}, {"2", "03"}, {"3", "07"}, {"4", "05"}, {"5", "01"}};
+        for (String[] book : books) {
+            String category = book[0].equals("5") ? "noir" : "pulp";
+            assertThat(call(post("/book", String.format("{\"isbn\":\"%s\",\"rating\":\"%s\",\"category\":{\"name\":\"%s\"}}", book[0], book[1], category)), ROOT).code())
+                    .isEqualTo(200);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        standIn.stop();
+    }
+
+    private Request.Builder post(String path, String body) {
+        return new Request.Builder().url(standIn.getBaseUrl() + Wire.BASE_PATH + path).post(RequestBody.create(JSON, body));
+    }
+
+    private Request.Builder get(String path) {
+        return new Request.Builder().url(standIn.getBaseUrl() + Wire.BASE_PATH + path).get();
+    }
+
+    private Response call(Request.Builder request, String authorization) throws IOException {
+        return call(request.header("Authorization", authorization));
+    }
+
+    /**
+     * Executes the request and buffers the response, so that it doesn't need closing.
+     */
+    private Response call(Request.Builder request) throws IOException {
+        try (Response response = client.newCall(request.build()).execute()) {
+            return response.newBuilder().body(ResponseBody.create(JSON, response.body().bytes())).build();
+        }
+    }
+
+    private static JsonNode json(Response response) throws IOException {
+        return Wire.MAPPER.readTree(response.body().bytes());
+    }
+
+    private static List<String> isbns(JsonNode page) {
+        List<String> isbns = new ArrayList<>();
+        page.get(Wire.DATA).forEach(d -> isbns.add(d.get("isbn").asText()));
+        return isbns;
+    }
+
+    @DisplayName("A collection can't be created twice")
+    @Test
+    void rejectsDuplicateCollections() throws IOException {
+        assertThat(call(post("/collection", "{\"name\":\"book\",\"id_key\":\"id\"}"), ROOT).code()).isEqualTo(409);
+    }
+
+    @DisplayName("Basic credentials are checked against root and its password")
+    @Test
+    void authenticatesBasic() throws IOException {
+        assertThat(call(get("/collection"), Credentials.basic("root", "wrong")).code()).isEqualTo(401);
+        assertThat(call(get("/collection"), ROOT).code()).isEqualTo(200);
+    }
+
+    @DisplayName("API key clients are limited to their scopes and can't call system endpoints")
+    @Test
+    void enforcesScopes() throws IOException {
+        call(post("/client_authorization", "{\"type\":\"api_key\",\"client_id\":\"reader\",\"api_key\":\"secret\","
+                + "\"client_scopes\":[{\"collection_name\":\"book\",\"scope_type\":\"QUERY\"}]}"), ROOT);
+
+        assertThat(call(get("/book").header(Wire.CLIENT_ID_HEADER, "reader").header(Wire.API_KEY_HEADER, "wrong")).code())
+                .isEqualTo(401);
+        assertThat(call(get("/book").header(Wire.CLIENT_ID_HEADER, "reader")).code())
+                .isEqualTo(401);
+        assertThat(call(get("/book").header(Wire.CLIENT_ID_HEADER, "reader").header(Wire.API_KEY_HEADER, "secret")).code())
+                .isEqualTo(200);
+        assertThat(call(post("/book", "{\"isbn\":\"6\"}").header(Wire.CLIENT_ID_HEADER, "reader").header(Wire.API_KEY_HEADER, "secret")).code())
+                .isEqualTo(403);
+        assertThat(call(get("/collection").header(Wire.CLIENT_ID_HEADER, "reader").header(Wire.API_KEY_HEADER, "secret")).code())
+                .isEqualTo(403);
+    }
+
+    @DisplayName("HTTP signatures are verified with the public key of the client")
+    @Test
+    void verifiesHttpSignatures() throws IOException, NoSuchAlgorithmException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(1024);
+        KeyPair keyPair = generator.generateKeyPair();
+        String publicKey = "-----BEGIN PUBLIC KEY-----\n" + Base64.getMimeEncoder().encodeToString(keyPair.getPublic().getEncoded())
+                + "\n-----END PUBLIC KEY-----";
+        call(post("/client_authorization", Wire.MAPPER.createObjectNode()
+                .put("type", "http_signature")
+                .put("client_id", "signer")
+                .put("public_key", publicKey)
+                .set("client_scopes", Wire.MAPPER.createArrayNode().add(Wire.MAPPER.createObjectNode()
+                        .put("collection_name", "book").put("scope_type", "GET")))
+                .toString()), ROOT);
+        List<String> headers = Arrays.asList(HttpSignatures.REQUEST_TARGET, "host", "date");
+        String host = standIn.getBaseUrl().substring("http://".length());
+        String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC));
+        String target = Wire.BASE_PATH + "/book/3";
+        String signingString = HttpSignatures.signingString("GET", target, headers, h -> h.equals("host") ? host : date);
+        String authorization = HttpSignatures.authorization("signer", "rsa-sha256", headers, signingString, keyPair.getPrivate());
+
+        Response signed = call(get("/book/3").header("Host", host).header("Date", date), authorization);
+        Response otherTarget = call(get("/book/4").header("Host", host).header("Date", date), authorization);
+
+        assertThat(signed.code()).isEqualTo(200);
+        assertThat(json(signed).get("rating").asText()).isEqualTo("07");
+        assertThat(otherTarget.code()).isEqualTo(401);
+    }
+
+    @DisplayName("getAll pages through the documents in id order")
+    @Test
+    void paginatesGetAll() throws IOException {
+        JsonNode first = json(call(get("/book?limit=2"), ROOT));
+        JsonNode second = json(call(get("/book?limit=2&start_from=" + first.get(Wire.LAST_KEY).asText()), ROOT));
+        JsonNode last = json(call(get("/book?limit=2&start_from=" + second.get(Wire.LAST_KEY).asText()), ROOT));
+
+        assertThat(isbns(first)).containsExactly("1", "2");
+        assertThat(first.get(Wire.HAS_MORE).asBoolean()).isTrue();
+        assertThat(isbns(second)).containsExactly("3", "4");
+        assertThat(isbns(last)).containsExactly("5");
+        assertThat(last.get(Wire.HAS_MORE).asBoolean()).isFalse();
+        assertThat(last.has(Wire.LAST_KEY)).isFalse();
+    }
+
+    @DisplayName("Queries come back in the order of the ordering key of their index")
+    @Test
+    void ordersQueriesByOrderingKey() throws IOException {
+        String byCategory = "{\"matches\":{\"eq\":{\"field_name\":\"category.name\",\"value\":\"pulp\"}}}";
+        String byCategoryAndRating = "{\"matches\":{\"and\":[{\"eq\":{\"field_name\":\"category.name\",\"value\":\"pulp\"}},"
+                + "{\"range\":{\"field_name\":\"rating\",\"from\":\"04\",\"to\":\"09\"}}]}}";
+
+        JsonNode first = json(call(post("/book/query?limit=2", byCategory), ROOT));
+        JsonNode second = json(call(post("/book/query?limit=2&start_from=" + first.get(Wire.LAST_KEY).asText(), byCategory), ROOT));
+        JsonNode range = json(call(post("/book/query", byCategoryAndRating), ROOT));
+
+        assertThat(isbns(first)).containsExactly("2", "4");
+        assertThat(isbns(second)).containsExactly("3", "1");
+        assertThat(second.get(Wire.HAS_MORE).asBoolean()).isFalse();
+        assertThat(isbns(range)).containsExactly("4", "3", "1");
+    }
+
+    @DisplayName("Queries no index serves are rejected")
+    @Test
+    void rejectsUnindexedQueries() throws IOException {
+        Response response = call(post("/book/query", "{\"matches\":{\"eq\":{\"field_name\":\"title\",\"value\":\"Choke\"}}}"), ROOT);
+
+        assertThat(response.code()).isEqualTo(400);
+        assertThat(json(response).get(Wire.MESSAGE).asText()).contains("no index");
+    }
+}
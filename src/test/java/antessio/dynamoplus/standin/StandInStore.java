@@ -0,0 +1,178 @@
+package antessio.dynamoplus.standin;
+
+import antessio.dynamoplus.protocol.QueryShape;
+import antessio.dynamoplus.protocol.Wire;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory state of the stand-in server: collections, indexes, client authorizations and documents.
+ * Documents of a collection are kept sorted by id, which is also the pagination cursor. Queries return them in the
+ * order of the ordering key of the index serving them, then by id.
+ */
+class StandInStore {
+
+    private final Map<String, ObjectNode> collections = new ConcurrentHashMap<>();
+    private final Map<String, List<ObjectNode>> indexes = new ConcurrentHashMap<>();
+    private final Map<String, ObjectNode> clientAuthorizations = new ConcurrentHashMap<>();
+    private final Map<String, ConcurrentNavigableMap<String, ObjectNode>> documents = new ConcurrentHashMap<>();
+
+    ObjectNode createCollection(ObjectNode collection) {
+        String name = Wire.text(collection, "name")
+                .orElseThrow(() -> new StandInException(400, "collection name is missing"));
+        if (collections.putIfAbsent(name, collection) != null) {
+            throw new StandInException(409, "collection " + name + " already exists");
+        }
+        documents.computeIfAbsent(name, n -> new ConcurrentSkipListMap<>());
+        return collection;
+    }
+
+    Optional<ObjectNode> getCollection(String name) {
+        return Optional.ofNullable(collections.get(name));
+    }
+
+    List<ObjectNode> getAllCollections() {
+        return collections.values().stream()
+                .sorted(Comparator.comparing(c -> c.get("name").asText()))
+                .collect(Collectors.toList());
+    }
+
+    ObjectNode createIndex(ObjectNode index) {
+        String collectionName = Wire.field(index, "collection")
+                .flatMap(c -> Wire.text(c, "name"))
+                .orElseThrow(() -> new StandInException(400, "index collection is missing"));
+        if (!collections.containsKey(collectionName)) {
+            throw new StandInException(404, "collection " + collectionName + " not found");
+        }
+        if (!index.hasNonNull("uid")) {
+            index.put("uid", UUID.randomUUID().toString());
+        }
+        indexes.computeIfAbsent(collectionName, n -> new CopyOnWriteArrayList<>()).add(index);
+        return index;
+    }
+
+    Optional<ObjectNode> getIndex(String uidOrName) {
+        return indexes.values().stream()
+                .flatMap(List::stream)
+                .filter(i -> uidOrName.equals(Wire.text(i, "uid").orElse(null)) || uidOrName.equals(Wire.text(i, "name").orElse(null)))
+                .findFirst();
+    }
+
+    /**
+     * The first index of the collection serving a query of the given shape.
+     */
+    Optional<ObjectNode> servingIndex(String collectionName, QueryShape shape) {
+        return indexes.getOrDefault(collectionName, Collections.emptyList())
+                .stream()
+                .filter(i -> shape.isServedBy(conditions(i), orderingKey(i)))
+                .findFirst();
+    }
+
+    static String orderingKey(ObjectNode index) {
+        return Wire.text(index, "orderingKey").orElse(null);
+    }
+
+    private static List<String> conditions(ObjectNode index) {
+        List<String> conditions = new ArrayList<>();
+        Wire.field(index, "conditions").ifPresent(c -> c.forEach(n -> conditions.add(n.asText())));
+        return conditions;
+    }
+
+    ObjectNode createClientAuthorization(ObjectNode clientAuthorization) {
+        String clientId = Wire.text(clientAuthorization, "clientId")
+                .orElseThrow(() -> new StandInException(400, "client_id is missing"));
+        clientAuthorizations.put(clientId, clientAuthorization);
+        return clientAuthorization;
+    }
+
+    Optional<ObjectNode> getClientAuthorization(String clientId) {
+        return Optional.ofNullable(clientAuthorizations.get(clientId));
+    }
+
+    ObjectNode createDocument(String collectionName, ObjectNode document) {
+        String idKey = idKey(collectionName);
+        String id = Wire.path(document, idKey).map(JsonNode::asText).orElseGet(() -> {
+            String generated = UUID.randomUUID().toString();
+            document.put(idKey, generated);
+            return generated;
+        });
+        documents(collectionName).put(id, document);
+        return document;
+    }
+
+    Optional<ObjectNode> getDocument(String collectionName, String id) {
+        return Optional.ofNullable(documents(collectionName).get(id));
+    }
+
+    ObjectNode updateDocument(String collectionName, String id, ObjectNode patch) {
+        ObjectNode current = getDocument(collectionName, id)
+                .orElseThrow(() -> new StandInException(404, "document " + id + " not found"));
+        ObjectNode updated = current.deepCopy();
+        updated.setAll(patch);
+        documents(collectionName).put(id, updated);
+        return updated;
+    }
+
+    void deleteDocument(String collectionName, String id) {
+        if (documents(collectionName).remove(id) == null) {
+            throw new StandInException(404, "document " + id + " not found");
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} documents after {@code startFrom} matching the predicate, plus one extra document
+     * when there are more results. Without an ordering key documents come in id order, otherwise by the value of the
+     * ordering key (compared as strings, missing values first) and then by id; {@code startFrom} must then be the id
+     * of an existing document, as on the server, which reads it to build the start key.
+     */
+    List<Map.Entry<String, ObjectNode>> scan(String collectionName, JsonNode predicate, String orderingKey, String startFrom, int limit) {
+        ConcurrentNavigableMap<String, ObjectNode> all = documents(collectionName);
+        if (orderingKey == null) {
+            NavigableMap<String, ObjectNode> page = startFrom == null ? all : all.tailMap(startFrom, false);
+            return page.entrySet().stream()
+                    .filter(e -> predicate == null || Predicates.matches(predicate, e.getValue()))
+                    .limit(limit + 1L)
+                    .collect(Collectors.toList());
+        }
+        Comparator<Map.Entry<String, ObjectNode>> order = Comparator
+                .comparing((Map.Entry<String, ObjectNode> e) -> Wire.path(e.getValue(), orderingKey).map(JsonNode::asText).orElse(null),
+                        Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(Map.Entry::getKey);
+        Map.Entry<String, ObjectNode> start = startFrom == null ? null : new AbstractMap.SimpleImmutableEntry<>(startFrom,
+                Optional.ofNullable(all.get(startFrom)).orElseThrow(() -> new StandInException(400, "start_from " + startFrom + " not found")));
+        return all.entrySet().stream()
+                .filter(e -> predicate == null || Predicates.matches(predicate, e.getValue()))
+                .filter(e -> start == null || order.compare(e, start) > 0)
+                .sorted(order)
+                .limit(limit + 1L)
+                .collect(Collectors.toList());
+    }
+
+    ArrayNode toArray(List<? extends JsonNode> nodes) {
+        ArrayNode array = Wire.MAPPER.createArrayNode();
+        nodes.forEach(array::add);
+        return array;
+    }
+
+    private String idKey(String collectionName) {
+        return getCollection(collectionName)
+                .flatMap(c -> Wire.text(c, "idKey"))
+                .orElseThrow(() -> new StandInException(404, "collection " + collectionName + " not found"));
+    }
+
+    private ConcurrentNavigableMap<String, ObjectNode> documents(String collectionName) {
+        ConcurrentNavigableMap<String, ObjectNode> collectionDocuments = documents.get(collectionName);
+        if (collectionDocuments == null) {
+            throw new StandInException(404, "collection " + collectionName + " not found");
+        }
+        return collectionDocuments;
+    }
+}